@@ -0,0 +1,128 @@
+package com.example.applicationstatusservice.benchmark;
+
+import com.example.applicationstatusservice.ApplicationStatusServiceApplication;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * ApplicationContextState starts an embedded PostgreSQL server and an application context
+ * connected to it, shared by all threads of a benchmark trial. The server runs from binaries
+ * unpacked from the classpath, so the benchmarks need neither Docker nor an installed database.
+ * {@code @State(Scope.Benchmark)} makes JMH create one instance per trial.
+ */
+@State(Scope.Benchmark)
+public class ApplicationContextState {
+
+    /**
+     * The number of connections in the datasource pool used by the benchmarks.
+     */
+    private static final int POOL_SIZE = 16;
+
+    /**
+     * The PostgreSQL server the application context is connected to.
+     */
+    private EmbeddedPostgres postgres;
+
+    /**
+     * The running application context without a web server.
+     */
+    private ConfigurableApplicationContext context;
+
+    /**
+     * Starts the database and the application context before the trial.
+     */
+    @Setup(Level.Trial)
+    public void start() {
+        postgres = startPostgres();
+        context = startApplication(postgres, WebApplicationType.NONE, POOL_SIZE);
+    }
+
+    /**
+     * Closes the application context and stops the database after the trial.
+     */
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+        stopPostgres(postgres);
+    }
+
+    /**
+     * Starts an embedded PostgreSQL server in a new temporary data directory.
+     *
+     * @return the started server.
+     */
+    static EmbeddedPostgres startPostgres() {
+        try {
+            return EmbeddedPostgres.builder().setServerConfig("max_connections", "300").start();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Stops an embedded PostgreSQL server and removes its data directory.
+     *
+     * @param postgres is the server to stop.
+     */
+    static void stopPostgres(EmbeddedPostgres postgres) {
+        try {
+            postgres.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Starts an application context connected to the given database, with quiet logging. The
+     * rate limit is disabled unless enabled again by the extra arguments, since every request of a
+     * benchmark comes from the same IP address. Passwords are hashed with the lowest bcrypt strength
+     * unless set by the extra arguments, so that registering the applicants of a benchmark measures the database.
+     *
+     * @param postgres       is the database the application connects to.
+     * @param webType        is the web application type, NONE or SERVLET.
+     * @param poolSize       is the number of connections in the datasource pool.
+     * @param extraArguments are additional command line arguments for the application.
+     * @return the running application context.
+     */
+    static ConfigurableApplicationContext startApplication(EmbeddedPostgres postgres, WebApplicationType webType, int poolSize, String... extraArguments) {
+        List<String> arguments = new ArrayList<>(List.of(
+                "--spring.datasource.url=" + postgres.getJdbcUrl("postgres", "postgres"),
+                "--spring.datasource.username=postgres",
+                "--spring.datasource.password=",
+                "--spring.datasource.hikari.maximum-pool-size=" + poolSize,
+                "--spring.jpa.show-sql=false",
+                "--logging.level.root=WARN",
+                "--logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN"));
+        arguments.addAll(List.of(extraArguments));
+        if (arguments.stream().noneMatch(argument -> argument.startsWith("--application-status.rate-limit.enabled="))) {
+            arguments.add("--application-status.rate-limit.enabled=false");
+        }
+        if (arguments.stream().noneMatch(argument -> argument.startsWith("--application-status.password-hashing.strength="))) {
+            arguments.add("--application-status.password-hashing.strength=4");
+        }
+        return new SpringApplicationBuilder(ApplicationStatusServiceApplication.class).web(webType).run(arguments.toArray(String[]::new));
+    }
+
+    /**
+     * Looks up a bean from the running application context.
+     *
+     * @param type is the class of the bean.
+     * @param <T>  is the type of the bean.
+     * @return the bean of the given type.
+     */
+    public <T> T getBean(Class<T> type) {
+        return context.getBean(type);
+    }
+}
@@ -0,0 +1,82 @@
+package com.example.applicationstatusservice.benchmark;
+
+import com.example.applicationstatusservice.service.JwtAuthService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JwtAuthBenchmark compares the cost of verifying a recruiter token when the signature
+ * has to be checked (cold, cache disabled) with a token found in the cache of verified tokens (warm).
+ * Run with: mvn -Pbenchmark test-compile exec:exec -Dbenchmark.include=JwtAuthBenchmark
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtAuthBenchmark {
+
+    /**
+     * The JWT secret used by both services.
+     */
+    private static final String JWT_SECRET = "FKi2FTPuzT6XzXZnDjR4Z2X5Uu2+C3yNq3BgtHJvd4g=";
+
+    /**
+     * Service with the cache of verified tokens disabled.
+     */
+    private JwtAuthService coldJwtAuthService;
+
+    /**
+     * Service with the cache of verified tokens enabled.
+     */
+    private JwtAuthService warmJwtAuthService;
+
+    /**
+     * The authorization header of a recruiter.
+     */
+    private String header;
+
+    /**
+     * Creates both services and a recruiter token.
+     */
+    @Setup(Level.Trial)
+    public void setUp() {
+        coldJwtAuthService = new JwtAuthService(JWT_SECRET, 0, Duration.ofMinutes(15), new SimpleMeterRegistry());
+        warmJwtAuthService = new JwtAuthService(JWT_SECRET, 10_000, Duration.ofMinutes(15), new SimpleMeterRegistry());
+        header = "Bearer " + warmJwtAuthService.jwtCreateTestTokensRecruiter();
+    }
+
+    /**
+     * Measures a verification including the signature check.
+     *
+     * @return the authorization result.
+     */
+    @Benchmark
+    public String coldVerification() {
+        return coldJwtAuthService.jwtAuth(header);
+    }
+
+    /**
+     * Measures a verification answered by the cache of verified tokens.
+     *
+     * @return the authorization result.
+     */
+    @Benchmark
+    public String warmVerification() {
+        return warmJwtAuthService.jwtAuth(header);
+    }
+}
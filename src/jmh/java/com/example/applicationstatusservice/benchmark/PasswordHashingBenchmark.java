@@ -0,0 +1,182 @@
+package com.example.applicationstatusservice.benchmark;
+
+import com.example.applicationstatusservice.model.dto.ApplicationStatusDTO;
+import com.example.applicationstatusservice.model.dto.PersonDTO;
+import com.example.applicationstatusservice.model.dto.PersonRegistrationResultDTO;
+import com.example.applicationstatusservice.service.ApplicationStatusService;
+import com.example.applicationstatusservice.service.PersonService;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * PasswordHashingBenchmark measures the latency of status updates while other clients register
+ * applicants, whose passwords are hashed with bcrypt at the default strength. The bounded hashing
+ * uses the default pool of hashing threads, sized to half of the processors, the unbounded hashing
+ * uses as many hashing threads as there are registering clients, which is how hashing on the request
+ * threads competes for the CPU, and without hashing the registering clients are idle, which gives the
+ * latency of the status updates alone. The status update latencies are sampled, so their percentiles
+ * are reported, and the register rows give the latency of a registration of REGISTRATION_SIZE applicants.
+ * Run with: mvn -Pbenchmark test-compile exec:exec -Dbenchmark.include=PasswordHashingBenchmark
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 10)
+@Measurement(iterations = 3, time = 10)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PasswordHashingBenchmark {
+
+    /**
+     * The number of applicants whose statuses are updated.
+     */
+    private static final int APPLICANTS = 200;
+
+    /**
+     * The number of applicants registered by each registration.
+     */
+    private static final int REGISTRATION_SIZE = 10;
+
+    /**
+     * The number of clients registering applicants, which is also the number of hashing threads of the unbounded hashing.
+     */
+    private static final int REGISTERING_CLIENTS = 8;
+
+    /**
+     * The time an idle registering client waits between invocations when passwords are not hashed, in milliseconds.
+     */
+    private static final long IDLE_MILLIS = 100;
+
+    /**
+     * The number of connections in the datasource pool.
+     */
+    private static final int POOL_SIZE = 16;
+
+    /**
+     * The statuses that are cycled through by the benchmark.
+     */
+    private static final String[] STATUSES = {"Accept", "Pending", "Reject"};
+
+    /**
+     * The hashing of the registered passwords: none, bounded or unbounded.
+     */
+    @Param({"none", "bounded", "unbounded"})
+    private String hashing;
+
+    /**
+     * The PostgreSQL database the application is connected to.
+     */
+    private EmbeddedPostgres postgres;
+
+    /**
+     * The running application.
+     */
+    private ConfigurableApplicationContext context;
+
+    /**
+     * The service updating the statuses.
+     */
+    private ApplicationStatusService applicationStatusService;
+
+    /**
+     * The service registering the applicants.
+     */
+    private PersonService personService;
+
+    /**
+     * The person_ids of the applicants whose statuses are updated.
+     */
+    private Long[] personIds;
+
+    /**
+     * The number of registrations so far, making the usernames, emails and pnrs of each registration unique.
+     */
+    private final AtomicLong registrations = new AtomicLong();
+
+    /**
+     * Starts the database and the application with the hashing of the trial and registers the applicants.
+     */
+    @Setup(Level.Trial)
+    public void setUp() {
+        List<String> arguments = new ArrayList<>(List.of("--application-status.password-hashing.strength=10"));
+        if ("unbounded".equals(hashing)) {
+            arguments.add("--application-status.password-hashing.threads=" + REGISTERING_CLIENTS);
+        }
+        postgres = ApplicationContextState.startPostgres();
+        context = ApplicationContextState.startApplication(postgres, WebApplicationType.NONE, POOL_SIZE, arguments.toArray(String[]::new));
+        applicationStatusService = context.getBean(ApplicationStatusService.class);
+        personService = context.getBean(PersonService.class);
+
+        List<PersonDTO> applicants = new ArrayList<>(APPLICANTS);
+        for (int i = 0; i < APPLICANTS; i++) {
+            applicants.add(new PersonDTO("Hashing", "Benchmark", "1998" + i, "hashing" + i + "@kth.se", "123", "hashing" + i));
+        }
+        personIds = personService.saveApplicants(applicants).stream().map(PersonRegistrationResultDTO::getPerson_id).toArray(Long[]::new);
+    }
+
+    /**
+     * Closes the application and stops the database after the trial.
+     */
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+        ApplicationContextState.stopPostgres(postgres);
+    }
+
+    /**
+     * Measures one status update while the other clients register applicants.
+     *
+     * @return the result of the update.
+     */
+    @Benchmark
+    @Group("mixed")
+    @GroupThreads(4)
+    public String updateStatus() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return applicationStatusService.updateApplicationStatus(new ApplicationStatusDTO(personIds[random.nextInt(personIds.length)], STATUSES[random.nextInt(STATUSES.length)]), "benchmark");
+    }
+
+    /**
+     * Measures one registration of REGISTRATION_SIZE new applicants, or waits without hashing.
+     *
+     * @return the results of the registration, or null without hashing.
+     * @throws InterruptedException if the thread was interrupted while idle.
+     */
+    @Benchmark
+    @Group("mixed")
+    @GroupThreads(REGISTERING_CLIENTS)
+    public List<PersonRegistrationResultDTO> register() throws InterruptedException {
+        if ("none".equals(hashing)) {
+            Thread.sleep(IDLE_MILLIS);
+            return null;
+        }
+        long registration = registrations.incrementAndGet();
+        List<PersonDTO> applicants = new ArrayList<>(REGISTRATION_SIZE);
+        for (int i = 0; i < REGISTRATION_SIZE; i++) {
+            String key = registration + "-" + i;
+            applicants.add(new PersonDTO("Hashing", "Registration", "pnr" + key, "hashed" + key + "@kth.se", "123", "hashed" + key));
+        }
+        return personService.saveApplicants(applicants);
+    }
+}
@@ -0,0 +1,300 @@
+package com.example.applicationstatusservice.benchmark;
+
+import com.example.applicationstatusservice.model.ApplicationStatus;
+import com.example.applicationstatusservice.model.ApplicationStatusView;
+import com.example.applicationstatusservice.model.Person;
+import com.example.applicationstatusservice.model.Status;
+import com.example.applicationstatusservice.model.dto.ApplicationStatusDTO;
+import com.example.applicationstatusservice.model.dto.PersonDTO;
+import com.example.applicationstatusservice.repository.ApplicationStatusRepository;
+import com.example.applicationstatusservice.repository.PersonRepository;
+import com.example.applicationstatusservice.service.ApplicationStatusService;
+import com.example.applicationstatusservice.service.PersonService;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * PersistenceModeBenchmark compares the default JPA persistence mode with the JDBC persistence
+ * mode of the jdbc profile. The throughput benchmarks read a person, read a status, load and save
+ * an application status in a transaction, and update a status through the service, with several
+ * threads sharing one application. The startup benchmark measures the time it takes to start the
+ * application in a new JVM, once per fork, against a new database, so that it includes creating the tables.
+ * Run with: mvn -Pbenchmark test-compile exec:exec -Dbenchmark.include=PersistenceModeBenchmark
+ */
+public class PersistenceModeBenchmark {
+
+    /**
+     * The number of applicants whose statuses are read and updated.
+     */
+    private static final int APPLICANTS = 1000;
+
+    /**
+     * The number of connections in the datasource pool.
+     */
+    private static final int POOL_SIZE = 16;
+
+    /**
+     * The statuses that are cycled through by the benchmark.
+     */
+    private static final Status[] STATUSES = Status.values();
+
+    /**
+     * Starts the application in the given persistence mode.
+     *
+     * @param postgres is the database the application connects to.
+     * @param mode     is the persistence mode, jpa or jdbc.
+     * @return the running application context.
+     */
+    private static ConfigurableApplicationContext startApplication(EmbeddedPostgres postgres, String mode) {
+        if ("jdbc".equals(mode)) {
+            return ApplicationContextState.startApplication(postgres, WebApplicationType.NONE, POOL_SIZE, "--spring.profiles.active=jdbc");
+        }
+        return ApplicationContextState.startApplication(postgres, WebApplicationType.NONE, POOL_SIZE);
+    }
+
+    /**
+     * RunningApplication is an application running in one persistence mode with registered
+     * applicants, shared by all threads of a throughput trial.
+     */
+    @State(Scope.Benchmark)
+    public static class RunningApplication {
+
+        /**
+         * The persistence mode of the application, jpa or jdbc.
+         */
+        @Param({"jpa", "jdbc"})
+        private String mode;
+
+        /**
+         * The PostgreSQL database the application is connected to.
+         */
+        private EmbeddedPostgres postgres;
+
+        /**
+         * The running application.
+         */
+        private ConfigurableApplicationContext context;
+
+        /**
+         * The person_ids of the registered applicants.
+         */
+        private Long[] personIds;
+
+        /**
+         * Repository of the persons in the persistence mode of the trial.
+         */
+        private PersonRepository personRepository;
+
+        /**
+         * Repository of the application statuses in the persistence mode of the trial.
+         */
+        private ApplicationStatusRepository applicationStatusRepository;
+
+        /**
+         * The service updating the statuses.
+         */
+        private ApplicationStatusService applicationStatusService;
+
+        /**
+         * Runs the load-and-save benchmark in a transaction.
+         */
+        private TransactionTemplate transactionTemplate;
+
+        /**
+         * Starts the database and the application, registers the applicants and gives each of them a status.
+         */
+        @Setup(Level.Trial)
+        public void setUp() {
+            postgres = ApplicationContextState.startPostgres();
+            context = startApplication(postgres, mode);
+            personRepository = context.getBean(PersonRepository.class);
+            applicationStatusRepository = context.getBean(ApplicationStatusRepository.class);
+            applicationStatusService = context.getBean(ApplicationStatusService.class);
+            transactionTemplate = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+
+            PersonService personService = context.getBean(PersonService.class);
+            for (int i = 0; i < APPLICANTS; i++) {
+                personService.saveApplicant(new PersonDTO("Mode", "Test", "1998" + i, "mode" + i + "@kth.se", "123", "mode" + i));
+            }
+            personIds = personRepository.findAll().stream().map(Person::getPersonId).toArray(Long[]::new);
+            Map<Long, Status> initialStatuses = new LinkedHashMap<>();
+            for (Long personId : personIds) {
+                initialStatuses.put(personId, Status.PENDING);
+            }
+            transactionTemplate.executeWithoutResult(tx -> applicationStatusRepository.batchUpsertStatuses(initialStatuses, "benchmark"));
+        }
+
+        /**
+         * Closes the application and stops the database after the trial.
+         */
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            context.close();
+            ApplicationContextState.stopPostgres(postgres);
+        }
+
+        /**
+         * Picks the person_id of a random applicant.
+         *
+         * @return the person_id.
+         */
+        Long randomPersonId() {
+            return personIds[ThreadLocalRandom.current().nextInt(personIds.length)];
+        }
+    }
+
+    /**
+     * StartupDatabase is a new database the application is started against.
+     */
+    @State(Scope.Benchmark)
+    public static class StartupDatabase {
+
+        /**
+         * The persistence mode of the application, jpa or jdbc.
+         */
+        @Param({"jpa", "jdbc"})
+        private String mode;
+
+        /**
+         * The PostgreSQL database the application connects to.
+         */
+        private EmbeddedPostgres postgres;
+
+        /**
+         * Starts the database before the trial.
+         */
+        @Setup(Level.Trial)
+        public void setUp() {
+            postgres = ApplicationContextState.startPostgres();
+        }
+
+        /**
+         * Stops the database after the trial.
+         */
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            ApplicationContextState.stopPostgres(postgres);
+        }
+    }
+
+    /**
+     * Measures reading a person by the person_id.
+     *
+     * @param application is the running application.
+     * @return the person.
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    @Warmup(iterations = 3, time = 5)
+    @Measurement(iterations = 5, time = 5)
+    @Fork(1)
+    @Threads(8)
+    public Optional<Person> findPerson(RunningApplication application) {
+        return application.personRepository.findById(application.randomPersonId());
+    }
+
+    /**
+     * Measures reading the status of an application.
+     *
+     * @param application is the running application.
+     * @return the status.
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    @Warmup(iterations = 3, time = 5)
+    @Measurement(iterations = 5, time = 5)
+    @Fork(1)
+    @Threads(8)
+    public Optional<ApplicationStatusView> findStatus(RunningApplication application) {
+        return application.applicationStatusRepository.findStatusByPersonId(application.randomPersonId());
+    }
+
+    /**
+     * Measures loading an application status and saving it with a new status in a transaction,
+     * retried when another thread saved the same application status in between.
+     *
+     * @param application is the running application.
+     * @return the saved application status.
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    @Warmup(iterations = 3, time = 5)
+    @Measurement(iterations = 5, time = 5)
+    @Fork(1)
+    @Threads(8)
+    public ApplicationStatus findAndSave(RunningApplication application) {
+        Long personId = application.randomPersonId();
+        Status status = STATUSES[ThreadLocalRandom.current().nextInt(STATUSES.length)];
+        while (true) {
+            try {
+                return application.transactionTemplate.execute(tx -> {
+                    ApplicationStatus applicationStatus = application.applicationStatusRepository.findByPerson(application.personRepository.getReferenceById(personId));
+                    applicationStatus.setStatus(status);
+                    return application.applicationStatusRepository.save(applicationStatus);
+                });
+            } catch (OptimisticLockingFailureException e) {
+                // Another thread saved the application status since it was loaded, load it again.
+            }
+        }
+    }
+
+    /**
+     * Measures updating a status through the service.
+     *
+     * @param application is the running application.
+     * @return the result of the update.
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    @Warmup(iterations = 3, time = 5)
+    @Measurement(iterations = 5, time = 5)
+    @Fork(1)
+    @Threads(8)
+    public String updateStatus(RunningApplication application) {
+        Status status = STATUSES[ThreadLocalRandom.current().nextInt(STATUSES.length)];
+        return application.applicationStatusService.updateApplicationStatus(new ApplicationStatusDTO(application.randomPersonId(), status.getValue()), "benchmark");
+    }
+
+    /**
+     * Measures starting and closing the application in a new JVM.
+     *
+     * @param database is the database the application connects to.
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 0)
+    @Measurement(iterations = 1)
+    @Fork(5)
+    public void startup(StartupDatabase database) {
+        startApplication(database.postgres, database.mode).close();
+    }
+}
@@ -0,0 +1,136 @@
+package com.example.applicationstatusservice.benchmark;
+
+import com.example.applicationstatusservice.model.dto.PersonAvailabilityDTO;
+import com.example.applicationstatusservice.service.PersonService;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * PersonLookupBenchmark measures the latency of a username availability check against a person
+ * table of different sizes. The cached lookup checks a hot set of usernames answered from the
+ * lookup cache, the indexed lookup checks random usernames with the cache turned off, so every
+ * check reads the lower(username) index, and the unindexed lookup does the same after the indexes
+ * have been dropped, as before they were created. Half of the checked usernames are taken, and they
+ * are checked in upper case, so the case-insensitive comparison is exercised.
+ * Run with: mvn -Pbenchmark test-compile exec:exec -Dbenchmark.include=PersonLookupBenchmark
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(1)
+@Threads(1)
+@State(Scope.Benchmark)
+public class PersonLookupBenchmark {
+
+    /**
+     * The number of usernames checked by the cached lookup.
+     */
+    private static final int HOT_USERNAMES = 1000;
+
+    /**
+     * The number of connections in the datasource pool.
+     */
+    private static final int POOL_SIZE = 4;
+
+    /**
+     * The number of persons in the person table.
+     */
+    @Param({"10000", "1000000"})
+    private int rows;
+
+    /**
+     * The lookup: cached, indexed or unindexed.
+     */
+    @Param({"cached", "indexed", "unindexed"})
+    private String lookup;
+
+    /**
+     * The PostgreSQL database the application is connected to.
+     */
+    private EmbeddedPostgres postgres;
+
+    /**
+     * The running application.
+     */
+    private ConfigurableApplicationContext context;
+
+    /**
+     * The service checking the availability.
+     */
+    private PersonService personService;
+
+    /**
+     * The usernames that are checked, half of them taken.
+     */
+    private String[] usernames;
+
+    /**
+     * Starts the database and the application, fills the person table and drops the indexes for the unindexed lookup.
+     */
+    @Setup(Level.Trial)
+    public void setUp() {
+        List<String> arguments = new ArrayList<>();
+        if (!"cached".equals(lookup)) {
+            arguments.add("--application-status.lookup-cache.max-size=0");
+        }
+        postgres = ApplicationContextState.startPostgres();
+        context = ApplicationContextState.startApplication(postgres, WebApplicationType.NONE, POOL_SIZE, arguments.toArray(String[]::new));
+        personService = context.getBean(PersonService.class);
+
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        jdbcTemplate.update("INSERT INTO person (name, surname, pnr, email, password, role_id, username) "
+                + "SELECT 'Lookup', 'Benchmark', 'pnr' || i, 'lookup' || i || '@kth.se', '123', 2, 'lookup' || i FROM generate_series(1, ?) i", rows);
+        if ("unindexed".equals(lookup)) {
+            jdbcTemplate.execute("DROP INDEX person_lower_username_idx, person_lower_email_idx, person_pnr_idx");
+        }
+        jdbcTemplate.execute("VACUUM ANALYZE person");
+
+        int checked = "cached".equals(lookup) ? HOT_USERNAMES : 2 * rows;
+        usernames = new String[checked];
+        for (int i = 0; i < checked; i++) {
+            int person = "cached".equals(lookup) ? i * (2 * rows / HOT_USERNAMES) : i;
+            usernames[i] = "LOOKUP" + (person + 1);
+        }
+    }
+
+    /**
+     * Closes the application and stops the database after the trial.
+     */
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+        ApplicationContextState.stopPostgres(postgres);
+    }
+
+    /**
+     * Measures one username availability check.
+     *
+     * @return the availability of the username.
+     */
+    @Benchmark
+    public PersonAvailabilityDTO checkUsername() {
+        return personService.checkAvailability(usernames[ThreadLocalRandom.current().nextInt(usernames.length)], null, null);
+    }
+}
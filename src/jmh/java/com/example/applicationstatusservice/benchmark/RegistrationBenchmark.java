@@ -0,0 +1,170 @@
+package com.example.applicationstatusservice.benchmark;
+
+import com.example.applicationstatusservice.model.dto.PersonDTO;
+import com.example.applicationstatusservice.model.dto.PersonRegistrationResultDTO;
+import com.example.applicationstatusservice.service.PersonService;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * RegistrationBenchmark measures the number of applicants registered each second by a bulk
+ * registration of ROWS applicants, with the inserts sent to the database in JDBC batches of
+ * different sizes, in the default JPA persistence mode and in the JDBC persistence mode. The
+ * oneByOne benchmark registers the same number of applicants with one saveApplicant call each,
+ * as a client without the bulk endpoint would. Every invocation registers new usernames and
+ * emails, so all applicants pass the duplicate checks and are inserted. The registered applicants
+ * are deleted before each iteration, since the duplicate checks read the usernames and emails of
+ * the whole table and would otherwise slow down as the table grows. The passwords are hashed with
+ * the lowest bcrypt strength set by ApplicationContextState, so the inserts dominate.
+ * Run with: mvn -Pbenchmark test-compile exec:exec -Dbenchmark.include=RegistrationBenchmark
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 10)
+@Measurement(iterations = 3, time = 10)
+@Fork(1)
+@Threads(1)
+@State(Scope.Benchmark)
+public class RegistrationBenchmark {
+
+    /**
+     * The number of applicants registered by each invocation.
+     */
+    private static final int ROWS = 1000;
+
+    /**
+     * The number of connections in the datasource pool.
+     */
+    private static final int POOL_SIZE = 4;
+
+    /**
+     * The persistence mode of the application, jpa or jdbc.
+     */
+    @Param({"jpa", "jdbc"})
+    private String mode;
+
+    /**
+     * The number of inserts sent to the database in one JDBC batch.
+     */
+    @Param({"1", "50", "500"})
+    private int jdbcBatchSize;
+
+    /**
+     * The PostgreSQL database the application is connected to.
+     */
+    private EmbeddedPostgres postgres;
+
+    /**
+     * The running application.
+     */
+    private ConfigurableApplicationContext context;
+
+    /**
+     * The service registering the applicants.
+     */
+    private PersonService personService;
+
+    /**
+     * Deletes the applicants registered by the previous iterations.
+     */
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * The number of invocations so far, making the usernames and emails of each invocation unique.
+     */
+    private long invocations;
+
+    /**
+     * Starts the database and the application with the persistence mode and JDBC batch size of the trial.
+     */
+    @Setup(Level.Trial)
+    public void setUp() {
+        List<String> arguments = new ArrayList<>(List.of("--application-status.batch.jdbc-batch-size=" + jdbcBatchSize));
+        if ("jdbc".equals(mode)) {
+            arguments.add("--spring.profiles.active=jdbc");
+        }
+        postgres = ApplicationContextState.startPostgres();
+        context = ApplicationContextState.startApplication(postgres, WebApplicationType.NONE, POOL_SIZE, arguments.toArray(String[]::new));
+        personService = context.getBean(PersonService.class);
+        jdbcTemplate = context.getBean(JdbcTemplate.class);
+    }
+
+    /**
+     * Deletes the applicants registered by the previous iterations, so every iteration starts with an empty table.
+     */
+    @Setup(Level.Iteration)
+    public void deleteApplicants() {
+        jdbcTemplate.update("DELETE FROM person");
+    }
+
+    /**
+     * Closes the application and stops the database after the trial.
+     */
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+        ApplicationContextState.stopPostgres(postgres);
+    }
+
+    /**
+     * Measures a bulk registration of ROWS applicants.
+     *
+     * @return the results of the registration.
+     */
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public List<PersonRegistrationResultDTO> bulk() {
+        return personService.saveApplicants(nextApplicants());
+    }
+
+    /**
+     * Measures registering ROWS applicants one at a time.
+     *
+     * @return the number of applicants registered.
+     */
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public int oneByOne() {
+        List<PersonDTO> applicants = nextApplicants();
+        for (PersonDTO applicant : applicants) {
+            personService.saveApplicant(applicant);
+        }
+        return applicants.size();
+    }
+
+    /**
+     * Creates ROWS applicants that have not been registered before.
+     *
+     * @return the applicants.
+     */
+    private List<PersonDTO> nextApplicants() {
+        long invocation = invocations++;
+        List<PersonDTO> applicants = new ArrayList<>(ROWS);
+        for (int i = 0; i < ROWS; i++) {
+            String key = invocation + "-" + i;
+            applicants.add(new PersonDTO("Bulk", "Registration", "pnr" + key, "register" + key + "@kth.se", "123", "register" + key));
+        }
+        return applicants;
+    }
+}
@@ -0,0 +1,176 @@
+package com.example.applicationstatusservice.benchmark;
+
+import com.example.applicationstatusservice.model.Person;
+import com.example.applicationstatusservice.model.dto.PersonDTO;
+import com.example.applicationstatusservice.repository.PersonRepository;
+import com.example.applicationstatusservice.service.JwtAuthService;
+import com.example.applicationstatusservice.service.PersonService;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * RequestConcurrencyBenchmark is a load test of the status update endpoint over HTTP,
+ * with more concurrent clients than datasource connections. It is run with 1, 10 and 50
+ * pool connections, on platform and on virtual request threads, and counts the requests
+ * that were processed and the ones rejected with 503 by the concurrency limit filter.
+ * Run with: mvn -Pbenchmark test-compile exec:exec -Dbenchmark.include=RequestConcurrencyBenchmark
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 10)
+@Measurement(iterations = 3, time = 10)
+@Fork(1)
+@Threads(256)
+@State(Scope.Benchmark)
+public class RequestConcurrencyBenchmark {
+
+    /**
+     * The number of applicants whose statuses are updated.
+     */
+    private static final int APPLICANTS = 1000;
+
+    /**
+     * The statuses that are cycled through by the benchmark.
+     */
+    private static final String[] STATUSES = {"Accept", "Pending", "Reject"};
+
+    /**
+     * The number of connections in the datasource pool, which also sizes the concurrency limit.
+     */
+    @Param({"1", "10", "50"})
+    private int poolSize;
+
+    /**
+     * Whether requests are handled on virtual threads.
+     */
+    @Param({"false", "true"})
+    private boolean virtualThreads;
+
+    /**
+     * The PostgreSQL database the application is connected to.
+     */
+    private EmbeddedPostgres postgres;
+
+    /**
+     * The running application with its web server.
+     */
+    private ConfigurableApplicationContext context;
+
+    /**
+     * The client sending the requests.
+     */
+    private HttpClient client;
+
+    /**
+     * The URI of the status update endpoint.
+     */
+    private URI endpoint;
+
+    /**
+     * The Authorization header of a recruiter.
+     */
+    private String authorization;
+
+    /**
+     * The person_ids of the registered applicants.
+     */
+    private Long[] personIds;
+
+    /**
+     * Counts the outcomes of the requests sent by one thread, reported as rates by JMH.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Outcomes {
+
+        /**
+         * The number of requests answered with 200.
+         */
+        public long processed;
+
+        /**
+         * The number of requests rejected with 503.
+         */
+        public long rejected;
+    }
+
+    /**
+     * Starts the database and the application on a random port and registers the applicants.
+     */
+    @Setup(Level.Trial)
+    public void setUp() {
+        postgres = ApplicationContextState.startPostgres();
+        context = ApplicationContextState.startApplication(postgres, WebApplicationType.SERVLET, poolSize,
+                "--server.port=0",
+                "--spring.threads.virtual.enabled=" + virtualThreads);
+        endpoint = URI.create("http://localhost:" + context.getEnvironment().getProperty("local.server.port") + "/api/applicant");
+        authorization = "Bearer " + context.getBean(JwtAuthService.class).jwtCreateTestTokensRecruiter();
+        client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+
+        PersonService personService = context.getBean(PersonService.class);
+        for (int i = 0; i < APPLICANTS; i++) {
+            personService.saveApplicant(new PersonDTO("Load", "Test", "2000" + i, "load" + i + "@kth.se", "123", "load" + i));
+        }
+        personIds = context.getBean(PersonRepository.class).findAll().stream().map(Person::getPersonId).toArray(Long[]::new);
+    }
+
+    /**
+     * Closes the application and stops the database after the trial.
+     */
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        client.close();
+        context.close();
+        ApplicationContextState.stopPostgres(postgres);
+    }
+
+    /**
+     * Sends one status update and counts its outcome.
+     *
+     * @param outcomes counts the outcomes of the current thread.
+     * @return the HTTP status of the response.
+     * @throws IOException          if the request could not be sent.
+     * @throws InterruptedException if the thread was interrupted while waiting for the response.
+     */
+    @Benchmark
+    public int updateStatus(Outcomes outcomes) throws IOException, InterruptedException {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        String body = "{\"person_id\":" + personIds[random.nextInt(personIds.length)] + ",\"status\":\"" + STATUSES[random.nextInt(STATUSES.length)] + "\"}";
+        HttpRequest request = HttpRequest.newBuilder(endpoint)
+                .header("Authorization", authorization)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+        int status = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+        if (status == 200) {
+            outcomes.processed++;
+        } else if (status == 503) {
+            outcomes.rejected++;
+        }
+        return status;
+    }
+}
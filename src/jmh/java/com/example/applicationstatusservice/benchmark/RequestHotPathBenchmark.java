@@ -0,0 +1,164 @@
+package com.example.applicationstatusservice.benchmark;
+
+import com.example.applicationstatusservice.model.dto.ApplicationStatusDTO;
+import com.example.applicationstatusservice.model.dto.ErrorDTO;
+import com.example.applicationstatusservice.model.dto.PersonDTO;
+import com.example.applicationstatusservice.repository.PersonRepository;
+import com.example.applicationstatusservice.service.ApplicationStatusService;
+import com.example.applicationstatusservice.service.JwtAuthService;
+import com.example.applicationstatusservice.service.PersonService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * RequestHotPathBenchmark measures each stage of a status update request on its own, in the
+ * order the controller runs them: JWT authorization, status and person_id validation, reading
+ * the request body, the upsert, and writing an error body. Run with the default gc profiler,
+ * the report contains the throughput and the allocated bytes per operation (gc.alloc.rate.norm)
+ * of every stage, to compare before deploying.
+ * Run with: mvn -Pbenchmark test-compile exec:exec -Dbenchmark.include=RequestHotPathBenchmark
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RequestHotPathBenchmark {
+
+    /**
+     * The body of a status update request, with the person_id filled in during setup.
+     */
+    private byte[] requestBody;
+
+    /**
+     * The DTO of a status update request.
+     */
+    private ApplicationStatusDTO applicationStatusDTO;
+
+    /**
+     * The body returned for rejected requests.
+     */
+    private ErrorDTO errorDTO;
+
+    /**
+     * The Authorization header of a recruiter.
+     */
+    private String header;
+
+    /**
+     * The person_id of the registered applicant.
+     */
+    private Long personId;
+
+    /**
+     * The ObjectMapper configured by the application, as used by Spring MVC.
+     */
+    private ObjectMapper objectMapper;
+
+    /**
+     * The service authorizing the requests.
+     */
+    private JwtAuthService jwtAuthService;
+
+    /**
+     * The service validating and updating the statuses.
+     */
+    private ApplicationStatusService applicationStatusService;
+
+    /**
+     * Registers an applicant and prepares the request of each stage.
+     *
+     * @param state is the shared application context.
+     */
+    @Setup(Level.Trial)
+    public void setUp(ApplicationContextState state) {
+        objectMapper = state.getBean(ObjectMapper.class);
+        jwtAuthService = state.getBean(JwtAuthService.class);
+        applicationStatusService = state.getBean(ApplicationStatusService.class);
+
+        state.getBean(PersonService.class).saveApplicant(new PersonDTO("Hot", "Path", "19990101", "hotpath@kth.se", "123", "hotpath"));
+        personId = state.getBean(PersonRepository.class).findByUsername("hotpath").getPersonId();
+        header = "Bearer " + jwtAuthService.jwtCreateTestTokensRecruiter();
+        applicationStatusDTO = new ApplicationStatusDTO(personId, "Accept");
+        requestBody = ("{\"person_id\":" + personId + ",\"status\":\"Accept\"}").getBytes(StandardCharsets.UTF_8);
+        errorDTO = new ErrorDTO("INVALID_DATA");
+    }
+
+    /**
+     * Measures the authorization of a recruiter token, cached after the first verification.
+     *
+     * @return the result of the authorization.
+     */
+    @Benchmark
+    public String jwtAuth() {
+        return jwtAuthService.jwtAuth(header);
+    }
+
+    /**
+     * Measures the validation of the status.
+     *
+     * @return the result of the validation.
+     */
+    @Benchmark
+    public String isStatusValid() {
+        return applicationStatusService.isStatusValid(applicationStatusDTO.getStatus());
+    }
+
+    /**
+     * Measures the validation of an existing person_id.
+     *
+     * @return the result of the validation.
+     */
+    @Benchmark
+    public String isPersonIdValid() {
+        return applicationStatusService.isPersonIdValid(personId);
+    }
+
+    /**
+     * Measures reading the request body into an ApplicationStatusDTO.
+     *
+     * @return the read DTO.
+     * @throws IOException if the body could not be read.
+     */
+    @Benchmark
+    public ApplicationStatusDTO readApplicationStatusDTO() throws IOException {
+        return objectMapper.readValue(requestBody, ApplicationStatusDTO.class);
+    }
+
+    /**
+     * Measures writing the body of a rejected request.
+     *
+     * @return the written body.
+     * @throws JsonProcessingException if the ErrorDTO could not be written.
+     */
+    @Benchmark
+    public byte[] writeErrorDTO() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(errorDTO);
+    }
+
+    /**
+     * Measures the upsert of the status in the database.
+     *
+     * @return the result of the update.
+     */
+    @Benchmark
+    public String updateApplicationStatus() {
+        return applicationStatusService.updateApplicationStatus(applicationStatusDTO, "benchmark");
+    }
+}
@@ -0,0 +1,220 @@
+package com.example.applicationstatusservice.benchmark;
+
+import com.example.applicationstatusservice.model.Person;
+import com.example.applicationstatusservice.model.dto.PersonDTO;
+import com.example.applicationstatusservice.repository.PersonRepository;
+import com.example.applicationstatusservice.service.JwtAuthService;
+import com.example.applicationstatusservice.service.PersonService;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * RequestLoggingBenchmark is a load test of the status update endpoint over HTTP comparing the
+ * request throughput with the application logging off, logging to the console with the default
+ * pattern, and logging with the production profile, which writes JSON lines through an
+ * asynchronous appender and rate-limits repeated warnings. Authorized updates log at INFO, and
+ * updates with an applicant token log a warning for the same IP address on every request.
+ * The console is redirected to a temporary file, so the cost of writing the logs is measured
+ * without the terminal.
+ * Run with: mvn -Pbenchmark test-compile exec:exec -Dbenchmark.include=RequestLoggingBenchmark
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 10)
+@Measurement(iterations = 3, time = 10)
+@Fork(1)
+@Threads(64)
+@State(Scope.Benchmark)
+public class RequestLoggingBenchmark {
+
+    /**
+     * The number of applicants whose statuses are updated.
+     */
+    private static final int APPLICANTS = 1000;
+
+    /**
+     * The number of connections in the datasource pool.
+     */
+    private static final int POOL_SIZE = 10;
+
+    /**
+     * The statuses that are cycled through by the benchmark.
+     */
+    private static final String[] STATUSES = {"Accept", "Pending", "Reject"};
+
+    /**
+     * The logging of the application: off, console or production.
+     */
+    @Param({"off", "console", "production"})
+    private String logging;
+
+    /**
+     * The PostgreSQL database the application is connected to.
+     */
+    private EmbeddedPostgres postgres;
+
+    /**
+     * The running application with its web server.
+     */
+    private ConfigurableApplicationContext context;
+
+    /**
+     * The client sending the requests.
+     */
+    private HttpClient client;
+
+    /**
+     * The URI of the status update endpoint.
+     */
+    private URI endpoint;
+
+    /**
+     * The Authorization header of a recruiter.
+     */
+    private String recruiterAuthorization;
+
+    /**
+     * The Authorization header of an applicant, which may not update statuses.
+     */
+    private String applicantAuthorization;
+
+    /**
+     * The person_ids of the registered applicants.
+     */
+    private Long[] personIds;
+
+    /**
+     * The console of the benchmark, restored after the trial.
+     */
+    private PrintStream console;
+
+    /**
+     * The temporary file the console is redirected to during the trial.
+     */
+    private Path consoleFile;
+
+    /**
+     * Redirects the console, starts the database and the application with the logging of the
+     * trial, and registers the applicants.
+     *
+     * @throws IOException if the file the console is redirected to could not be created.
+     */
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        console = System.out;
+        consoleFile = Files.createTempFile("request-logging-benchmark", ".log");
+        System.setOut(new PrintStream(new FileOutputStream(consoleFile.toFile()), false, StandardCharsets.UTF_8));
+
+        List<String> arguments = new ArrayList<>(List.of("--server.port=0"));
+        if ("off".equals(logging)) {
+            arguments.add("--logging.level.com.example.applicationstatusservice=OFF");
+        } else {
+            arguments.add("--logging.level.com.example.applicationstatusservice=INFO");
+        }
+        if ("production".equals(logging)) {
+            arguments.add("--spring.profiles.active=production");
+        }
+        postgres = ApplicationContextState.startPostgres();
+        context = ApplicationContextState.startApplication(postgres, WebApplicationType.SERVLET, POOL_SIZE, arguments.toArray(String[]::new));
+        endpoint = URI.create("http://localhost:" + context.getEnvironment().getProperty("local.server.port") + "/api/applicant");
+        JwtAuthService jwtAuthService = context.getBean(JwtAuthService.class);
+        recruiterAuthorization = "Bearer " + jwtAuthService.jwtCreateTestTokensRecruiter();
+        applicantAuthorization = "Bearer " + jwtAuthService.jwtCreateTestTokensApplicant();
+        client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+
+        PersonService personService = context.getBean(PersonService.class);
+        for (int i = 0; i < APPLICANTS; i++) {
+            personService.saveApplicant(new PersonDTO("Logging", "Test", "2000" + i, "logging" + i + "@kth.se", "123", "logging" + i));
+        }
+        personIds = context.getBean(PersonRepository.class).findAll().stream().map(Person::getPersonId).toArray(Long[]::new);
+    }
+
+    /**
+     * Closes the application, stops the database and restores the console after the trial.
+     *
+     * @throws IOException if the file the console was redirected to could not be deleted.
+     */
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        client.close();
+        context.close();
+        ApplicationContextState.stopPostgres(postgres);
+        PrintStream redirected = System.out;
+        System.setOut(console);
+        redirected.close();
+        Files.deleteIfExists(consoleFile);
+    }
+
+    /**
+     * Sends one authorized status update.
+     *
+     * @return the HTTP status of the response.
+     * @throws IOException          if the request could not be sent.
+     * @throws InterruptedException if the thread was interrupted while waiting for the response.
+     */
+    @Benchmark
+    public int updateStatus() throws IOException, InterruptedException {
+        return send(recruiterAuthorization);
+    }
+
+    /**
+     * Sends one status update with an applicant token, which is rejected and logged as a warning.
+     *
+     * @return the HTTP status of the response.
+     * @throws IOException          if the request could not be sent.
+     * @throws InterruptedException if the thread was interrupted while waiting for the response.
+     */
+    @Benchmark
+    public int updateStatusUnauthorized() throws IOException, InterruptedException {
+        return send(applicantAuthorization);
+    }
+
+    /**
+     * Sends a status update for a random applicant.
+     *
+     * @param authorization is the Authorization header of the request.
+     * @return the HTTP status of the response.
+     * @throws IOException          if the request could not be sent.
+     * @throws InterruptedException if the thread was interrupted while waiting for the response.
+     */
+    private int send(String authorization) throws IOException, InterruptedException {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        String body = "{\"person_id\":" + personIds[random.nextInt(personIds.length)] + ",\"status\":\"" + STATUSES[random.nextInt(STATUSES.length)] + "\"}";
+        HttpRequest request = HttpRequest.newBuilder(endpoint)
+                .header("Authorization", authorization)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+        return client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+}
@@ -0,0 +1,120 @@
+package com.example.applicationstatusservice.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * StatusStorageBenchmark compares storing the status of an application as VARCHAR(7) with
+ * storing the SMALLINT code of the Status enum, on two tables filled with millions of rows.
+ * The row and table sizes are printed during setup, the benchmarks measure full scans
+ * filtering and grouping by status.
+ * Run with: mvn -Pbenchmark test-compile exec:exec -Dbenchmark.include=StatusStorageBenchmark
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class StatusStorageBenchmark {
+
+    /**
+     * The number of rows in each table.
+     */
+    @Param({"5000000"})
+    private int rows;
+
+    /**
+     * JdbcTemplate executing the statements.
+     */
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * Creates and fills a table per storage format and prints their sizes.
+     *
+     * @param state is the shared application context.
+     */
+    @Setup(Level.Trial)
+    public void setUp(ApplicationContextState state) {
+        jdbcTemplate = state.getBean(JdbcTemplate.class);
+        jdbcTemplate.execute("CREATE TABLE status_varchar (application_status_id bigserial PRIMARY KEY, person_id bigint, status varchar(7))");
+        jdbcTemplate.execute("CREATE TABLE status_smallint (application_status_id bigserial PRIMARY KEY, person_id bigint, status smallint)");
+        jdbcTemplate.update("INSERT INTO status_varchar (person_id, status) SELECT i, (ARRAY['Pending', 'Accept', 'Reject'])[i % 3 + 1] FROM generate_series(1, ?) i", rows);
+        jdbcTemplate.update("INSERT INTO status_smallint (person_id, status) SELECT i, i % 3 FROM generate_series(1, ?) i", rows);
+        jdbcTemplate.execute("CREATE INDEX status_varchar_status_idx ON status_varchar (status)");
+        jdbcTemplate.execute("CREATE INDEX status_smallint_status_idx ON status_smallint (status)");
+        jdbcTemplate.execute("VACUUM ANALYZE status_varchar");
+        jdbcTemplate.execute("VACUUM ANALYZE status_smallint");
+
+        for (String table : List.of("status_varchar", "status_smallint")) {
+            Map<String, Object> sizes = jdbcTemplate.queryForMap("SELECT avg(pg_column_size(t.*)) AS row_bytes, pg_relation_size(?::regclass) AS table_bytes, pg_relation_size(?::regclass) AS index_bytes FROM " + table + " t",
+                    table, table + "_status_idx");
+            System.out.printf("%s: %s bytes per row, table %s bytes, status index %s bytes%n", table, sizes.get("row_bytes"), sizes.get("table_bytes"), sizes.get("index_bytes"));
+        }
+    }
+
+    /**
+     * Drops the tables after the trial.
+     */
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        jdbcTemplate.execute("DROP TABLE status_varchar");
+        jdbcTemplate.execute("DROP TABLE status_smallint");
+    }
+
+    /**
+     * Counts the accepted applications stored as VARCHAR.
+     *
+     * @return the number of accepted applications.
+     */
+    @Benchmark
+    public Long countAcceptedVarchar() {
+        return jdbcTemplate.queryForObject("SELECT count(*) FROM status_varchar WHERE status = 'Accept'", Long.class);
+    }
+
+    /**
+     * Counts the accepted applications stored as SMALLINT.
+     *
+     * @return the number of accepted applications.
+     */
+    @Benchmark
+    public Long countAcceptedSmallint() {
+        return jdbcTemplate.queryForObject("SELECT count(*) FROM status_smallint WHERE status = 1", Long.class);
+    }
+
+    /**
+     * Counts the applications per status stored as VARCHAR.
+     *
+     * @return the number of applications per status.
+     */
+    @Benchmark
+    public List<Map<String, Object>> groupByVarchar() {
+        return jdbcTemplate.queryForList("SELECT status, count(*) FROM status_varchar GROUP BY status");
+    }
+
+    /**
+     * Counts the applications per status stored as SMALLINT.
+     *
+     * @return the number of applications per status.
+     */
+    @Benchmark
+    public List<Map<String, Object>> groupBySmallint() {
+        return jdbcTemplate.queryForList("SELECT status, count(*) FROM status_smallint GROUP BY status");
+    }
+}
@@ -0,0 +1,179 @@
+package com.example.applicationstatusservice.benchmark;
+
+import com.example.applicationstatusservice.model.ApplicationStatus;
+import com.example.applicationstatusservice.model.Person;
+import com.example.applicationstatusservice.model.Status;
+import com.example.applicationstatusservice.model.dto.ApplicationStatusDTO;
+import com.example.applicationstatusservice.model.dto.PersonDTO;
+import com.example.applicationstatusservice.repository.ApplicationStatusRepository;
+import com.example.applicationstatusservice.repository.PersonRepository;
+import com.example.applicationstatusservice.service.ApplicationStatusService;
+import com.example.applicationstatusservice.service.PersonService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * UpsertBenchmark compares the single-statement upsert of updateApplicationStatus with
+ * the previous JPA path (findById, findByPerson and save), and with the same JPA path
+ * referencing the person by id instead of loading it, while several threads update
+ * the statuses of a small set of applicants concurrently. A JPA path whose status was saved by
+ * another thread in between fails on the version of the status and is run again.
+ * Run with: mvn -Pbenchmark test-compile exec:exec -Dbenchmark.include=UpsertBenchmark
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@Threads(8)
+@State(Scope.Benchmark)
+public class UpsertBenchmark {
+
+    /**
+     * The number of applicants the threads are updating, kept small to create contention.
+     */
+    private static final int APPLICANTS = 100;
+
+    /**
+     * The statuses that are cycled through by the benchmark.
+     */
+    private static final String[] STATUSES = {"Accept", "Pending", "Reject"};
+
+    /**
+     * The person_ids of the registered applicants.
+     */
+    private Long[] personIds;
+
+    /**
+     * The service whose upsert path is measured.
+     */
+    private ApplicationStatusService applicationStatusService;
+
+    /**
+     * Repository used by the JPA path.
+     */
+    private ApplicationStatusRepository applicationStatusRepository;
+
+    /**
+     * Repository used by the JPA path.
+     */
+    private PersonRepository personRepository;
+
+    /**
+     * Runs the JPA path in a transaction, like the previous {@code @Transactional} service method.
+     */
+    private TransactionTemplate transactionTemplate;
+
+    /**
+     * Registers the applicants and gives each of them an initial status.
+     *
+     * @param state is the shared application context.
+     */
+    @Setup(Level.Trial)
+    public void setUp(ApplicationContextState state) {
+        applicationStatusService = state.getBean(ApplicationStatusService.class);
+        applicationStatusRepository = state.getBean(ApplicationStatusRepository.class);
+        personRepository = state.getBean(PersonRepository.class);
+        transactionTemplate = new TransactionTemplate(state.getBean(PlatformTransactionManager.class));
+
+        PersonService personService = state.getBean(PersonService.class);
+        for (int i = 0; i < APPLICANTS; i++) {
+            personService.saveApplicant(new PersonDTO("Bench", "Mark", "1999" + i, "bench" + i + "@kth.se", "123", "bench" + i));
+        }
+        personIds = personRepository.findAll().stream().map(Person::getPersonId).toArray(Long[]::new);
+        Map<Long, Status> initialStatuses = new LinkedHashMap<>();
+        for (Long personId : personIds) {
+            initialStatuses.put(personId, Status.PENDING);
+        }
+        transactionTemplate.executeWithoutResult(tx -> applicationStatusRepository.batchUpsertStatuses(initialStatuses, "benchmark"));
+    }
+
+    /**
+     * Measures the single-statement upsert.
+     *
+     * @return the result of the update.
+     */
+    @Benchmark
+    public String upsert() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return applicationStatusService.updateApplicationStatus(new ApplicationStatusDTO(personIds[random.nextInt(personIds.length)], STATUSES[random.nextInt(STATUSES.length)]), "benchmark");
+    }
+
+    /**
+     * Measures the previous JPA path loading the person and the application status before saving.
+     *
+     * @return the saved application status.
+     */
+    @Benchmark
+    public ApplicationStatus jpaFindAndSave() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        Long personId = personIds[random.nextInt(personIds.length)];
+        Status status = Status.fromValue(STATUSES[random.nextInt(STATUSES.length)]);
+        return executeRetried(() -> transactionTemplate.execute(tx -> {
+            Person person = personRepository.findById(personId).orElse(null);
+            ApplicationStatus applicationStatus = applicationStatusRepository.findByPerson(person);
+            if (applicationStatus == null) {
+                applicationStatus = ApplicationStatus.builder().person(person).build();
+            }
+            applicationStatus.setStatus(status);
+            return applicationStatusRepository.save(applicationStatus);
+        }));
+    }
+
+    /**
+     * Measures the JPA path referencing the person by id, which loads only the application status before saving.
+     *
+     * @return the saved application status.
+     */
+    @Benchmark
+    public ApplicationStatus jpaReferenceAndSave() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        Long personId = personIds[random.nextInt(personIds.length)];
+        Status status = Status.fromValue(STATUSES[random.nextInt(STATUSES.length)]);
+        return executeRetried(() -> transactionTemplate.execute(tx -> {
+            Person person = personRepository.getReferenceById(personId);
+            ApplicationStatus applicationStatus = applicationStatusRepository.findByPerson(person);
+            if (applicationStatus == null) {
+                applicationStatus = ApplicationStatus.builder().person(person).build();
+            }
+            applicationStatus.setStatus(status);
+            return applicationStatusRepository.save(applicationStatus);
+        }));
+    }
+
+    /**
+     * Runs a JPA path again when another thread saved the same application status since it was
+     * loaded, which the version of the status detects.
+     *
+     * @param path is the JPA path, run in its own transaction.
+     * @return the saved application status.
+     */
+    private static ApplicationStatus executeRetried(Supplier<ApplicationStatus> path) {
+        while (true) {
+            try {
+                return path.get();
+            } catch (OptimisticLockingFailureException e) {
+                // Another thread saved the application status since it was loaded, load it again.
+            }
+        }
+    }
+}
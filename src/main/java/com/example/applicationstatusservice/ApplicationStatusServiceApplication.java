@@ -2,12 +2,15 @@ package com.example.applicationstatusservice;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 /**
  * ApplicationStatusServiceApplication is the class used to initialize and run the
  * application-status-service microservice for the project IV1201VT24.
+ * {@code @EnableScheduling} enables the periodic background tasks of the services.
  */
 @SpringBootApplication
+@EnableScheduling
 public class ApplicationStatusServiceApplication {
 
     /**
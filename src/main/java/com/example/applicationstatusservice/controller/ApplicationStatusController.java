@@ -1,20 +1,61 @@
 package com.example.applicationstatusservice.controller;
 
 import com.example.applicationstatusservice.model.dto.ApplicationStatusDTO;
+import com.example.applicationstatusservice.model.dto.ApplicationStatusResultDTO;
+import com.example.applicationstatusservice.model.dto.CurrentStatusDTO;
 import com.example.applicationstatusservice.model.dto.ErrorDTO;
+import com.example.applicationstatusservice.model.dto.OperationStatusDTO;
+import com.example.applicationstatusservice.model.dto.PersonAvailabilityDTO;
+import com.example.applicationstatusservice.model.dto.PersonDTO;
+import com.example.applicationstatusservice.model.dto.PersonRegistrationResultDTO;
+import com.example.applicationstatusservice.model.dto.StatusCountsDTO;
+import com.example.applicationstatusservice.model.dto.StatusHistoryDTO;
+import com.example.applicationstatusservice.model.dto.StatusImportResultDTO;
+import com.example.applicationstatusservice.security.JwtAuthenticationFilter;
 import com.example.applicationstatusservice.service.ApplicationStatusService;
+import com.example.applicationstatusservice.service.StatusChangeFeed;
 import com.example.applicationstatusservice.service.JwtAuthService;
+import com.example.applicationstatusservice.service.PersonService;
+import com.example.applicationstatusservice.service.StatusCountService;
+import com.example.applicationstatusservice.service.StatusExportService;
+import com.example.applicationstatusservice.service.StatusHistoryService;
+import com.example.applicationstatusservice.service.StatusImportService;
+import com.example.applicationstatusservice.service.StatusUpdateQueue;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 import jakarta.servlet.http.HttpServletRequest;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseBody;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
 
 /**
  * ApplicationStatusController handles HTTP requests and
@@ -22,6 +63,7 @@ import org.springframework.web.bind.annotation.ResponseBody;
  * user-input during registration.
  */
 @Controller
+@SuppressFBWarnings("EI_EXPOSE_REP2")
 public class ApplicationStatusController {
 
     /**
@@ -42,6 +84,47 @@ public class ApplicationStatusController {
      */
     private final JwtAuthService jwtAuthService;
 
+    /**
+     * An instance of StatusUpdateQueue writing status updates behind the requests
+     * when the write-behind mode is enabled.
+     */
+    private final StatusUpdateQueue statusUpdateQueue;
+
+    /**
+     * An instance of StatusExportService writing the exports of all application statuses.
+     */
+    private final StatusExportService statusExportService;
+
+    /**
+     * An instance of StatusImportService importing CSV files of statuses.
+     */
+    private final StatusImportService statusImportService;
+
+    /**
+     * ObjectMapper writing the streamed bodies of bulk status lookups.
+     */
+    private final ObjectMapper objectMapper;
+
+    /**
+     * The status change feed publishing status changes over Server-Sent Events.
+     */
+    private final StatusChangeFeed statusChangeFeed;
+
+    /**
+     * The service reading the history of status changes.
+     */
+    private final StatusHistoryService statusHistoryService;
+
+    /**
+     * The service counting the applications with each status.
+     */
+    private final StatusCountService statusCountService;
+
+    /**
+     * The service registering applicants.
+     */
+    private final PersonService personService;
+
     /**
      * The constructor for ApplicationStatusController.
      *
@@ -49,10 +132,29 @@ public class ApplicationStatusController {
      *                                 specific to status-related operations.
      * @param jwtAuthService           is the service responsible for creating, authentication and
      *                                 authorization of JWT tokens.
+     * @param statusUpdateQueue        is the queue writing status updates in the write-behind mode.
+     * @param statusExportService      is the service writing the exports of all application statuses.
+     * @param statusImportService      is the service importing CSV files of statuses.
+     * @param objectMapper             writes the streamed bodies of bulk status lookups.
+     * @param statusChangeFeed         publishes status changes over Server-Sent Events.
+     * @param statusHistoryService     reads the history of status changes.
+     * @param statusCountService       counts the applications with each status.
+     * @param personService            registers applicants and checks the availability of their usernames, emails and pnrs.
      */
-    public ApplicationStatusController(ApplicationStatusService applicationStatusService, JwtAuthService jwtAuthService) {
+    public ApplicationStatusController(ApplicationStatusService applicationStatusService, JwtAuthService jwtAuthService, StatusUpdateQueue statusUpdateQueue,
+                                       StatusExportService statusExportService, StatusImportService statusImportService, ObjectMapper objectMapper,
+                                       StatusChangeFeed statusChangeFeed, StatusHistoryService statusHistoryService, StatusCountService statusCountService,
+                                       PersonService personService) {
         this.applicationStatusService = applicationStatusService;
         this.jwtAuthService = jwtAuthService;
+        this.statusUpdateQueue = statusUpdateQueue;
+        this.statusExportService = statusExportService;
+        this.statusImportService = statusImportService;
+        this.objectMapper = objectMapper;
+        this.statusChangeFeed = statusChangeFeed;
+        this.statusHistoryService = statusHistoryService;
+        this.statusCountService = statusCountService;
+        this.personService = personService;
     }
 
     /**
@@ -62,7 +164,9 @@ public class ApplicationStatusController {
      *
      * @param applicationStatusDTO Data transfer object representing status submitted information.
      *                             {@code @RequestBody} Provides the data embedded in the HTTP request.
-     * @return HTTP status and an empty LinkedMultiValueMap as the body.
+     * @return HTTP status and an empty LinkedMultiValueMap as the body, HTTP status 409 if the application
+     * does not have the expected status or version, or HTTP status 202 and the PENDING operation as the
+     * body when the write-behind mode is enabled and the update is unconditional.
      */
     @PostMapping(value = "/api/applicant", produces = "application/json")
     @ResponseBody
@@ -70,26 +174,462 @@ public class ApplicationStatusController {
         //IP address of the machine requesting to set/update application status.
         String IP = request.getRemoteAddr();
 
-        //Error messages in case of an invalid person_id or an invalid status or an invalid JWT token.
-        String jwtTokenErrorMessage = jwtAuthService.jwtAuth(header);
-        String personIdErrorMessage = applicationStatusService.isPersonIdValid(applicationStatusDTO.getPerson_id());
-        String statusErrorMessage = applicationStatusService.isStatusValid(applicationStatusDTO.getStatus());
-
-        //Validation process to make sure person_id and status received is correct.
+        //Validation process to make sure the JWT token, status and person_id received are correct.
+        //The checks run from the cheapest to the only one requiring database access.
+        String jwtTokenErrorMessage = authorize(header, request);
         if ("UNAUTHORIZED".equals(jwtTokenErrorMessage)) {
             logger.warn("The person with IP address: {} has unauthorized access with the provided JWT token ", IP);
             return new ResponseEntity<>(new ErrorDTO(jwtTokenErrorMessage), HttpStatus.BAD_REQUEST);
-        } else if ("INVALID_DATA".equals(personIdErrorMessage)) {
-            logger.warn("The person with IP address: {} submitted an invalid person Id: {} ", IP, applicationStatusDTO.getPerson_id());
-            return new ResponseEntity<>(new ErrorDTO(personIdErrorMessage), HttpStatus.BAD_REQUEST);
-        } else if ("INVALID_DATA".equals(statusErrorMessage)) {
+        }
+        String statusErrorMessage = applicationStatusService.isStatusValid(applicationStatusDTO.getStatus());
+        if ("INVALID_DATA".equals(statusErrorMessage)) {
             logger.warn("The person with IP address: {} submitted an invalid status: {} ", IP, applicationStatusDTO.getStatus());
             return new ResponseEntity<>(new ErrorDTO(statusErrorMessage), HttpStatus.BAD_REQUEST);
         }
+        if (applicationStatusDTO.getExpected_status() != null && "INVALID_DATA".equals(applicationStatusService.isStatusValid(applicationStatusDTO.getExpected_status()))) {
+            logger.warn("The person with IP address: {} submitted an invalid expected status: {} ", IP, applicationStatusDTO.getExpected_status());
+            return new ResponseEntity<>(new ErrorDTO("INVALID_DATA"), HttpStatus.BAD_REQUEST);
+        }
+        String personIdErrorMessage = applicationStatusService.isPersonIdValid(applicationStatusDTO.getPerson_id());
+        if ("INVALID_DATA".equals(personIdErrorMessage)) {
+            logger.warn("The person with IP address: {} submitted an invalid person Id: {} ", IP, applicationStatusDTO.getPerson_id());
+            return new ResponseEntity<>(new ErrorDTO(personIdErrorMessage), HttpStatus.BAD_REQUEST);
+        }
+
+        //In the write-behind mode the update is acknowledged once enqueued and written by the background writer.
+        //Conditional updates are always written before responding, since the response tells whether they were applied,
+        //after the update still queued for the same person, so they are checked against it and not overwritten by it.
+        if (statusUpdateQueue.isEnabled()) {
+            if (!applicationStatusDTO.isConditional()) {
+                OperationStatusDTO operation = statusUpdateQueue.submit(applicationStatusDTO, jwtAuthService.jwtActor(header));
+                logger.info("The person with the IP address: {} has enqueued the status: {} for person Id: {} as operation Id: {} ", IP, applicationStatusDTO.getStatus(), applicationStatusDTO.getPerson_id(), operation.getOperation_id());
+                return new ResponseEntity<>(operation, HttpStatus.ACCEPTED);
+            }
+            statusUpdateQueue.flush(applicationStatusDTO.getPerson_id());
+        }
 
         //Inserts or updates the status of an application through the service-layer.
-        applicationStatusService.updateApplicationStatus(applicationStatusDTO);
-        logger.info("The person with the IP address: {} has updated the application for person Id: {} with the status: {} ", IP, applicationStatusDTO.getPerson_id(), applicationStatusDTO.getStatus());
+        String updateResult = applicationStatusService.updateApplicationStatus(applicationStatusDTO, jwtAuthService.jwtActor(header));
+        if ("CONFLICT".equals(updateResult)) {
+            logger.info("The person with the IP address: {} did not update the application for person Id: {} since it does not have the expected status: {} or version: {} ", IP, applicationStatusDTO.getPerson_id(), applicationStatusDTO.getExpected_status(), applicationStatusDTO.getExpected_version());
+            return new ResponseEntity<>(new ErrorDTO(updateResult), HttpStatus.CONFLICT);
+        }
+        logger.info("The person with the IP address: {} has updated the application for person Id: {} with the status: {} ({}) ", IP, applicationStatusDTO.getPerson_id(), applicationStatusDTO.getStatus(), updateResult);
         return new ResponseEntity<>(new LinkedMultiValueMap<>(), HttpStatus.OK);
     }
+
+    /**
+     * Method validating the JWT token once for a whole batch of status updates and
+     * returning a result for each item with the corresponding HTTP status.
+     *
+     * @param applicationStatusDTOs Data transfer objects representing many submitted statuses.
+     *                              {@code @RequestBody} Provides the data embedded in the HTTP request.
+     * @return HTTP status and a list with the result of each item as the body.
+     */
+    @PostMapping(value = "/api/applicant/batch", produces = "application/json")
+    @ResponseBody
+    public ResponseEntity<Object> handleApplicationStatuses(@RequestHeader("Authorization") String header, @RequestBody List<ApplicationStatusDTO> applicationStatusDTOs, HttpServletRequest request) {
+        //IP address of the machine requesting to set/update application statuses.
+        String IP = request.getRemoteAddr();
+
+        String jwtTokenErrorMessage = authorize(header, request);
+        if ("UNAUTHORIZED".equals(jwtTokenErrorMessage)) {
+            logger.warn("The person with IP address: {} has unauthorized access with the provided JWT token ", IP);
+            return new ResponseEntity<>(new ErrorDTO(jwtTokenErrorMessage), HttpStatus.BAD_REQUEST);
+        }
+        String batchSizeErrorMessage = applicationStatusService.isBatchSizeValid(applicationStatusDTOs.size());
+        if ("INVALID_DATA".equals(batchSizeErrorMessage)) {
+            logger.warn("The person with IP address: {} submitted a batch exceeding the maximum size: {} ", IP, applicationStatusDTOs.size());
+            return new ResponseEntity<>(new ErrorDTO(batchSizeErrorMessage), HttpStatus.BAD_REQUEST);
+        }
+
+        //Inserts or updates the statuses of all valid items through the service-layer.
+        List<ApplicationStatusResultDTO> results = applicationStatusService.updateApplicationStatuses(applicationStatusDTOs, jwtAuthService.jwtActor(header));
+        logger.info("The person with the IP address: {} has submitted a batch of {} application statuses ", IP, applicationStatusDTOs.size());
+        return new ResponseEntity<>(results, HttpStatus.OK);
+    }
+
+    /**
+     * Method registering many applicants at once, such as applicants onboarded from a partner
+     * system, and returning a result for each person with the corresponding HTTP status. The
+     * passwords are hashed on the password hashing threads, and if too many passwords are already
+     * waiting to be hashed, the registration is rejected as a whole.
+     *
+     * @param personDTOs Data transfer objects representing the submitted information of each user.
+     *                   {@code @RequestBody} Provides the data embedded in the HTTP request.
+     * @return HTTP status and a list with the result of each person as the body, or HTTP status 503
+     * if too many passwords are waiting to be hashed.
+     */
+    @PostMapping(value = "/api/applicant/register", produces = "application/json")
+    @ResponseBody
+    public ResponseEntity<Object> handleApplicantRegistration(@RequestHeader("Authorization") String header, @RequestBody List<PersonDTO> personDTOs, HttpServletRequest request) {
+        //IP address of the machine requesting to register the applicants.
+        String IP = request.getRemoteAddr();
+
+        String jwtTokenErrorMessage = authorize(header, request);
+        if ("UNAUTHORIZED".equals(jwtTokenErrorMessage)) {
+            logger.warn("The person with IP address: {} has unauthorized access with the provided JWT token ", IP);
+            return new ResponseEntity<>(new ErrorDTO(jwtTokenErrorMessage), HttpStatus.BAD_REQUEST);
+        }
+        String registrationSizeErrorMessage = personService.isRegistrationSizeValid(personDTOs.size());
+        if ("INVALID_DATA".equals(registrationSizeErrorMessage)) {
+            logger.warn("The person with IP address: {} submitted a registration exceeding the maximum size: {} ", IP, personDTOs.size());
+            return new ResponseEntity<>(new ErrorDTO(registrationSizeErrorMessage), HttpStatus.BAD_REQUEST);
+        }
+
+        //Registers all valid persons through the service-layer.
+        List<PersonRegistrationResultDTO> results;
+        try {
+            results = personService.saveApplicants(personDTOs);
+        } catch (RejectedExecutionException e) {
+            logger.warn("The registration of {} applicants from IP address: {} was rejected since too many passwords are waiting to be hashed ", personDTOs.size(), IP);
+            return new ResponseEntity<>(new ErrorDTO("SERVICE_UNAVAILABLE"), HttpStatus.SERVICE_UNAVAILABLE);
+        }
+        logger.info("The person with the IP address: {} has submitted a registration of {} applicants ", IP, personDTOs.size());
+        return new ResponseEntity<>(results, HttpStatus.OK);
+    }
+
+    /**
+     * Method checking if a username, email and pnr are still available for a new registration,
+     * such as while a recruiter fills in the registration of an applicant. Usernames and emails
+     * are compared case-insensitively. Only recruiters may check the availability.
+     *
+     * @param username is the username to check.
+     * @param email    is the email to check.
+     * @param pnr      is the pnr to check.
+     * @return HTTP status and AVAILABLE or TAKEN for each value that was checked as the body, or
+     * HTTP status 400 if no value was given.
+     */
+    @GetMapping(value = "/api/applicant/availability", produces = "application/json")
+    @ResponseBody
+    public ResponseEntity<Object> handleAvailability(@RequestHeader("Authorization") String header, @RequestParam(required = false) String username,
+                                                     @RequestParam(required = false) String email, @RequestParam(required = false) String pnr, HttpServletRequest request) {
+        String jwtTokenErrorMessage = authorize(header, request);
+        if ("UNAUTHORIZED".equals(jwtTokenErrorMessage)) {
+            logger.warn("The person with IP address: {} has unauthorized access with the provided JWT token ", request.getRemoteAddr());
+            return new ResponseEntity<>(new ErrorDTO(jwtTokenErrorMessage), HttpStatus.BAD_REQUEST);
+        }
+        PersonAvailabilityDTO availability = personService.checkAvailability(username, email, pnr);
+        if (availability.getUsername() == null && availability.getEmail() == null && availability.getPnr() == null) {
+            logger.warn("The person with IP address: {} checked the availability without a username, email or pnr ", request.getRemoteAddr());
+            return new ResponseEntity<>(new ErrorDTO("INVALID_DATA"), HttpStatus.BAD_REQUEST);
+        }
+        logger.debug("The person with the IP address: {} has checked the availability of username: {} ", request.getRemoteAddr(), username);
+        return new ResponseEntity<>(availability, HttpStatus.OK);
+    }
+
+    /**
+     * Method returning the current status of an application. Recruiters may read the status
+     * of any person and applicants only their own. The status is answered from the in-process
+     * cache, and the response carries an ETag and a Last-Modified header so that polls with
+     * If-None-Match or If-Modified-Since are answered with HTTP status 304 while the status is unchanged.
+     *
+     * @param personId is the person_id of the application.
+     * @return HTTP status and the current status as the body, HTTP status 304 if the status is
+     * unchanged, or HTTP status 404 if the person has no application status.
+     */
+    @GetMapping(value = "/api/applicant/{personId}/status", produces = "application/json")
+    @ResponseBody
+    public ResponseEntity<Object> handleCurrentStatus(@RequestHeader("Authorization") String header, @PathVariable long personId, HttpServletRequest request) {
+        String jwtTokenErrorMessage = jwtAuthService.jwtAuthStatusRead(header, personId);
+        if ("UNAUTHORIZED".equals(jwtTokenErrorMessage)) {
+            logger.warn("The person with IP address: {} has unauthorized access to the status of person Id: {} ", request.getRemoteAddr(), personId);
+            return new ResponseEntity<>(new ErrorDTO(jwtTokenErrorMessage), HttpStatus.BAD_REQUEST);
+        }
+        CurrentStatusDTO currentStatus = applicationStatusService.getCurrentStatus(personId);
+        if (currentStatus == null) {
+            return new ResponseEntity<>(new ErrorDTO("NOT_FOUND"), HttpStatus.NOT_FOUND);
+        }
+
+        //Spring answers conditional GET requests matching the ETag or Last-Modified with 304 and no body.
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok().cacheControl(CacheControl.noCache().cachePrivate()).eTag(eTagOf(currentStatus));
+        if (currentStatus.getUpdated_at() != null) {
+            response.lastModified(currentStatus.getUpdated_at());
+        }
+        return response.body(currentStatus);
+    }
+
+    /**
+     * Method returning the history of status changes of an application, newest first, with the
+     * status before and after each change and the recruiter who made it. Only recruiters may
+     * read the history.
+     *
+     * @param personId is the person_id of the application.
+     * @return HTTP status and the status changes as the body, an empty list if the status was never set.
+     */
+    @GetMapping(value = "/api/applicant/{personId}/history", produces = "application/json")
+    @ResponseBody
+    public ResponseEntity<Object> handleStatusHistory(@RequestHeader("Authorization") String header, @PathVariable long personId, HttpServletRequest request) {
+        String jwtTokenErrorMessage = authorize(header, request);
+        if ("UNAUTHORIZED".equals(jwtTokenErrorMessage)) {
+            logger.warn("The person with IP address: {} has unauthorized access to the status history of person Id: {} ", request.getRemoteAddr(), personId);
+            return new ResponseEntity<>(new ErrorDTO(jwtTokenErrorMessage), HttpStatus.BAD_REQUEST);
+        }
+        List<StatusHistoryDTO> history = statusHistoryService.getStatusHistory(personId);
+        logger.info("The person with the IP address: {} has read the status history of person Id: {} ", request.getRemoteAddr(), personId);
+        return new ResponseEntity<>(history, HttpStatus.OK);
+    }
+
+    /**
+     * Method returning the number of applications with each status, read from counters that every
+     * status update keeps up to date instead of counting the table on each request. Only recruiters
+     * may read the counts.
+     *
+     * @return HTTP status and the number of applications with each status as the body.
+     */
+    @GetMapping(value = "/api/applicant/counts", produces = "application/json")
+    @ResponseBody
+    public ResponseEntity<Object> handleStatusCounts(@RequestHeader("Authorization") String header, HttpServletRequest request) {
+        String jwtTokenErrorMessage = authorize(header, request);
+        if ("UNAUTHORIZED".equals(jwtTokenErrorMessage)) {
+            logger.warn("The person with IP address: {} has unauthorized access with the provided JWT token ", request.getRemoteAddr());
+            return new ResponseEntity<>(new ErrorDTO(jwtTokenErrorMessage), HttpStatus.BAD_REQUEST);
+        }
+        StatusCountsDTO counts = statusCountService.getStatusCounts();
+        logger.debug("The person with the IP address: {} has read the status counts ", request.getRemoteAddr());
+        return new ResponseEntity<>(counts, HttpStatus.OK);
+    }
+
+    /**
+     * Method returning the current status of many applications at once. The JWT token is
+     * validated once and all person_ids are resolved with a single query, whose rows are
+     * written to the client as they are read. The body is a JSON object mapping each
+     * person_id to its status, persons without an application status are left out.
+     *
+     * @param personIds are the person_ids of the applications.
+     *                  {@code @RequestBody} Provides the data embedded in the HTTP request.
+     * @return HTTP status and the streamed map of statuses as the body.
+     */
+    @PostMapping(value = "/api/applicant/statuses", produces = "application/json")
+    @ResponseBody
+    public ResponseEntity<StreamingResponseBody> handleCurrentStatuses(@RequestHeader("Authorization") String header, @RequestBody List<Long> personIds, HttpServletRequest request) {
+        //IP address of the machine requesting the application statuses.
+        String IP = request.getRemoteAddr();
+
+        String jwtTokenErrorMessage = authorize(header, request);
+        if ("UNAUTHORIZED".equals(jwtTokenErrorMessage)) {
+            logger.warn("The person with IP address: {} has unauthorized access with the provided JWT token ", IP);
+            return errorResponse(new ErrorDTO(jwtTokenErrorMessage), HttpStatus.BAD_REQUEST);
+        }
+        String batchSizeErrorMessage = applicationStatusService.isBatchSizeValid(personIds.size());
+        if ("INVALID_DATA".equals(batchSizeErrorMessage)) {
+            logger.warn("The person with IP address: {} requested more statuses than the maximum batch size: {} ", IP, personIds.size());
+            return errorResponse(new ErrorDTO(batchSizeErrorMessage), HttpStatus.BAD_REQUEST);
+        }
+
+        logger.info("The person with the IP address: {} has requested the status of {} applications ", IP, personIds.size());
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(out -> writeCurrentStatuses(personIds, out));
+    }
+
+    /**
+     * Method exporting every application status joined with its person, optionally filtered
+     * by status. The rows are streamed from a database cursor straight to the response as NDJSON
+     * or CSV, and compressed with gzip when the client accepts it.
+     *
+     * @param format is the export format, ndjson (default) or csv.
+     * @param status is the status the exported rows are filtered by, all statuses if absent.
+     * @return HTTP status and the streamed export as the body.
+     */
+    @GetMapping(value = "/api/applicant/export")
+    @ResponseBody
+    public ResponseEntity<StreamingResponseBody> handleStatusExport(@RequestHeader("Authorization") String header, @RequestParam(defaultValue = "ndjson") String format,
+                                                                    @RequestParam(required = false) String status, HttpServletRequest request) {
+        //IP address of the machine requesting the export.
+        String IP = request.getRemoteAddr();
+
+        String jwtTokenErrorMessage = authorize(header, request);
+        if ("UNAUTHORIZED".equals(jwtTokenErrorMessage)) {
+            logger.warn("The person with IP address: {} has unauthorized access with the provided JWT token ", IP);
+            return errorResponse(new ErrorDTO(jwtTokenErrorMessage), HttpStatus.BAD_REQUEST);
+        }
+        String formatErrorMessage = statusExportService.isExportFormatValid(format);
+        if ("INVALID_DATA".equals(formatErrorMessage)) {
+            logger.warn("The person with IP address: {} requested an invalid export format: {} ", IP, format);
+            return errorResponse(new ErrorDTO(formatErrorMessage), HttpStatus.BAD_REQUEST);
+        }
+        if (status != null && "INVALID_DATA".equals(applicationStatusService.isStatusValid(status))) {
+            logger.warn("The person with IP address: {} requested an export with an invalid status: {} ", IP, status);
+            return errorResponse(new ErrorDTO("INVALID_DATA"), HttpStatus.BAD_REQUEST);
+        }
+
+        boolean gzip = acceptsGzip(request);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType("csv".equals(format) ? new MediaType("text", "csv", StandardCharsets.UTF_8) : MediaType.APPLICATION_NDJSON)
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename("application-statuses." + format).build().toString())
+                .varyBy(HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        logger.info("The person with the IP address: {} has requested an export as {} with the status filter: {} ", IP, format, status);
+        return response.body(out -> {
+            if (gzip) {
+                GZIPOutputStream gzipOut = new GZIPOutputStream(out, 8192);
+                statusExportService.exportStatuses(format, status, gzipOut);
+                gzipOut.finish();
+            } else {
+                statusExportService.exportStatuses(format, status, out);
+            }
+        });
+    }
+
+    /**
+     * Method importing the statuses of a CSV file sent as the request body, with a person_id,status
+     * header line. The body is streamed to the database as it is received, and may be compressed
+     * with gzip. Rows that cannot be imported are counted and the first ones are reported with the
+     * reason they were rejected.
+     *
+     * @return HTTP status and the result of the import as the body, or HTTP status 400 if the file is not valid CSV.
+     * @throws IOException if the request body could not be read.
+     */
+    @PostMapping(value = "/api/applicant/import", consumes = "text/csv", produces = "application/json")
+    @ResponseBody
+    public ResponseEntity<Object> handleStatusImport(@RequestHeader("Authorization") String header, HttpServletRequest request) throws IOException {
+        //IP address of the machine importing the statuses.
+        String IP = request.getRemoteAddr();
+
+        String jwtTokenErrorMessage = authorize(header, request);
+        if ("UNAUTHORIZED".equals(jwtTokenErrorMessage)) {
+            logger.warn("The person with IP address: {} has unauthorized access with the provided JWT token ", IP);
+            return new ResponseEntity<>(new ErrorDTO(jwtTokenErrorMessage), HttpStatus.BAD_REQUEST);
+        }
+
+        InputStream csv = "gzip".equalsIgnoreCase(request.getHeader(HttpHeaders.CONTENT_ENCODING)) ? new GZIPInputStream(request.getInputStream()) : request.getInputStream();
+        try {
+            StatusImportResultDTO result = statusImportService.importStatuses(csv, jwtAuthService.jwtActor(header));
+            logger.info("The person with the IP address: {} has imported the status of {} applications, {} rows were rejected ", IP, result.getImported(), result.getRejected());
+            return new ResponseEntity<>(result, HttpStatus.OK);
+        } catch (DataIntegrityViolationException e) {
+            logger.warn("The person with IP address: {} submitted an import that is not valid CSV: {} ", IP, e.getMostSpecificCause().getMessage());
+            return new ResponseEntity<>(new ErrorDTO("INVALID_DATA"), HttpStatus.BAD_REQUEST);
+        }
+    }
+
+    /**
+     * Method subscribing to the status change feed. Every status change is sent as a Server-Sent
+     * Event named status with its outbox id as the event id, so a client reconnecting with the
+     * Last-Event-ID header is first sent the changes it missed.
+     *
+     * @param lastEventId is the id of the last event received before reconnecting, absent to only receive new changes.
+     * @return HTTP status and the event stream, or HTTP status 400 without a body if the JWT token is not authorized.
+     */
+    @GetMapping(value = "/api/applicant/status-changes", produces = "text/event-stream")
+    @ResponseBody
+    public ResponseEntity<SseEmitter> handleStatusChanges(@RequestHeader("Authorization") String header, @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId,
+                                                          HttpServletRequest request) {
+        //IP address of the machine subscribing to the feed.
+        String IP = request.getRemoteAddr();
+
+        String jwtTokenErrorMessage = authorize(header, request);
+        if ("UNAUTHORIZED".equals(jwtTokenErrorMessage)) {
+            logger.warn("The person with IP address: {} has unauthorized access with the provided JWT token ", IP);
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+        }
+
+        logger.info("The person with the IP address: {} has subscribed to the status changes after the event: {} ", IP, lastEventId);
+        return ResponseEntity.ok().cacheControl(CacheControl.noStore()).body(statusChangeFeed.subscribe(lastEventId));
+    }
+
+    /**
+     * Method returning the state of a status update accepted in the write-behind mode.
+     *
+     * @param operationId is the operation id returned when the update was accepted.
+     * @return HTTP status and the operation as the body, or HTTP status 404 if the operation is unknown or has expired.
+     */
+    @GetMapping(value = "/api/applicant/operations/{operationId}", produces = "application/json")
+    @ResponseBody
+    public ResponseEntity<Object> handleOperationStatus(@RequestHeader("Authorization") String header, @PathVariable String operationId, HttpServletRequest request) {
+        String jwtTokenErrorMessage = authorize(header, request);
+        if ("UNAUTHORIZED".equals(jwtTokenErrorMessage)) {
+            logger.warn("The person with IP address: {} has unauthorized access with the provided JWT token ", request.getRemoteAddr());
+            return new ResponseEntity<>(new ErrorDTO(jwtTokenErrorMessage), HttpStatus.BAD_REQUEST);
+        }
+        OperationStatusDTO operation = statusUpdateQueue.getOperation(operationId);
+        if (operation == null) {
+            return new ResponseEntity<>(new ErrorDTO("NOT_FOUND"), HttpStatus.NOT_FOUND);
+        }
+        return new ResponseEntity<>(operation, HttpStatus.OK);
+    }
+
+    /**
+     * Method returning the authorization result of the JWT token in the header. Requests
+     * passing the security filter chain have already been authorized by the JwtAuthenticationFilter,
+     * so the token is only verified here when the controller is invoked outside of it.
+     *
+     * @param header  contains the encoded JWT token.
+     * @param request is the current HTTP request.
+     * @return AUTHORIZED or UNAUTHORIZED.
+     */
+    private String authorize(String header, HttpServletRequest request) {
+        if (Boolean.TRUE.equals(request.getAttribute(JwtAuthenticationFilter.AUTHORIZED_ATTRIBUTE))) {
+            return "AUTHORIZED";
+        }
+        return jwtAuthService.jwtAuth(header);
+    }
+
+    /**
+     * Method writing the current statuses of the applications as a JSON object, one field per row read.
+     *
+     * @param personIds are the person_ids of the applications.
+     * @param out       is the output stream of the response.
+     * @throws IOException if the response could not be written.
+     */
+    private void writeCurrentStatuses(List<Long> personIds, OutputStream out) throws IOException {
+        JsonGenerator generator = objectMapper.getFactory().createGenerator(out);
+        generator.writeStartObject();
+        try {
+            applicationStatusService.forEachCurrentStatus(personIds, (personId, status) -> {
+                try {
+                    generator.writeStringField(Long.toString(personId), status);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        generator.writeEndObject();
+        generator.flush();
+    }
+
+    /**
+     * Method returning an error response of an endpoint with a streamed body.
+     *
+     * @param errorDTO is the error written as the body.
+     * @param status   is the HTTP status of the response.
+     * @return the HTTP status and the ErrorDTO as the body.
+     */
+    private ResponseEntity<StreamingResponseBody> errorResponse(ErrorDTO errorDTO, HttpStatus status) {
+        return ResponseEntity.status(status).contentType(MediaType.APPLICATION_JSON).body(out -> objectMapper.writeValue(out, errorDTO));
+    }
+
+    /**
+     * Method checking whether the client accepts gzip compressed responses.
+     *
+     * @param request is the current HTTP request.
+     * @return true if the Accept-Encoding header lists gzip without a zero quality.
+     */
+    private static boolean acceptsGzip(HttpServletRequest request) {
+        String acceptEncoding = request.getHeader(HttpHeaders.ACCEPT_ENCODING);
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parameters = coding.split(";");
+            if ("gzip".equalsIgnoreCase(parameters[0].trim())) {
+                return parameters.length == 1 || !parameters[1].trim().matches("q=0(\\.0{0,3})?");
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Method computing the ETag of a status, which changes whenever the status is set.
+     *
+     * @param currentStatus is the current status of an application.
+     * @return the ETag value.
+     */
+    private static String eTagOf(CurrentStatusDTO currentStatus) {
+        Instant updatedAt = currentStatus.getUpdated_at();
+        return "\"" + currentStatus.getStatus() + "-" + currentStatus.getVersion() + (updatedAt == null ? "" : "-" + updatedAt.toEpochMilli()) + "\"";
+    }
 }
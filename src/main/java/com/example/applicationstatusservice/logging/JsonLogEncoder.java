@@ -0,0 +1,87 @@
+package com.example.applicationstatusservice.logging;
+
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.classic.spi.IThrowableProxy;
+import ch.qos.logback.classic.spi.ThrowableProxyUtil;
+import ch.qos.logback.core.encoder.EncoderBase;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Map;
+
+/**
+ * JsonLogEncoder writes each log event as one line of JSON, with the time, level, thread,
+ * logger, formatted message, MDC values and the stack trace of an exception, so that the
+ * logs can be searched by field instead of parsed from a pattern.
+ */
+public class JsonLogEncoder extends EncoderBase<ILoggingEvent> {
+
+    /**
+     * The thread-safe factory of the generators writing each event.
+     */
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    /**
+     * The initial size of the buffer of an event, enough for a log line without a stack trace.
+     */
+    private static final int INITIAL_BUFFER_SIZE = 256;
+
+    /**
+     * Nothing is written before the first event.
+     *
+     * @return no bytes.
+     */
+    @Override
+    public byte[] headerBytes() {
+        return new byte[0];
+    }
+
+    /**
+     * Writes a log event as one line of JSON.
+     *
+     * @param event is the log event.
+     * @return the UTF-8 encoded line.
+     */
+    @Override
+    public byte[] encode(ILoggingEvent event) {
+        ByteArrayOutputStream line = new ByteArrayOutputStream(INITIAL_BUFFER_SIZE);
+        try (JsonGenerator generator = JSON_FACTORY.createGenerator(line)) {
+            generator.writeStartObject();
+            generator.writeStringField("timestamp", event.getInstant().toString());
+            generator.writeStringField("level", event.getLevel().toString());
+            generator.writeStringField("thread", event.getThreadName());
+            generator.writeStringField("logger", event.getLoggerName());
+            generator.writeStringField("message", event.getFormattedMessage());
+            Map<String, String> mdc = event.getMDCPropertyMap();
+            if (mdc != null && !mdc.isEmpty()) {
+                generator.writeObjectFieldStart("mdc");
+                for (Map.Entry<String, String> entry : mdc.entrySet()) {
+                    generator.writeStringField(entry.getKey(), entry.getValue());
+                }
+                generator.writeEndObject();
+            }
+            IThrowableProxy throwable = event.getThrowableProxy();
+            if (throwable != null) {
+                generator.writeStringField("exception", ThrowableProxyUtil.asString(throwable));
+            }
+            generator.writeEndObject();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        line.write('\n');
+        return line.toByteArray();
+    }
+
+    /**
+     * Nothing is written after the last event.
+     *
+     * @return no bytes.
+     */
+    @Override
+    public byte[] footerBytes() {
+        return new byte[0];
+    }
+}
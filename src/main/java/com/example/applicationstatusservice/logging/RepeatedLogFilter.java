@@ -0,0 +1,157 @@
+package com.example.applicationstatusservice.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import ch.qos.logback.core.util.Duration;
+import org.slf4j.Marker;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * RepeatedLogFilter rate-limits repeated WARN and ERROR events, such as a flood of requests with
+ * an unauthorized token from one IP address. Events are grouped by their message and first
+ * argument, so the same warning for the same caller is one group. Within each interval the first
+ * events of a group are logged and the rest are dropped, and when the interval ends the number of
+ * dropped events is logged once by the logger of the group. Events below WARN are left to the
+ * level checks, so the filter adds no work to disabled DEBUG statements.
+ */
+public class RepeatedLogFilter extends TurboFilter {
+
+    /**
+     * Message of the summary of the dropped events of a group.
+     */
+    private static final String SUMMARY_MESSAGE = "Suppressed {} repeated log events in the last {}: {}";
+
+    /**
+     * The events logged in the current interval, by group.
+     */
+    private final Map<RepeatGroup, AtomicInteger> repeats = new ConcurrentHashMap<>();
+
+    /**
+     * The number of events of a group logged in each interval before the rest are dropped.
+     */
+    private int maxRepeats = 5;
+
+    /**
+     * The length of the intervals.
+     */
+    private Duration interval = Duration.buildBySeconds(10);
+
+    /**
+     * The maximum number of groups tracked at a time, events of further groups are not rate-limited.
+     */
+    private int maxGroups = 10000;
+
+    /**
+     * The thread ending the intervals, running while the filter is started.
+     */
+    private ScheduledExecutorService scheduler;
+
+    /**
+     * Decides whether an event is logged.
+     *
+     * @return DENY for a repeated event over the limit of the interval, NEUTRAL otherwise.
+     */
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params, Throwable t) {
+        if (level == null || format == null || !level.isGreaterOrEqual(Level.WARN) || SUMMARY_MESSAGE.equals(format)) {
+            return FilterReply.NEUTRAL;
+        }
+        RepeatGroup group = new RepeatGroup(logger.getName(), format, params == null || params.length == 0 ? null : String.valueOf(params[0]));
+        AtomicInteger count = repeats.get(group);
+        if (count == null) {
+            if (repeats.size() >= maxGroups) {
+                return FilterReply.NEUTRAL;
+            }
+            count = repeats.computeIfAbsent(group, key -> new AtomicInteger());
+        }
+        return count.incrementAndGet() > maxRepeats ? FilterReply.DENY : FilterReply.NEUTRAL;
+    }
+
+    /**
+     * Starts ending an interval every interval.
+     */
+    @Override
+    public void start() {
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "repeated-log-filter");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::endInterval, interval.getMilliseconds(), interval.getMilliseconds(), TimeUnit.MILLISECONDS);
+        super.start();
+    }
+
+    /**
+     * Stops ending the intervals and logs the summaries of the current one.
+     */
+    @Override
+    public void stop() {
+        super.stop();
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+        endInterval();
+    }
+
+    /**
+     * Ends the current interval, logging the number of dropped events of each group.
+     */
+    private void endInterval() {
+        LoggerContext loggerContext = (LoggerContext) getContext();
+        for (RepeatGroup group : repeats.keySet()) {
+            AtomicInteger count = repeats.remove(group);
+            int dropped = count == null ? 0 : count.get() - maxRepeats;
+            if (dropped > 0 && loggerContext != null) {
+                String message = group.argument() == null ? group.format() : group.format() + " [" + group.argument() + "]";
+                loggerContext.getLogger(group.loggerName()).warn(SUMMARY_MESSAGE, dropped, interval, message);
+            }
+        }
+    }
+
+    /**
+     * Sets the number of events of a group logged in each interval.
+     *
+     * @param maxRepeats is the number of events logged before the rest are dropped.
+     */
+    public void setMaxRepeats(int maxRepeats) {
+        this.maxRepeats = maxRepeats;
+    }
+
+    /**
+     * Sets the length of the intervals.
+     *
+     * @param interval is the length of the intervals, such as "10 seconds".
+     */
+    public void setInterval(Duration interval) {
+        this.interval = interval;
+    }
+
+    /**
+     * Sets the maximum number of groups tracked at a time.
+     *
+     * @param maxGroups is the maximum number of groups.
+     */
+    public void setMaxGroups(int maxGroups) {
+        this.maxGroups = maxGroups;
+    }
+
+    /**
+     * RepeatGroup identifies repeated events by their logger, message and first argument.
+     *
+     * @param loggerName is the name of the logger of the events.
+     * @param format     is the message of the events, with placeholders if they have arguments.
+     * @param argument   is the first argument of the events, or null if they have none.
+     */
+    private record RepeatGroup(String loggerName, String format, String argument) {
+    }
+}
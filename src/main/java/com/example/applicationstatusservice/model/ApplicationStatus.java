@@ -5,7 +5,11 @@ import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+import java.time.Instant;
 
 /**
  * ApplicationStatus model representing the database structure created for each Application status.
@@ -37,17 +41,34 @@ public class ApplicationStatus {
 
     /**
      * {@code @OneToOne} Indicates a one-to-one relationship between
-     * the Person and Application_status table.
-     * {@code @JoinColumn} Making the person_id a foreign key to application_status.
+     * the Person and Application_status table. The person is fetched lazily, so loading an
+     * application status only reads the person_id, and a status may reference its person
+     * with {@code PersonRepository.getReferenceById} without loading it.
+     * {@code @JoinColumn} Making the person_id a unique foreign key to application_status.
      */
-    @OneToOne
-    @JoinColumn(name = "person_id")
+    @OneToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "person_id", unique = true)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     private Person person;
 
     /**
-     * Status of an application which can either be Accept/Reject/Pending.
+     * Status of an application which can either be Accept/Reject/Pending,
+     * stored as a small integer code by the StatusConverter.
+     */
+    private Status status;
+
+    /**
+     * The time the status was last set, used as the Last-Modified time of the status.
+     * Set by the upsert statements, null for rows written before the column existed.
+     */
+    private Instant updatedAt;
+
+    /**
+     * {@code @Version} is incremented by every write of the status, so that a status update may
+     * require the version it was based on and fail instead of overwriting a newer status.
      */
-    @Column(length = 7)
-    private String status;
+    @Version
+    private Long version;
 }
 
@@ -0,0 +1,15 @@
+package com.example.applicationstatusservice.model;
+
+import java.time.Instant;
+
+/**
+ * ApplicationStatusView is a read-only projection of an application status, so that reading
+ * a status selects only these columns instead of loading the ApplicationStatus entity into
+ * the persistence context.
+ *
+ * @param status    is the status of the application, Accept/Reject/Pending.
+ * @param updatedAt is the time the status was last set, null for rows written before the column existed.
+ * @param version   is the version of the status, incremented by every write.
+ */
+public record ApplicationStatusView(Status status, Instant updatedAt, Long version) {
+}
@@ -24,13 +24,21 @@ import lombok.NoArgsConstructor;
 @Table(name = "person")
 public class Person {
 
+    /**
+     * The number of person_ids allocated from the person_id sequence at a time, which is also
+     * the increment of the sequence set by schema.sql.
+     */
+    public static final int ID_ALLOCATION_SIZE = 50;
+
     /**
      * {@code @Id} marks the person_id as the primary key
-     * {@code @GeneratedValue} sets the person_id to be automatically generated and
-     * incremented by the database.
+     * {@code @GeneratedValue} sets the person_id to be generated from the sequence of the column.
+     * Each value of the sequence reserves the block of person_ids up to it, so Hibernate reads the
+     * sequence once per block and can batch the inserts.
      */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "person_id_seq")
+    @SequenceGenerator(name = "person_id_seq", sequenceName = "person_person_id_seq", allocationSize = ID_ALLOCATION_SIZE)
     private Long personId;
 
     /**
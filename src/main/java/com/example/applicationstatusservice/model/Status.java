@@ -0,0 +1,85 @@
+package com.example.applicationstatusservice.model;
+
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import lombok.Getter;
+
+/**
+ * Status enumerates the statuses an application can have. Each status is
+ * submitted and presented by its value, and stored in the database as a small
+ * integer code that never changes once assigned.
+ * {@code @Getter} provides getter functions for the value and code of each status.
+ */
+@Getter
+@SuppressFBWarnings("PI_DO_NOT_REUSE_PUBLIC_IDENTIFIERS_CLASS_NAMES")
+public enum Status {
+
+    /**
+     * The application has not been decided yet.
+     */
+    PENDING("Pending", (short) 0),
+
+    /**
+     * The application has been accepted.
+     */
+    ACCEPT("Accept", (short) 1),
+
+    /**
+     * The application has been rejected.
+     */
+    REJECT("Reject", (short) 2);
+
+    /**
+     * The value of the status as submitted in the ApplicationStatusDTO.
+     */
+    private final String value;
+
+    /**
+     * The code of the status stored in the status column of the Application_status table.
+     */
+    private final short code;
+
+    /**
+     * Constructor for the Status enum.
+     *
+     * @param value is the value of the status as submitted in the ApplicationStatusDTO.
+     * @param code  is the code of the status stored in the database.
+     */
+    Status(String value, short code) {
+        this.value = value;
+        this.code = code;
+    }
+
+    /**
+     * Parses the value of a status.
+     *
+     * @param value is the value of the status, either Accept/Pending/Reject.
+     * @return the matching Status or null if the value is not a valid status.
+     */
+    public static Status fromValue(String value) {
+        if (value == null) {
+            return null;
+        }
+        return switch (value) {
+            case "Pending" -> PENDING;
+            case "Accept" -> ACCEPT;
+            case "Reject" -> REJECT;
+            default -> null;
+        };
+    }
+
+    /**
+     * Returns the status stored with the given code.
+     *
+     * @param code is the code stored in the database.
+     * @return the matching Status.
+     * @throws IllegalArgumentException if the code does not belong to any status.
+     */
+    public static Status fromCode(short code) {
+        return switch (code) {
+            case 0 -> PENDING;
+            case 1 -> ACCEPT;
+            case 2 -> REJECT;
+            default -> throw new IllegalArgumentException("Unknown status code: " + code);
+        };
+    }
+}
@@ -0,0 +1,34 @@
+package com.example.applicationstatusservice.model;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+/**
+ * StatusConverter maps a Status to the small integer code stored in the database.
+ * {@code @Converter(autoApply = true)} applies the converter to every Status attribute.
+ */
+@Converter(autoApply = true)
+public class StatusConverter implements AttributeConverter<Status, Short> {
+
+    /**
+     * Converts a Status to its database code.
+     *
+     * @param status is the status of an application.
+     * @return the code stored in the database.
+     */
+    @Override
+    public Short convertToDatabaseColumn(Status status) {
+        return status == null ? null : status.getCode();
+    }
+
+    /**
+     * Converts a database code to its Status.
+     *
+     * @param code is the code stored in the database.
+     * @return the status of an application.
+     */
+    @Override
+    public Status convertToEntityAttribute(Short code) {
+        return code == null ? null : Status.fromCode(code);
+    }
+}
@@ -1,16 +1,20 @@
 package com.example.applicationstatusservice.model.dto;
 
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 
 /**
  * ApplicationStatusDTO is the data transfer object containing the person_id and the status
- * required to set a status for an application.
+ * required to set a status for an application, and optionally the status or version the
+ * update expects the application to have.
  * {@code @Getter} provides getter functions for the ApplicationStatusDTO variables.
- * {@code @AllArgsConstructor} creates and initializes all fields of an object in one class.
+ * {@code @AllArgsConstructor} creates and initializes all fields of an object in one class,
+ * and is the constructor used to read the DTO from JSON.
  */
 @Getter
-@AllArgsConstructor
+@AllArgsConstructor(onConstructor_ = @JsonCreator)
 public class ApplicationStatusDTO {
 
     /**
@@ -23,4 +27,35 @@ public class ApplicationStatusDTO {
      */
     private final String status;
 
+    /**
+     * Expected_status is the status the application must currently have for the update
+     * to be applied, or null if the current status is not checked.
+     */
+    private final String expected_status;
+
+    /**
+     * Expected_version is the version the application status must currently have for the
+     * update to be applied, as read with the current status, or null if it is not checked.
+     */
+    private final Long expected_version;
+
+    /**
+     * Creates an unconditional status update.
+     *
+     * @param person_id is the id of the Person entity.
+     * @param status    is the status that should be set.
+     */
+    public ApplicationStatusDTO(Long person_id, String status) {
+        this(person_id, status, null, null);
+    }
+
+    /**
+     * Checks if the update is only applied when the application has the expected status or version.
+     *
+     * @return true if an expected status or version is given.
+     */
+    @JsonIgnore
+    public boolean isConditional() {
+        return expected_status != null || expected_version != null;
+    }
 }
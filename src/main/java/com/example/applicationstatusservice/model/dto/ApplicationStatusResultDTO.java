@@ -0,0 +1,32 @@
+package com.example.applicationstatusservice.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * ApplicationStatusResultDTO is the data transfer object reporting the outcome
+ * of a single item in a batch of application status updates.
+ * {@code @Getter} provides getter functions for the ApplicationStatusResultDTO variables.
+ * {@code @AllArgsConstructor} creates and initializes all fields of an object in one class.
+ */
+@Getter
+@AllArgsConstructor
+public class ApplicationStatusResultDTO {
+
+    /**
+     * Person_id represents the id of the Person entity the item refers to.
+     */
+    private final Long person_id;
+
+    /**
+     * Status represents the status submitted for the application.
+     */
+    private final String status;
+
+    /**
+     * Result is either OK when the status has been set or INVALID_DATA
+     * when the person_id or the status of the item was invalid.
+     */
+    private final String result;
+
+}
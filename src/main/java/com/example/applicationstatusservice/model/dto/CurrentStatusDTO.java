@@ -0,0 +1,38 @@
+package com.example.applicationstatusservice.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.Instant;
+
+/**
+ * CurrentStatusDTO is the data transfer object representing the current status of an application.
+ * {@code @Getter} provides getter functions for the CurrentStatusDTO variables.
+ * {@code @AllArgsConstructor} creates and initializes all fields of an object in one class.
+ */
+@Getter
+@AllArgsConstructor
+public class CurrentStatusDTO {
+
+    /**
+     * Person_id represents the id of the Person entity the application belongs to.
+     */
+    private final Long person_id;
+
+    /**
+     * Status is the current status of the application, Pending/Accept/Reject.
+     */
+    private final String status;
+
+    /**
+     * Updated_at is the time the status was last set, null if it is unknown.
+     */
+    private final Instant updated_at;
+
+    /**
+     * Version is incremented by every write of the status, and may be sent back as the
+     * expected_version of a status update.
+     */
+    private final long version;
+
+}
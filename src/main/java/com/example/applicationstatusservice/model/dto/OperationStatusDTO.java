@@ -0,0 +1,38 @@
+package com.example.applicationstatusservice.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * OperationStatusDTO is the data transfer object reporting the state of a status
+ * update accepted by the write-behind queue.
+ * {@code @Getter} provides getter functions for the OperationStatusDTO variables.
+ * {@code @AllArgsConstructor} creates and initializes all fields of an object in one class.
+ */
+@Getter
+@AllArgsConstructor
+public class OperationStatusDTO {
+
+    /**
+     * Operation_id identifies the accepted status update.
+     */
+    private final String operation_id;
+
+    /**
+     * Person_id represents the id of the Person entity the update refers to.
+     */
+    private final Long person_id;
+
+    /**
+     * Status represents the status submitted for the application.
+     */
+    private final String status;
+
+    /**
+     * State is PENDING until the update is flushed, then COMPLETED when it was written,
+     * SUPERSEDED when a later update for the same person_id was written in its place,
+     * or FAILED when the write failed.
+     */
+    private final String state;
+
+}
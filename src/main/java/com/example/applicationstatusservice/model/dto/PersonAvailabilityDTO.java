@@ -0,0 +1,31 @@
+package com.example.applicationstatusservice.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * PersonAvailabilityDTO is the data transfer object reporting whether a username, email
+ * and pnr are still available for a new registration.
+ * {@code @Getter} provides getter functions for the PersonAvailabilityDTO variables.
+ * {@code @AllArgsConstructor} creates and initializes all fields of an object in one class.
+ */
+@Getter
+@AllArgsConstructor
+public class PersonAvailabilityDTO {
+
+    /**
+     * Username is AVAILABLE or TAKEN, compared case-insensitively, or null if no username was checked.
+     */
+    private final String username;
+
+    /**
+     * Email is AVAILABLE or TAKEN, compared case-insensitively, or null if no email was checked.
+     */
+    private final String email;
+
+    /**
+     * Pnr is AVAILABLE or TAKEN, or null if no pnr was checked.
+     */
+    private final String pnr;
+
+}
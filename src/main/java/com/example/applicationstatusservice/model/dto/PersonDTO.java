@@ -1,5 +1,6 @@
 package com.example.applicationstatusservice.model.dto;
 
+import com.fasterxml.jackson.annotation.JsonCreator;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 
@@ -8,10 +9,11 @@ import lombok.Getter;
  * PersonDTO holds the data transfer object which represents the information
  * required by the registration form.
  * {@code @Data} is used to automatically generate getters and setters.
- * {@code @AllArgsConstructor} creates and initializes all fields of an object in one class.
+ * {@code @AllArgsConstructor} creates and initializes all fields of an object in one class,
+ * and is the constructor used to read the DTO from JSON.
  */
 @Getter
-@AllArgsConstructor
+@AllArgsConstructor(onConstructor_ = @JsonCreator)
 public class PersonDTO {
 
     /**
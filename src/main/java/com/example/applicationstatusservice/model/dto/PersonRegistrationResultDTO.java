@@ -0,0 +1,35 @@
+package com.example.applicationstatusservice.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * PersonRegistrationResultDTO is the data transfer object reporting the outcome
+ * of a single person in a bulk registration of applicants.
+ * {@code @Getter} provides getter functions for the PersonRegistrationResultDTO variables.
+ * {@code @AllArgsConstructor} creates and initializes all fields of an object in one class.
+ */
+@Getter
+@AllArgsConstructor
+public class PersonRegistrationResultDTO {
+
+    /**
+     * Username represents the username submitted for the person.
+     */
+    private final String username;
+
+    /**
+     * Person_id represents the id of the registered Person entity, null if the person was not registered.
+     */
+    private final Long person_id;
+
+    /**
+     * Result is OK when the person has been registered, INVALID_DATA when a field of the person
+     * was missing, DUPLICATE_USERNAME when the username is already taken, DUPLICATE_EMAIL when
+     * the email is already registered and DUPLICATE_PNR when the pnr is already registered, by an
+     * existing person or an earlier person of the same registration. Usernames and emails are
+     * compared case-insensitively.
+     */
+    private final String result;
+
+}
@@ -0,0 +1,35 @@
+package com.example.applicationstatusservice.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * RejectedRowDTO is the data transfer object representing a row of a status import that was not imported.
+ * {@code @Getter} provides getter functions for the RejectedRowDTO variables.
+ * {@code @AllArgsConstructor} creates and initializes all fields of an object in one class.
+ */
+@Getter
+@AllArgsConstructor
+public class RejectedRowDTO {
+
+    /**
+     * Row_number is the position of the row in the imported file, not counting the header.
+     */
+    private final long row_number;
+
+    /**
+     * Person_id is the person_id of the row as it was written in the file.
+     */
+    private final String person_id;
+
+    /**
+     * Status is the status of the row as it was written in the file.
+     */
+    private final String status;
+
+    /**
+     * Reason is why the row was rejected, INVALID_PERSON_ID/INVALID_STATUS/UNKNOWN_PERSON_ID/DUPLICATE_PERSON_ID.
+     */
+    private final String reason;
+
+}
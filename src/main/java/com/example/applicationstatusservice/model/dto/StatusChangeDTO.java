@@ -0,0 +1,37 @@
+package com.example.applicationstatusservice.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.Instant;
+
+/**
+ * StatusChangeDTO is the data transfer object representing one status change published by the status change feed.
+ * {@code @Getter} provides getter functions for the StatusChangeDTO variables.
+ * {@code @AllArgsConstructor} creates and initializes all fields of an object in one class.
+ */
+@Getter
+@AllArgsConstructor
+public class StatusChangeDTO {
+
+    /**
+     * Event_id is the id of the status change, increasing in the order the changes were written.
+     */
+    private final long event_id;
+
+    /**
+     * Person_id represents the id of the Person entity the application belongs to.
+     */
+    private final Long person_id;
+
+    /**
+     * Status is the status the application was set to, Pending/Accept/Reject.
+     */
+    private final String status;
+
+    /**
+     * Changed_at is the time the status was set.
+     */
+    private final Instant changed_at;
+
+}
@@ -0,0 +1,30 @@
+package com.example.applicationstatusservice.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * StatusCountsDTO is the data transfer object representing the number of applications with each status.
+ * {@code @Getter} provides getter functions for the StatusCountsDTO variables.
+ * {@code @AllArgsConstructor} creates and initializes all fields of an object in one class.
+ */
+@Getter
+@AllArgsConstructor
+public class StatusCountsDTO {
+
+    /**
+     * Pending is the number of applications with the status Pending.
+     */
+    private final long pending;
+
+    /**
+     * Accept is the number of applications with the status Accept.
+     */
+    private final long accept;
+
+    /**
+     * Reject is the number of applications with the status Reject.
+     */
+    private final long reject;
+
+}
@@ -0,0 +1,48 @@
+package com.example.applicationstatusservice.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.Instant;
+
+/**
+ * StatusExportDTO is the data transfer object representing one exported application status
+ * together with the person it belongs to.
+ * {@code @Getter} provides getter functions for the StatusExportDTO variables.
+ * {@code @AllArgsConstructor} creates and initializes all fields of an object in one class.
+ */
+@Getter
+@AllArgsConstructor
+public class StatusExportDTO {
+
+    /**
+     * Person_id represents the id of the Person entity the application belongs to.
+     */
+    private final Long person_id;
+
+    /**
+     * Name is the first name of the person.
+     */
+    private final String name;
+
+    /**
+     * Surname is the last name of the person.
+     */
+    private final String surname;
+
+    /**
+     * Email is the email address of the person.
+     */
+    private final String email;
+
+    /**
+     * Status is the current status of the application, Pending/Accept/Reject.
+     */
+    private final String status;
+
+    /**
+     * Updated_at is the time the status was last set, null if it is unknown.
+     */
+    private final Instant updated_at;
+
+}
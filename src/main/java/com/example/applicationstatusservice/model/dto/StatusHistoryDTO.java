@@ -0,0 +1,42 @@
+package com.example.applicationstatusservice.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.Instant;
+
+/**
+ * StatusHistoryDTO is the data transfer object representing one status change recorded in the history of an application.
+ * {@code @Getter} provides getter functions for the StatusHistoryDTO variables.
+ * {@code @AllArgsConstructor} creates and initializes all fields of an object in one class.
+ */
+@Getter
+@AllArgsConstructor
+public class StatusHistoryDTO {
+
+    /**
+     * Person_id represents the id of the Person entity the application belongs to.
+     */
+    private final Long person_id;
+
+    /**
+     * Old_status is the status before the change, null if the application had no status.
+     */
+    private final String old_status;
+
+    /**
+     * New_status is the status the application was set to, Pending/Accept/Reject.
+     */
+    private final String new_status;
+
+    /**
+     * Actor is the username of the recruiter who set the status, null if it is unknown.
+     */
+    private final String actor;
+
+    /**
+     * Changed_at is the time the status was set.
+     */
+    private final Instant changed_at;
+
+}
@@ -0,0 +1,34 @@
+package com.example.applicationstatusservice.model.dto;
+
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * StatusImportResultDTO is the data transfer object representing the outcome of a status import.
+ * {@code @Getter} provides getter functions for the StatusImportResultDTO variables.
+ * {@code @AllArgsConstructor} creates and initializes all fields of an object in one class.
+ */
+@Getter
+@AllArgsConstructor
+@SuppressFBWarnings({"EI_EXPOSE_REP", "EI_EXPOSE_REP2"})
+public class StatusImportResultDTO {
+
+    /**
+     * Imported is the number of rows whose status was set.
+     */
+    private final long imported;
+
+    /**
+     * Rejected is the number of rows that were not imported.
+     */
+    private final long rejected;
+
+    /**
+     * Rejected_rows are the first rejected rows in file order, at most the configured maximum.
+     */
+    private final List<RejectedRowDTO> rejected_rows;
+
+}
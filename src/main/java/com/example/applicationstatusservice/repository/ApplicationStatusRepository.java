@@ -1,21 +1,44 @@
 package com.example.applicationstatusservice.repository;
 
 import com.example.applicationstatusservice.model.ApplicationStatus;
+import com.example.applicationstatusservice.model.ApplicationStatusView;
 import com.example.applicationstatusservice.model.Person;
-import org.springframework.data.jpa.repository.JpaRepository;
-import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
 
 /**
  * The applicationStatusRepository is a repository that contains methods for data
- * retrieval/modification operations.
+ * retrieval/modification operations. Operations declared in {@link ApplicationStatusRepositoryCustom}
+ * are implemented with plain JDBC. The remaining operations are implemented by
+ * {@link JpaApplicationStatusRepository} in the default JPA persistence mode and by
+ * {@link JdbcApplicationStatusRepository} in the JDBC persistence mode, selected with the jdbc profile.
  */
-@Repository
-public interface ApplicationStatusRepository extends JpaRepository<ApplicationStatus, Long> {
+public interface ApplicationStatusRepository extends ApplicationStatusRepositoryCustom {
+
+    /**
+     * Saves an application status, inserting it if it has no application_status_id yet. Saving a
+     * status whose version has changed since it was read fails instead of overwriting the newer status.
+     *
+     * @param applicationStatus is the application status to save.
+     * @return the saved application status.
+     */
+    ApplicationStatus save(ApplicationStatus applicationStatus);
+
     /**
-     * Method finding an application status based on a person.
+     * Method finding an application status based on a person. Only the person_id of the person
+     * is used, so a reference from {@code PersonRepository.getReferenceById} avoids loading it.
      *
      * @param person is a person entity taken as a parameter.
      * @return an ApplicationStatus object.
      */
     ApplicationStatus findByPerson(Person person);
+
+    /**
+     * Method reading the status of an application by the person_id, selecting only the
+     * projected columns without loading any entity.
+     *
+     * @param personId is the person_id of the application.
+     * @return the status, or an empty Optional if the person has no application status.
+     */
+    Optional<ApplicationStatusView> findStatusByPersonId(Long personId);
 }
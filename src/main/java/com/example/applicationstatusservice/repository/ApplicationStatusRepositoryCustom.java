@@ -0,0 +1,153 @@
+package com.example.applicationstatusservice.repository;
+
+import com.example.applicationstatusservice.model.Status;
+import com.example.applicationstatusservice.model.dto.CurrentStatusDTO;
+import com.example.applicationstatusservice.model.dto.StatusChangeDTO;
+import com.example.applicationstatusservice.model.dto.StatusExportDTO;
+import com.example.applicationstatusservice.model.dto.StatusHistoryDTO;
+import com.example.applicationstatusservice.model.dto.StatusImportResultDTO;
+
+import java.io.InputStream;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+/**
+ * ApplicationStatusRepositoryCustom declares data access and modification operations on the
+ * Application_status table that are implemented with plain JDBC instead of JPA.
+ */
+public interface ApplicationStatusRepositoryCustom {
+
+    /**
+     * Method atomically inserting or updating the status of an application
+     * with a single upsert statement, which also writes the change to the outbox and the history.
+     *
+     * @param personId is the person_id of the application.
+     * @param status   is the status that should be set.
+     * @param actor    is the user setting the status, recorded in the history.
+     * @return the status the application had before, or null if a new application status row was created.
+     */
+    Status upsertStatus(Long personId, Status status, String actor);
+
+    /**
+     * Method setting the status of an application only if it still has the expected status and
+     * version, with a single conditional update statement, which also writes the change to the
+     * outbox and the history and increments the version.
+     *
+     * @param personId        is the person_id of the application.
+     * @param expectedStatus  is the status the application must have, or null if it is not checked.
+     * @param expectedVersion is the version the application status must have, or null if it is not checked.
+     * @param status          is the status that should be set.
+     * @param actor           is the user setting the status, recorded in the history.
+     * @return the status the application had before.
+     * @throws org.springframework.dao.OptimisticLockingFailureException if the application has no
+     *                                                                   status or another status or version than expected.
+     */
+    Status compareAndSetStatus(Long personId, Status expectedStatus, Long expectedVersion, Status status, String actor);
+
+    /**
+     * Method inserting or updating the status of many applications using
+     * JDBC-batched upsert statements, and writing the changes to the outbox and
+     * the history with one set-based statement. Must be called inside a transaction.
+     *
+     * @param statusByPersonId maps each person_id to the status that should be set.
+     * @param actor            is the user setting the statuses, recorded in the history.
+     * @return the net change of the number of applications with each status, statuses whose number did not change are left out.
+     */
+    Map<Status, Long> batchUpsertStatuses(Map<Long, Status> statusByPersonId, String actor);
+
+    /**
+     * Method counting the applications with each status with one aggregate query over the whole table.
+     *
+     * @return the number of applications with each status, statuses without applications are left out.
+     */
+    Map<Status, Long> countStatuses();
+
+    /**
+     * Method reading the current status of an application and the time it was last set.
+     *
+     * @param personId is the person_id of the application.
+     * @return the current status, or an empty Optional if the person has no application status.
+     */
+    Optional<CurrentStatusDTO> findCurrentStatus(Long personId);
+
+    /**
+     * Method reading the current status of many applications with a single query, handing
+     * each row to the consumer as it is read. Persons without an application status are skipped.
+     *
+     * @param personIds      are the person_ids of the applications.
+     * @param statusConsumer receives the person_id and the status of each application.
+     */
+    void forEachCurrentStatus(Collection<Long> personIds, BiConsumer<Long, Status> statusConsumer);
+
+    /**
+     * Method reading every application status joined with its person, ordered by person_id, and
+     * handing each row to the consumer as it is fetched. Called inside a transaction, the rows are
+     * read from a server-side cursor a bounded number at a time instead of all at once.
+     *
+     * @param status      is the status the rows are filtered by, or null for all statuses.
+     * @param rowConsumer receives each exported row.
+     */
+    void forEachStatusExport(Status status, Consumer<StatusExportDTO> rowConsumer);
+
+    /**
+     * Method importing statuses from a CSV file with a person_id,status header. The file is streamed
+     * into a temporary staging table with the COPY protocol and merged into the Application_status
+     * table with one set-based upsert. Rows with an invalid or unknown person_id, an invalid status,
+     * or a person_id repeated later in the file are rejected. Must be called inside a transaction.
+     *
+     * @param csv                   is the CSV file.
+     * @param maxReportedRejections is the maximum number of rejected rows returned.
+     * @param actor                 is the user importing the statuses, recorded in the history.
+     * @return the number of imported and rejected rows, and the first rejected rows.
+     */
+    StatusImportResultDTO importStatuses(InputStream csv, int maxReportedRejections, String actor);
+
+    /**
+     * Method reading the next status changes written to the outbox.
+     *
+     * @param afterEventId is the id of the last status change already read.
+     * @param limit        is the maximum number of status changes read.
+     * @return the status changes with a greater id, in id order.
+     */
+    List<StatusChangeDTO> findStatusChanges(long afterEventId, int limit);
+
+    /**
+     * Method reading the id of the last status change written to the outbox.
+     *
+     * @return the id of the last status change, or 0 if the outbox is empty.
+     */
+    long findLastStatusChangeId();
+
+    /**
+     * Method deleting the status changes that have been published and are older than the retention.
+     *
+     * @param upToEventId is the id of the last published status change.
+     * @param retention   is how long status changes are kept for consumers resuming the feed.
+     * @return the number of deleted status changes.
+     */
+    int deleteStatusChanges(long upToEventId, Duration retention);
+
+    /**
+     * Method reading the latest status changes of an application from the history, using the
+     * index on person_id and changed_at.
+     *
+     * @param personId is the person_id of the application.
+     * @param limit    is the maximum number of status changes read.
+     * @return the status changes, newest first.
+     */
+    List<StatusHistoryDTO> findStatusHistory(long personId, int limit);
+
+    /**
+     * Method creating the monthly partitions of the history that do not exist yet, from the
+     * current month up to the given number of months ahead.
+     *
+     * @param monthsAhead is the number of months ahead of the current month partitions are created for.
+     * @return the number of partitions created.
+     */
+    int createStatusHistoryPartitions(int monthsAhead);
+}
@@ -0,0 +1,420 @@
+package com.example.applicationstatusservice.repository;
+
+import com.example.applicationstatusservice.model.Status;
+import com.example.applicationstatusservice.model.dto.CurrentStatusDTO;
+import com.example.applicationstatusservice.model.dto.RejectedRowDTO;
+import com.example.applicationstatusservice.model.dto.StatusChangeDTO;
+import com.example.applicationstatusservice.model.dto.StatusExportDTO;
+import com.example.applicationstatusservice.model.dto.StatusHistoryDTO;
+import com.example.applicationstatusservice.model.dto.StatusImportResultDTO;
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import org.postgresql.PGConnection;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * ApplicationStatusRepositoryCustomImpl implements the JDBC based operations of
+ * the applicationStatusRepository. It relies on the unique index on person_id
+ * to turn each insert into an upsert.
+ */
+@SuppressFBWarnings("EI_EXPOSE_REP2")
+public class ApplicationStatusRepositoryCustomImpl implements ApplicationStatusRepositoryCustom {
+
+    /**
+     * Upsert statement setting the status of an application, inserting a new row
+     * if the person does not have an application status yet.
+     */
+    private static final String UPSERT_STATUS_SQL = "INSERT INTO application_status (person_id, status, updated_at) VALUES (?, ?, now()) "
+            + "ON CONFLICT (person_id) DO UPDATE SET status = EXCLUDED.status, updated_at = EXCLUDED.updated_at, version = application_status.version + 1";
+
+    /**
+     * Statement writing the rows set by an upsert named upserted to the status_outbox table,
+     * so that every status change is published by the status change feed once committed.
+     */
+    private static final String INSERT_OUTBOX_SQL = "INSERT INTO status_outbox (person_id, status) SELECT person_id, status FROM upserted";
+
+    /**
+     * Statement writing the outbox and history rows of a batch in one statement, before the batched
+     * upserts, and returning the net change of the number of applications with each status. The
+     * current status of each application is locked while it is read, so that it is still the old
+     * status when the upserts run. The batched upserts are kept as plain INSERT statements so that
+     * the driver can still rewrite them into multi-row inserts.
+     */
+    private static final String INSERT_CHANGES_BATCH_SQL = "WITH changes AS MATERIALIZED (SELECT c.person_id, c.status, "
+            + "(SELECT a.status FROM application_status a WHERE a.person_id = c.person_id FOR UPDATE) AS old_status "
+            + "FROM unnest(?::bigint[], ?::smallint[]) AS c(person_id, status)), "
+            + "history AS (INSERT INTO status_history (person_id, old_status, new_status, actor) SELECT person_id, old_status, status, ? FROM changes), "
+            + "outboxed AS (INSERT INTO status_outbox (person_id, status) SELECT person_id, status FROM changes) "
+            + "SELECT status, sum(delta) AS delta FROM (SELECT status, 1 AS delta FROM changes "
+            + "UNION ALL SELECT old_status, -1 FROM changes WHERE old_status IS NOT NULL) AS deltas GROUP BY status HAVING sum(delta) <> 0";
+
+    /**
+     * The upsert statement together with its outbox and history rows, returning the previous status,
+     * null if the row was inserted. The previous status is locked and read first, which the count in
+     * the WHERE clause of the upsert enforces.
+     */
+    private static final String UPSERT_STATUS_RETURNING_SQL = "WITH previous AS MATERIALIZED (SELECT status FROM application_status WHERE person_id = ? FOR UPDATE), "
+            + "upserted AS (INSERT INTO application_status (person_id, status, updated_at) SELECT ?, ?, now() WHERE (SELECT count(*) FROM previous) >= 0 "
+            + "ON CONFLICT (person_id) DO UPDATE SET status = EXCLUDED.status, updated_at = EXCLUDED.updated_at, version = application_status.version + 1 RETURNING person_id, status), "
+            + "outboxed AS (" + INSERT_OUTBOX_SQL + "), "
+            + "history AS (INSERT INTO status_history (person_id, old_status, new_status, actor) SELECT person_id, (SELECT status FROM previous), status, ? FROM upserted) "
+            + "SELECT (SELECT status FROM previous) AS previous_status FROM upserted";
+
+    /**
+     * The conditional update of a status together with its outbox and history rows, returning the
+     * previous status and whether the row was updated. The current row is locked and read first, and
+     * only updated if it has the expected version and status, where a null expectation is not checked.
+     */
+    private static final String COMPARE_AND_SET_STATUS_SQL = "WITH previous AS MATERIALIZED (SELECT status, version FROM application_status WHERE person_id = ? FOR UPDATE), "
+            + "updated AS (UPDATE application_status SET status = ?, updated_at = now(), version = version + 1 WHERE person_id = ? "
+            + "AND (SELECT count(*) FROM previous WHERE (?::bigint IS NULL OR version = ?::bigint) AND (?::smallint IS NULL OR status = ?::smallint)) = 1 "
+            + "RETURNING person_id, status), "
+            + "outboxed AS (INSERT INTO status_outbox (person_id, status) SELECT person_id, status FROM updated), "
+            + "history AS (INSERT INTO status_history (person_id, old_status, new_status, actor) SELECT person_id, (SELECT status FROM previous), status, ? FROM updated) "
+            + "SELECT (SELECT status FROM previous) AS previous_status, (SELECT count(*) FROM updated) AS updated";
+
+    /**
+     * Query counting the applications with each status.
+     */
+    private static final String COUNT_STATUSES_SQL = "SELECT status, count(*) AS count FROM application_status GROUP BY status";
+
+    /**
+     * Query reading the current status of an application.
+     */
+    private static final String FIND_CURRENT_STATUS_SQL = "SELECT status, updated_at, version FROM application_status WHERE person_id = ?";
+
+    /**
+     * Query reading the current status of many applications, binding all person_ids
+     * as one array parameter so that the statement is the same for any number of ids.
+     */
+    private static final String FIND_CURRENT_STATUSES_SQL = "SELECT person_id, status FROM application_status WHERE person_id = ANY(?)";
+
+    /**
+     * Query reading every application status joined with its person, in person_id order.
+     */
+    private static final String EXPORT_STATUSES_SQL = "SELECT a.person_id, p.name, p.surname, p.email, a.status, a.updated_at "
+            + "FROM application_status a JOIN person p ON p.person_id = a.person_id ORDER BY a.person_id";
+
+    /**
+     * The export query restricted to one status.
+     */
+    private static final String EXPORT_STATUSES_BY_STATUS_SQL = "SELECT a.person_id, p.name, p.surname, p.email, a.status, a.updated_at "
+            + "FROM application_status a JOIN person p ON p.person_id = a.person_id WHERE a.status = ? ORDER BY a.person_id";
+
+    /**
+     * Statement creating the staging table of an import, numbering the rows in file order.
+     */
+    private static final String CREATE_IMPORT_TABLE_SQL = "CREATE TEMPORARY TABLE status_import "
+            + "(row_number bigint GENERATED ALWAYS AS IDENTITY, person_id text, status text) ON COMMIT DROP";
+
+    /**
+     * Statement streaming a CSV file with a header line into the staging table.
+     */
+    private static final String COPY_IMPORT_SQL = "COPY status_import (person_id, status) FROM STDIN WITH (FORMAT csv, HEADER true)";
+
+    /**
+     * Statement giving the sort and hash of the classification enough memory to stay off disk, for
+     * the current transaction only.
+     */
+    private static final String SET_IMPORT_WORK_MEM_SQL = "SET LOCAL work_mem = '64MB'";
+
+    /**
+     * Expression converting the status text of a staged row to the code of its Status, null if it is invalid.
+     */
+    private static final String IMPORT_STATUS_CODE = Arrays.stream(Status.values())
+            .map(status -> "WHEN '" + status.getValue() + "' THEN " + status.getCode())
+            .collect(Collectors.joining(" ", "CASE s.status ", " END"));
+
+    /**
+     * Statement classifying the staged rows once into a second table, with the reason of each
+     * rejected row. Of the valid rows of a person_id only the last one in the file is kept.
+     */
+    private static final String CLASSIFY_IMPORT_SQL = "CREATE TEMPORARY TABLE status_import_classified ON COMMIT DROP AS "
+            + "WITH parsed AS MATERIALIZED (SELECT s.row_number, s.person_id, s.status, "
+            + "CASE WHEN s.person_id ~ '^[0-9]{1,18}$' THEN s.person_id::bigint END AS person_key, "
+            + IMPORT_STATUS_CODE + " AS status_code FROM status_import s) "
+            + "SELECT parsed.row_number, parsed.person_id, parsed.status, parsed.person_key, parsed.status_code, CASE "
+            + "WHEN parsed.person_key IS NULL THEN 'INVALID_PERSON_ID' "
+            + "WHEN parsed.status_code IS NULL THEN 'INVALID_STATUS' "
+            + "WHEN p.person_id IS NULL THEN 'UNKNOWN_PERSON_ID' "
+            + "WHEN row_number() OVER (PARTITION BY parsed.person_key, parsed.status_code IS NULL ORDER BY parsed.row_number DESC) > 1 THEN 'DUPLICATE_PERSON_ID' "
+            + "END AS reason FROM parsed LEFT JOIN person p ON p.person_id = parsed.person_key";
+
+    /**
+     * Statement merging the accepted rows into the Application_status table, with their outbox and
+     * history rows. As for single updates, the previous statuses are locked and read before the upsert.
+     */
+    private static final String MERGE_IMPORT_SQL = "WITH previous AS MATERIALIZED (SELECT a.person_id, a.status FROM application_status a "
+            + "JOIN status_import_classified c ON c.person_key = a.person_id WHERE c.reason IS NULL FOR UPDATE OF a), "
+            + "upserted AS (INSERT INTO application_status (person_id, status, updated_at) "
+            + "SELECT person_key, status_code, now() FROM status_import_classified WHERE reason IS NULL AND (SELECT count(*) FROM previous) >= 0 "
+            + "ON CONFLICT (person_id) DO UPDATE SET status = EXCLUDED.status, updated_at = EXCLUDED.updated_at, version = application_status.version + 1 RETURNING person_id, status), "
+            + "outboxed AS (" + INSERT_OUTBOX_SQL + ") "
+            + "INSERT INTO status_history (person_id, old_status, new_status, actor) SELECT u.person_id, p.status, u.status, ? FROM upserted u LEFT JOIN previous p USING (person_id)";
+
+    /**
+     * Query reading the first rejected rows in file order.
+     */
+    private static final String FIND_REJECTED_IMPORT_ROWS_SQL = "SELECT row_number, person_id, status, reason "
+            + "FROM status_import_classified WHERE reason IS NOT NULL ORDER BY row_number LIMIT ?";
+
+    /**
+     * Statement dropping the tables of an import once it is done.
+     */
+    private static final String DROP_IMPORT_TABLES_SQL = "DROP TABLE status_import, status_import_classified";
+
+    /**
+     * Query reading the next status changes of the outbox in id order.
+     */
+    private static final String FIND_STATUS_CHANGES_SQL = "SELECT id, person_id, status, created_at FROM status_outbox WHERE id > ? ORDER BY id LIMIT ?";
+
+    /**
+     * Query reading the id of the last status change of the outbox.
+     */
+    private static final String FIND_LAST_STATUS_CHANGE_ID_SQL = "SELECT coalesce(max(id), 0) FROM status_outbox";
+
+    /**
+     * Statement deleting the published status changes older than the retention, given in seconds.
+     */
+    private static final String DELETE_STATUS_CHANGES_SQL = "DELETE FROM status_outbox WHERE id <= ? AND created_at < clock_timestamp() - make_interval(secs => ?)";
+
+    /**
+     * Query reading the latest status changes of an application, newest first.
+     */
+    private static final String FIND_STATUS_HISTORY_SQL = "SELECT old_status, new_status, actor, changed_at FROM status_history "
+            + "WHERE person_id = ? ORDER BY changed_at DESC LIMIT ?";
+
+    /**
+     * Statement creating the monthly partitions of the status_history table that do not exist yet.
+     */
+    private static final String CREATE_HISTORY_PARTITIONS_SQL = "SELECT create_status_history_partitions(?)";
+
+    /**
+     * JdbcTemplate used to execute statements on the shared datasource.
+     */
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * JdbcTemplate on the same datasource fetching the rows of exports a bounded number at a time.
+     */
+    private final JdbcTemplate exportJdbcTemplate;
+
+    /**
+     * The number of statements sent to the database in each JDBC batch.
+     */
+    private final int jdbcBatchSize;
+
+    /**
+     * Constructor for the ApplicationStatusRepositoryCustomImpl class.
+     *
+     * @param jdbcTemplate    is used to execute statements on the shared datasource.
+     * @param dataSource      is the shared datasource, also used by exports.
+     * @param jdbcBatchSize   is the number of statements sent in each JDBC batch.
+     * @param exportFetchSize is the number of rows fetched at a time by exports.
+     */
+    public ApplicationStatusRepositoryCustomImpl(JdbcTemplate jdbcTemplate, DataSource dataSource, @Value("${application-status.batch.jdbc-batch-size:500}") int jdbcBatchSize,
+                                                 @Value("${application-status.export.fetch-size:1000}") int exportFetchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.jdbcBatchSize = jdbcBatchSize;
+        this.exportJdbcTemplate = new JdbcTemplate(dataSource);
+        this.exportJdbcTemplate.setFetchSize(exportFetchSize);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Status upsertStatus(Long personId, Status status, String actor) {
+        Short previousStatus = jdbcTemplate.queryForObject(UPSERT_STATUS_RETURNING_SQL, Short.class, personId, personId, status.getCode(), actor);
+        return previousStatus == null ? null : Status.fromCode(previousStatus);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Status compareAndSetStatus(Long personId, Status expectedStatus, Long expectedVersion, Status status, String actor) {
+        Short expectedCode = expectedStatus == null ? null : expectedStatus.getCode();
+        return jdbcTemplate.queryForObject(COMPARE_AND_SET_STATUS_SQL, (rs, rowNum) -> {
+            if (rs.getLong("updated") == 0) {
+                throw new OptimisticLockingFailureException("The status of person Id: " + personId + " is not the expected status or version");
+            }
+            return Status.fromCode(rs.getShort("previous_status"));
+        }, personId, status.getCode(), personId, expectedVersion, expectedVersion, expectedCode, expectedCode, actor);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Map<Status, Long> batchUpsertStatuses(Map<Long, Status> statusByPersonId, String actor) {
+        Long[] personIds = statusByPersonId.keySet().toArray(new Long[0]);
+        Short[] statuses = statusByPersonId.values().stream().map(Status::getCode).toArray(Short[]::new);
+        Map<Status, Long> countChanges = new EnumMap<>(Status.class);
+        jdbcTemplate.query(INSERT_CHANGES_BATCH_SQL, ps -> {
+            ps.setArray(1, ps.getConnection().createArrayOf("bigint", personIds));
+            ps.setArray(2, ps.getConnection().createArrayOf("smallint", statuses));
+            ps.setString(3, actor);
+        }, rs -> {
+            countChanges.put(Status.fromCode(rs.getShort("status")), rs.getLong("delta"));
+        });
+        jdbcTemplate.batchUpdate(UPSERT_STATUS_SQL, statusByPersonId.entrySet(), jdbcBatchSize, (ps, entry) -> {
+            ps.setLong(1, entry.getKey());
+            ps.setShort(2, entry.getValue().getCode());
+        });
+        return countChanges;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Map<Status, Long> countStatuses() {
+        Map<Status, Long> counts = new EnumMap<>(Status.class);
+        jdbcTemplate.query(COUNT_STATUSES_SQL, rs -> {
+            counts.put(Status.fromCode(rs.getShort("status")), rs.getLong("count"));
+        });
+        return counts;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Optional<CurrentStatusDTO> findCurrentStatus(Long personId) {
+        return jdbcTemplate.query(FIND_CURRENT_STATUS_SQL, (rs, rowNum) -> {
+            Timestamp updatedAt = rs.getTimestamp("updated_at");
+            return new CurrentStatusDTO(personId, Status.fromCode(rs.getShort("status")).getValue(), updatedAt == null ? null : updatedAt.toInstant(), rs.getLong("version"));
+        }, personId).stream().findFirst();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void forEachCurrentStatus(Collection<Long> personIds, BiConsumer<Long, Status> statusConsumer) {
+        jdbcTemplate.query(FIND_CURRENT_STATUSES_SQL, ps -> ps.setArray(1, ps.getConnection().createArrayOf("bigint", personIds.toArray())), rs -> {
+            statusConsumer.accept(rs.getLong("person_id"), Status.fromCode(rs.getShort("status")));
+        });
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void forEachStatusExport(Status status, Consumer<StatusExportDTO> rowConsumer) {
+        if (status == null) {
+            exportJdbcTemplate.query(EXPORT_STATUSES_SQL, rs -> {
+                rowConsumer.accept(toStatusExport(rs));
+            });
+        } else {
+            exportJdbcTemplate.query(EXPORT_STATUSES_BY_STATUS_SQL, rs -> {
+                rowConsumer.accept(toStatusExport(rs));
+            }, status.getCode());
+        }
+    }
+
+    /**
+     * Maps the current row of an export query.
+     *
+     * @param rs is the result set positioned on the row.
+     * @return the exported row.
+     * @throws SQLException if a column could not be read.
+     */
+    private static StatusExportDTO toStatusExport(ResultSet rs) throws SQLException {
+        Timestamp updatedAt = rs.getTimestamp("updated_at");
+        return new StatusExportDTO(rs.getLong("person_id"), rs.getString("name"), rs.getString("surname"), rs.getString("email"),
+                Status.fromCode(rs.getShort("status")).getValue(), updatedAt == null ? null : updatedAt.toInstant());
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public StatusImportResultDTO importStatuses(InputStream csv, int maxReportedRejections, String actor) {
+        jdbcTemplate.execute(CREATE_IMPORT_TABLE_SQL);
+        Long copied = jdbcTemplate.execute((ConnectionCallback<Long>) con -> {
+            try {
+                return con.unwrap(PGConnection.class).getCopyAPI().copyIn(COPY_IMPORT_SQL, csv);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        long rows = copied == null ? 0 : copied;
+        jdbcTemplate.execute(SET_IMPORT_WORK_MEM_SQL);
+        jdbcTemplate.execute(CLASSIFY_IMPORT_SQL);
+        long imported = jdbcTemplate.update(MERGE_IMPORT_SQL, actor);
+        List<RejectedRowDTO> rejectedRows = imported == rows ? List.of() : jdbcTemplate.query(FIND_REJECTED_IMPORT_ROWS_SQL, (rs, rowNum) ->
+                new RejectedRowDTO(rs.getLong("row_number"), rs.getString("person_id"), rs.getString("status"), rs.getString("reason")), maxReportedRejections);
+        jdbcTemplate.execute(DROP_IMPORT_TABLES_SQL);
+        return new StatusImportResultDTO(imported, rows - imported, rejectedRows);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<StatusChangeDTO> findStatusChanges(long afterEventId, int limit) {
+        return jdbcTemplate.query(FIND_STATUS_CHANGES_SQL, (rs, rowNum) -> new StatusChangeDTO(rs.getLong("id"), rs.getLong("person_id"),
+                Status.fromCode(rs.getShort("status")).getValue(), rs.getTimestamp("created_at").toInstant()), afterEventId, limit);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long findLastStatusChangeId() {
+        Long lastEventId = jdbcTemplate.queryForObject(FIND_LAST_STATUS_CHANGE_ID_SQL, Long.class);
+        return lastEventId == null ? 0 : lastEventId;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int deleteStatusChanges(long upToEventId, Duration retention) {
+        return jdbcTemplate.update(DELETE_STATUS_CHANGES_SQL, upToEventId, retention.toSeconds());
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<StatusHistoryDTO> findStatusHistory(long personId, int limit) {
+        return jdbcTemplate.query(FIND_STATUS_HISTORY_SQL, (rs, rowNum) -> {
+            short oldStatus = rs.getShort("old_status");
+            return new StatusHistoryDTO(personId, rs.wasNull() ? null : Status.fromCode(oldStatus).getValue(), Status.fromCode(rs.getShort("new_status")).getValue(),
+                    rs.getString("actor"), rs.getTimestamp("changed_at").toInstant());
+        }, personId, limit);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int createStatusHistoryPartitions(int monthsAhead) {
+        Integer created = jdbcTemplate.queryForObject(CREATE_HISTORY_PARTITIONS_SQL, Integer.class, monthsAhead);
+        return created == null ? 0 : created;
+    }
+}
@@ -0,0 +1,152 @@
+package com.example.applicationstatusservice.repository;
+
+import com.example.applicationstatusservice.model.ApplicationStatus;
+import com.example.applicationstatusservice.model.ApplicationStatusView;
+import com.example.applicationstatusservice.model.Person;
+import com.example.applicationstatusservice.model.Status;
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.Optional;
+
+/**
+ * JdbcApplicationStatusRepository implements the applicationStatusRepository with plain JDBC
+ * statements, without Hibernate, a persistence context or dirty checking. The operations declared
+ * in {@link ApplicationStatusRepositoryCustom} are inherited from {@link ApplicationStatusRepositoryCustomImpl}.
+ * Used in the JDBC persistence mode.
+ */
+@Repository
+@Profile("jdbc")
+@SuppressFBWarnings("EI_EXPOSE_REP2")
+public class JdbcApplicationStatusRepository extends ApplicationStatusRepositoryCustomImpl implements ApplicationStatusRepository {
+
+    /**
+     * Statement inserting an application status and returning its generated application_status_id and version.
+     */
+    private static final String INSERT_STATUS_SQL = "INSERT INTO application_status (person_id, status, updated_at, version) VALUES (?, ?, ?, 0) "
+            + "RETURNING application_status_id";
+
+    /**
+     * Statement updating an application status if its version has not changed since it was read.
+     */
+    private static final String UPDATE_STATUS_SQL = "UPDATE application_status SET person_id = ?, status = ?, updated_at = ?, version = version + 1 "
+            + "WHERE application_status_id = ? AND version = ?";
+
+    /**
+     * Query reading the application status of a person.
+     */
+    private static final String FIND_BY_PERSON_SQL = "SELECT application_status_id, person_id, status, updated_at, version FROM application_status WHERE person_id = ?";
+
+    /**
+     * Query reading the projected columns of the application status of a person.
+     */
+    private static final String FIND_STATUS_BY_PERSON_ID_SQL = "SELECT status, updated_at, version FROM application_status WHERE person_id = ?";
+
+    /**
+     * Maps a row with the columns of an application status, referencing its person by the person_id.
+     */
+    private static final RowMapper<ApplicationStatus> APPLICATION_STATUS_ROW_MAPPER = (rs, rowNum) -> ApplicationStatus.builder()
+            .application_status_id(rs.getLong("application_status_id")).person(Person.builder().personId(rs.getLong("person_id")).build())
+            .status(readStatus(rs)).updatedAt(readUpdatedAt(rs)).version(rs.getLong("version")).build();
+
+    /**
+     * Maps a row with the projected columns of an application status.
+     */
+    private static final RowMapper<ApplicationStatusView> APPLICATION_STATUS_VIEW_ROW_MAPPER = (rs, rowNum) ->
+            new ApplicationStatusView(readStatus(rs), readUpdatedAt(rs), rs.getLong("version"));
+
+    /**
+     * JdbcTemplate used to execute statements on the shared datasource.
+     */
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Constructor for the JdbcApplicationStatusRepository class.
+     *
+     * @param jdbcTemplate    is used to execute statements on the shared datasource.
+     * @param dataSource      is the shared datasource, also used by exports.
+     * @param jdbcBatchSize   is the number of statements sent in each JDBC batch.
+     * @param exportFetchSize is the number of rows fetched at a time by exports.
+     */
+    public JdbcApplicationStatusRepository(JdbcTemplate jdbcTemplate, DataSource dataSource, @Value("${application-status.batch.jdbc-batch-size:500}") int jdbcBatchSize,
+                                           @Value("${application-status.export.fetch-size:1000}") int exportFetchSize) {
+        super(jdbcTemplate, dataSource, jdbcBatchSize, exportFetchSize);
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public ApplicationStatus save(ApplicationStatus applicationStatus) {
+        Long personId = applicationStatus.getPerson() == null ? null : applicationStatus.getPerson().getPersonId();
+        Short status = applicationStatus.getStatus() == null ? null : applicationStatus.getStatus().getCode();
+        Timestamp updatedAt = applicationStatus.getUpdatedAt() == null ? null : Timestamp.from(applicationStatus.getUpdatedAt());
+        if (applicationStatus.getApplication_status_id() == null) {
+            applicationStatus.setApplication_status_id(jdbcTemplate.queryForObject(INSERT_STATUS_SQL, Long.class, personId, status, updatedAt));
+            applicationStatus.setVersion(0L);
+            return applicationStatus;
+        }
+        long version = applicationStatus.getVersion() == null ? 0 : applicationStatus.getVersion();
+        if (jdbcTemplate.update(UPDATE_STATUS_SQL, personId, status, updatedAt, applicationStatus.getApplication_status_id(), version) == 0) {
+            throw new OptimisticLockingFailureException("The application status: " + applicationStatus.getApplication_status_id()
+                    + " was changed or deleted since it was read");
+        }
+        applicationStatus.setVersion(version + 1);
+        return applicationStatus;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public ApplicationStatus findByPerson(Person person) {
+        if (person == null || person.getPersonId() == null) {
+            return null;
+        }
+        return jdbcTemplate.query(FIND_BY_PERSON_SQL, APPLICATION_STATUS_ROW_MAPPER, person.getPersonId()).stream().findFirst().orElse(null);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Optional<ApplicationStatusView> findStatusByPersonId(Long personId) {
+        return jdbcTemplate.query(FIND_STATUS_BY_PERSON_ID_SQL, APPLICATION_STATUS_VIEW_ROW_MAPPER, personId).stream().findFirst();
+    }
+
+    /**
+     * Reads the status column of a row.
+     *
+     * @param rs is the result set positioned on the row.
+     * @return the status, or null if the column is null.
+     * @throws SQLException if the column could not be read.
+     */
+    private static Status readStatus(ResultSet rs) throws SQLException {
+        short code = rs.getShort("status");
+        return rs.wasNull() ? null : Status.fromCode(code);
+    }
+
+    /**
+     * Reads the updated_at column of a row.
+     *
+     * @param rs is the result set positioned on the row.
+     * @return the time the status was last set, or null if the column is null.
+     * @throws SQLException if the column could not be read.
+     */
+    private static Instant readUpdatedAt(ResultSet rs) throws SQLException {
+        Timestamp updatedAt = rs.getTimestamp("updated_at");
+        return updatedAt == null ? null : updatedAt.toInstant();
+    }
+}
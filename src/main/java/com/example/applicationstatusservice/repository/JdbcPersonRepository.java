@@ -0,0 +1,180 @@
+package com.example.applicationstatusservice.repository;
+
+import com.example.applicationstatusservice.model.Person;
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * JdbcPersonRepository implements the personRepository with plain JDBC statements, without
+ * Hibernate, a persistence context or dirty checking. The operations declared in
+ * {@link PersonRepositoryCustom} are inherited from {@link PersonRepositoryCustomImpl}, which also
+ * allocates the person_ids of single persons. Used in the JDBC persistence mode.
+ */
+@Repository
+@Profile("jdbc")
+@SuppressFBWarnings("EI_EXPOSE_REP2")
+public class JdbcPersonRepository extends PersonRepositoryCustomImpl implements PersonRepository {
+
+    /**
+     * The columns of a person.
+     */
+    private static final String PERSON_COLUMNS = "person_id, name, surname, pnr, email, password, role_id, username";
+
+    /**
+     * Statement updating every column of a person.
+     */
+    private static final String UPDATE_PERSON_SQL = "UPDATE person SET name = ?, surname = ?, pnr = ?, email = ?, password = ?, role_id = ?, username = ? WHERE person_id = ?";
+
+    /**
+     * Query reading a person by the username, found through the lower(username) index and then matched exactly.
+     */
+    private static final String FIND_BY_USERNAME_SQL = "SELECT " + PERSON_COLUMNS + " FROM person WHERE lower(username) = lower(?) AND username = ?";
+
+    /**
+     * Query reading a person by the person_id.
+     */
+    private static final String FIND_BY_ID_SQL = "SELECT " + PERSON_COLUMNS + " FROM person WHERE person_id = ?";
+
+    /**
+     * Query checking if a person_id exists.
+     */
+    private static final String EXISTS_BY_ID_SQL = "SELECT EXISTS (SELECT 1 FROM person WHERE person_id = ?)";
+
+    /**
+     * Query reading all persons.
+     */
+    private static final String FIND_ALL_SQL = "SELECT " + PERSON_COLUMNS + " FROM person";
+
+    /**
+     * Query reading which of the person_ids exist, binding all of them as one array parameter.
+     */
+    private static final String FIND_EXISTING_PERSON_IDS_SQL = "SELECT person_id FROM person WHERE person_id = ANY(?)";
+
+    /**
+     * Query reading the person_ids after the given one in ascending order.
+     */
+    private static final String FIND_PERSON_IDS_AFTER_SQL = "SELECT person_id FROM person WHERE person_id > ? ORDER BY person_id";
+
+    /**
+     * The number of person_ids fetched at a time when streaming them.
+     */
+    private static final int PERSON_IDS_FETCH_SIZE = 10000;
+
+    /**
+     * Maps a row with the columns of a person.
+     */
+    private static final RowMapper<Person> PERSON_ROW_MAPPER = (rs, rowNum) -> Person.builder().personId(rs.getLong("person_id")).name(rs.getString("name"))
+            .surname(rs.getString("surname")).pnr(rs.getString("pnr")).email(rs.getString("email")).password(rs.getString("password"))
+            .role_id(rs.getInt("role_id")).username(rs.getString("username")).build();
+
+    /**
+     * JdbcTemplate used to execute statements on the shared datasource.
+     */
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * JdbcTemplate on the same datasource fetching streamed person_ids a bounded number at a time.
+     */
+    private final JdbcTemplate streamJdbcTemplate;
+
+    /**
+     * Constructor for the JdbcPersonRepository class.
+     *
+     * @param jdbcTemplate  is used to execute statements on the shared datasource.
+     * @param dataSource    is the shared datasource, also used to stream person_ids.
+     * @param jdbcBatchSize is the number of statements sent in each JDBC batch.
+     */
+    public JdbcPersonRepository(JdbcTemplate jdbcTemplate, DataSource dataSource, @Value("${application-status.batch.jdbc-batch-size:500}") int jdbcBatchSize) {
+        super(jdbcTemplate, jdbcBatchSize);
+        this.jdbcTemplate = jdbcTemplate;
+        this.streamJdbcTemplate = new JdbcTemplate(dataSource);
+        this.streamJdbcTemplate.setFetchSize(PERSON_IDS_FETCH_SIZE);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Person save(Person person) {
+        if (person.getPersonId() == null) {
+            insertPersons(List.of(person));
+        } else {
+            jdbcTemplate.update(UPDATE_PERSON_SQL, person.getName(), person.getSurname(), person.getPnr(), person.getEmail(), person.getPassword(),
+                    person.getRole_id(), person.getUsername(), person.getPersonId());
+        }
+        return person;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Person findByUsername(String Username) {
+        return jdbcTemplate.query(FIND_BY_USERNAME_SQL, PERSON_ROW_MAPPER, Username, Username).stream().findFirst().orElse(null);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Optional<Person> findById(Long personId) {
+        return jdbcTemplate.query(FIND_BY_ID_SQL, PERSON_ROW_MAPPER, personId).stream().findFirst();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean existsById(Long personId) {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(EXISTS_BY_ID_SQL, Boolean.class, personId));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<Person> findAll() {
+        return jdbcTemplate.query(FIND_ALL_SQL, PERSON_ROW_MAPPER);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Person getReferenceById(Long personId) {
+        return Person.builder().personId(personId).build();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Set<Long> findExistingPersonIds(Collection<Long> personIds) {
+        Set<Long> existingPersonIds = new HashSet<>();
+        jdbcTemplate.query(FIND_EXISTING_PERSON_IDS_SQL, ps -> ps.setArray(1, ps.getConnection().createArrayOf("bigint", personIds.toArray())), rs -> {
+            existingPersonIds.add(rs.getLong("person_id"));
+        });
+        return existingPersonIds;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Stream<Long> streamPersonIdsAfter(long personId) {
+        return streamJdbcTemplate.queryForStream(FIND_PERSON_IDS_AFTER_SQL, (rs, rowNum) -> rs.getLong(1), personId);
+    }
+}
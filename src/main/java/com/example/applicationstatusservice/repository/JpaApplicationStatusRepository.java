@@ -0,0 +1,27 @@
+package com.example.applicationstatusservice.repository;
+
+import com.example.applicationstatusservice.model.ApplicationStatus;
+import com.example.applicationstatusservice.model.ApplicationStatusView;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.Repository;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Optional;
+
+/**
+ * JpaApplicationStatusRepository implements the applicationStatusRepository with Spring Data JPA,
+ * which derives the queries and implements the CRUD methods declared by the applicationStatusRepository.
+ * The operations declared in {@link ApplicationStatusRepositoryCustom} are implemented by
+ * {@link ApplicationStatusRepositoryCustomImpl}, which Spring Data only detects for the fragments the repository
+ * extends directly, so {@link ApplicationStatusRepositoryCustom} is repeated. Used in the default JPA persistence mode.
+ */
+@org.springframework.stereotype.Repository
+public interface JpaApplicationStatusRepository extends Repository<ApplicationStatus, Long>, ApplicationStatusRepository, ApplicationStatusRepositoryCustom {
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @Query("select new com.example.applicationstatusservice.model.ApplicationStatusView(a.status, a.updatedAt, a.version) from ApplicationStatus a where a.person.personId = :personId")
+    Optional<ApplicationStatusView> findStatusByPersonId(@Param("personId") Long personId);
+}
@@ -0,0 +1,48 @@
+package com.example.applicationstatusservice.repository;
+
+import com.example.applicationstatusservice.model.Person;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.Repository;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+
+/**
+ * JpaPersonRepository implements the personRepository with Spring Data JPA, which
+ * derives the queries and implements the CRUD methods declared by the personRepository.
+ * The operations declared in {@link PersonRepositoryCustom} are implemented by
+ * {@link PersonRepositoryCustomImpl}, which Spring Data only detects for the fragments the repository
+ * extends directly, so {@link PersonRepositoryCustom} is repeated. Used in the default JPA persistence mode.
+ */
+@org.springframework.stereotype.Repository
+public interface JpaPersonRepository extends Repository<Person, Long>, PersonRepository, PersonRepositoryCustom {
+
+    /**
+     * {@inheritDoc}
+     * The person is found through the lower(username) index and then matched exactly.
+     */
+    @Override
+    @Query("select p from Person p where lower(p.username) = lower(:username) and p.username = :username")
+    Person findByUsername(@Param("username") String Username);
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @Query("select p.personId from Person p where p.personId in :personIds")
+    Set<Long> findExistingPersonIds(@Param("personIds") Collection<Long> personIds);
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "10000"))
+    @Query("select p.personId from Person p where p.personId > :personId order by p.personId")
+    Stream<Long> streamPersonIdsAfter(@Param("personId") long personId);
+}
@@ -1,15 +1,30 @@
 package com.example.applicationstatusservice.repository;
 
 import com.example.applicationstatusservice.model.Person;
-import org.springframework.data.jpa.repository.JpaRepository;
-import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
 
 /**
  * The personRepository is a repository that contains methods for data
- * retrieval/modification operations.
+ * retrieval/modification operations. Operations declared in {@link PersonRepositoryCustom}
+ * are implemented with plain JDBC. The remaining operations are implemented by {@link JpaPersonRepository}
+ * in the default JPA persistence mode and by {@link JdbcPersonRepository} in the JDBC
+ * persistence mode, selected with the jdbc profile.
  */
-@Repository
-public interface PersonRepository extends JpaRepository<Person, Long> {
+public interface PersonRepository extends PersonRepositoryCustom {
+
+    /**
+     * Saves a person, inserting it if it has no person_id yet.
+     *
+     * @param person is the person to save.
+     * @return the saved person, with its generated person_id.
+     */
+    Person save(Person person);
+
     /**
      * Retrieves the username from the database.
      *
@@ -18,4 +33,53 @@ public interface PersonRepository extends JpaRepository<Person, Long> {
      * @return Object of the type Person class.
      */
     Person findByUsername(String Username);
-}
\ No newline at end of file
+
+    /**
+     * Retrieves a person by the person_id.
+     *
+     * @param personId is the person_id of the person.
+     * @return the person, or an empty Optional if there is none.
+     */
+    Optional<Person> findById(Long personId);
+
+    /**
+     * Checks if a person with the person_id exists.
+     *
+     * @param personId is the person_id of the person.
+     * @return true if the person exists.
+     */
+    boolean existsById(Long personId);
+
+    /**
+     * Retrieves all persons.
+     *
+     * @return every person in the database.
+     */
+    List<Person> findAll();
+
+    /**
+     * Returns a reference to a person that is not loaded from the database, for use as
+     * the person of an application status.
+     *
+     * @param personId is the person_id of the person.
+     * @return a reference to the person.
+     */
+    Person getReferenceById(Long personId);
+
+    /**
+     * Retrieves which of the given person_ids exist in the database using one set-based query.
+     *
+     * @param personIds represents the person_ids that are being searched for in the database.
+     * @return the subset of the given person_ids that belong to an existing Person.
+     */
+    Set<Long> findExistingPersonIds(Collection<Long> personIds);
+
+    /**
+     * Streams the person_ids greater than the given one in ascending order, fetching them
+     * from the database in chunks. Must be consumed inside a transaction and closed afterwards.
+     *
+     * @param personId is the person_id after which person_ids are streamed.
+     * @return a stream of person_ids.
+     */
+    Stream<Long> streamPersonIdsAfter(long personId);
+}
@@ -0,0 +1,72 @@
+package com.example.applicationstatusservice.repository;
+
+import com.example.applicationstatusservice.model.Person;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * PersonRepositoryCustom declares data access and modification operations on the
+ * Person table that are implemented with plain JDBC instead of JPA.
+ */
+public interface PersonRepositoryCustom {
+
+    /**
+     * Method inserting many persons with batched insert statements. The person_ids are allocated
+     * from the person_id sequence in blocks and set on the persons before they are inserted.
+     *
+     * @param persons are the persons to insert, without person_ids.
+     */
+    void insertPersons(List<Person> persons);
+
+    /**
+     * Retrieves which of the given usernames belong to an existing person using one set-based query.
+     * Usernames are compared case-insensitively.
+     *
+     * @param usernames are the usernames that are being searched for in the database.
+     * @return the subset of the given usernames that belong to an existing Person, in the case they were given.
+     */
+    Set<String> findExistingUsernames(Collection<String> usernames);
+
+    /**
+     * Retrieves which of the given emails belong to an existing person using one set-based query.
+     * Emails are compared case-insensitively.
+     *
+     * @param emails are the emails that are being searched for in the database.
+     * @return the subset of the given emails that belong to an existing Person, in the case they were given.
+     */
+    Set<String> findExistingEmails(Collection<String> emails);
+
+    /**
+     * Retrieves which of the given pnrs belong to an existing person using one set-based query.
+     *
+     * @param pnrs are the pnrs that are being searched for in the database.
+     * @return the subset of the given pnrs that belong to an existing Person.
+     */
+    Set<String> findExistingPnrs(Collection<String> pnrs);
+
+    /**
+     * Checks if a person with the username exists, comparing usernames case-insensitively.
+     *
+     * @param username is the username that is being searched for in the database.
+     * @return true if the username belongs to an existing Person.
+     */
+    boolean existsByUsernameIgnoreCase(String username);
+
+    /**
+     * Checks if a person with the email exists, comparing emails case-insensitively.
+     *
+     * @param email is the email that is being searched for in the database.
+     * @return true if the email belongs to an existing Person.
+     */
+    boolean existsByEmailIgnoreCase(String email);
+
+    /**
+     * Checks if a person with the pnr exists.
+     *
+     * @param pnr is the pnr that is being searched for in the database.
+     * @return true if the pnr belongs to an existing Person.
+     */
+    boolean existsByPnr(String pnr);
+}
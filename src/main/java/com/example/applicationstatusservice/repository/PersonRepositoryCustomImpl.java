@@ -0,0 +1,218 @@
+package com.example.applicationstatusservice.repository;
+
+import com.example.applicationstatusservice.model.Person;
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * PersonRepositoryCustomImpl implements the JDBC based operations of the personRepository.
+ * Each value of the person_id sequence reserves the block of {@link Person#ID_ALLOCATION_SIZE}
+ * person_ids up to it, the same blocks Hibernate allocates for single registrations, so the
+ * person_ids of a bulk registration are read from the sequence once per block.
+ */
+@SuppressFBWarnings("EI_EXPOSE_REP2")
+public class PersonRepositoryCustomImpl implements PersonRepositoryCustom {
+
+    /**
+     * Query reading the given number of values from the person_id sequence, each reserving a block of person_ids.
+     */
+    private static final String ALLOCATE_PERSON_ID_BLOCKS_SQL = "SELECT nextval('person_person_id_seq') FROM generate_series(1, ?)";
+
+    /**
+     * Statement inserting a person with an allocated person_id, rewritten into multi-row inserts by the driver when batched.
+     */
+    private static final String INSERT_PERSON_SQL = "INSERT INTO person (person_id, name, surname, pnr, email, password, role_id, username) VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
+    /**
+     * Query reading which of the usernames exist case-insensitively, binding all of them as one
+     * array parameter. The array is joined as a table, so the database can look each username up
+     * in the lower(username) index, or hash the array, instead of comparing every row of person
+     * with every username, as {@code = ANY(?)} does for a bound array.
+     */
+    private static final String FIND_EXISTING_USERNAMES_SQL = "SELECT DISTINCT v.value FROM unnest(?::text[]) AS v(value) JOIN person p ON lower(p.username) = lower(v.value)";
+
+    /**
+     * Query reading which of the emails exist case-insensitively, joining them like the usernames.
+     */
+    private static final String FIND_EXISTING_EMAILS_SQL = "SELECT DISTINCT v.value FROM unnest(?::text[]) AS v(value) JOIN person p ON lower(p.email) = lower(v.value)";
+
+    /**
+     * Query reading which of the pnrs exist, joining them like the usernames.
+     */
+    private static final String FIND_EXISTING_PNRS_SQL = "SELECT DISTINCT v.value FROM unnest(?::text[]) AS v(value) JOIN person p ON p.pnr = v.value";
+
+    /**
+     * Query checking if a username exists case-insensitively, answered from the lower(username) index.
+     */
+    private static final String EXISTS_BY_USERNAME_SQL = "SELECT EXISTS (SELECT 1 FROM person WHERE lower(username) = lower(?))";
+
+    /**
+     * Query checking if an email exists case-insensitively, answered from the lower(email) index.
+     */
+    private static final String EXISTS_BY_EMAIL_SQL = "SELECT EXISTS (SELECT 1 FROM person WHERE lower(email) = lower(?))";
+
+    /**
+     * Query checking if a pnr exists, answered from the pnr index.
+     */
+    private static final String EXISTS_BY_PNR_SQL = "SELECT EXISTS (SELECT 1 FROM person WHERE pnr = ?)";
+
+    /**
+     * JdbcTemplate used to execute statements on the shared datasource.
+     */
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * The number of statements sent in each JDBC batch.
+     */
+    private final int jdbcBatchSize;
+
+    /**
+     * The last person_ids of the blocks read from the sequence that have not been used yet.
+     */
+    private final Deque<Long> blockEnds = new ArrayDeque<>();
+
+    /**
+     * The next person_id of the current block.
+     */
+    private long nextPersonId = 1;
+
+    /**
+     * The last person_id of the current block, lower than nextPersonId once the block is used up.
+     */
+    private long lastPersonId;
+
+    /**
+     * Constructor for the PersonRepositoryCustomImpl class.
+     *
+     * @param jdbcTemplate  is used to execute statements on the shared datasource.
+     * @param jdbcBatchSize is the number of statements sent in each JDBC batch.
+     */
+    public PersonRepositoryCustomImpl(JdbcTemplate jdbcTemplate, @Value("${application-status.batch.jdbc-batch-size:500}") int jdbcBatchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.jdbcBatchSize = jdbcBatchSize;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void insertPersons(List<Person> persons) {
+        if (persons.isEmpty()) {
+            return;
+        }
+        long[] personIds = allocatePersonIds(persons.size());
+        for (int i = 0; i < persons.size(); i++) {
+            persons.get(i).setPersonId(personIds[i]);
+        }
+        jdbcTemplate.batchUpdate(INSERT_PERSON_SQL, persons, jdbcBatchSize, (ps, person) -> {
+            ps.setLong(1, person.getPersonId());
+            ps.setString(2, person.getName());
+            ps.setString(3, person.getSurname());
+            ps.setString(4, person.getPnr());
+            ps.setString(5, person.getEmail());
+            ps.setString(6, person.getPassword());
+            ps.setInt(7, person.getRole_id());
+            ps.setString(8, person.getUsername());
+        });
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Set<String> findExistingUsernames(Collection<String> usernames) {
+        return findExisting(FIND_EXISTING_USERNAMES_SQL, usernames);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Set<String> findExistingEmails(Collection<String> emails) {
+        return findExisting(FIND_EXISTING_EMAILS_SQL, emails);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Set<String> findExistingPnrs(Collection<String> pnrs) {
+        return findExisting(FIND_EXISTING_PNRS_SQL, pnrs);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean existsByUsernameIgnoreCase(String username) {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(EXISTS_BY_USERNAME_SQL, Boolean.class, username));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean existsByEmailIgnoreCase(String email) {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(EXISTS_BY_EMAIL_SQL, Boolean.class, email));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean existsByPnr(String pnr) {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(EXISTS_BY_PNR_SQL, Boolean.class, pnr));
+    }
+
+    /**
+     * Allocates person_ids, first from the rest of the current block and then from as many new
+     * blocks as are needed, all read from the sequence in one query. The rest of the last block is
+     * kept for the next allocation. Person_ids below 1, reserved by the first value of a new
+     * sequence, are skipped.
+     *
+     * @param count is the number of person_ids to allocate.
+     * @return the allocated person_ids.
+     */
+    private synchronized long[] allocatePersonIds(int count) {
+        long[] personIds = new long[count];
+        int allocated = 0;
+        while (allocated < count) {
+            if (nextPersonId <= lastPersonId) {
+                personIds[allocated++] = nextPersonId++;
+                continue;
+            }
+            if (blockEnds.isEmpty()) {
+                blockEnds.addAll(jdbcTemplate.queryForList(ALLOCATE_PERSON_ID_BLOCKS_SQL, Long.class, Math.ceilDiv(count - allocated, Person.ID_ALLOCATION_SIZE)));
+            }
+            lastPersonId = blockEnds.remove();
+            nextPersonId = Math.max(1, lastPersonId - Person.ID_ALLOCATION_SIZE + 1);
+        }
+        return personIds;
+    }
+
+    /**
+     * Reads which of the values exist with a query binding all of them as one array parameter.
+     *
+     * @param sql    is the query, selecting the values that exist.
+     * @param values are the values that are being searched for in the database.
+     * @return the subset of the values that exist.
+     */
+    private Set<String> findExisting(String sql, Collection<String> values) {
+        Set<String> existing = new HashSet<>();
+        if (values.isEmpty()) {
+            return existing;
+        }
+        jdbcTemplate.query(sql, ps -> ps.setArray(1, ps.getConnection().createArrayOf("text", values.toArray())), rs -> {
+            existing.add(rs.getString(1));
+        });
+        return existing;
+    }
+}
@@ -0,0 +1,228 @@
+package com.example.applicationstatusservice.security;
+
+import com.example.applicationstatusservice.model.dto.ErrorDTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.web.util.matcher.AntPathRequestMatcher;
+import org.springframework.security.web.util.matcher.OrRequestMatcher;
+import org.springframework.security.web.util.matcher.RequestMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ConcurrencyLimitFilter limits the number of API requests processed at the same time,
+ * sized to the datasource pool so that requests wait for a permit instead of piling up
+ * on the database connections. A request waits for a permit at most the acquire timeout,
+ * which is cheap when requests run on virtual threads. When too many requests are
+ * already waiting, or no permit was acquired in time, the request is rejected with
+ * HTTP 503 and the SERVICE_UNAVAILABLE ErrorDTO. Responses written asynchronously, such as
+ * streamed bodies, keep their permit until the asynchronous processing has completed.
+ * Exports hold a database connection for as long as they stream, so they take their permits
+ * from a separate limit and cannot make the other requests wait for them.
+ */
+@SuppressFBWarnings("EI_EXPOSE_REP2")
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+
+    /**
+     * Logger to log requests rejected by the filter.
+     */
+    private static final Logger logger = LogManager.getLogger(ConcurrencyLimitFilter.class);
+
+    /**
+     * Matches the API requests that are not limited.
+     */
+    private static final RequestMatcher UNLIMITED_REQUESTS = new OrRequestMatcher(
+            new AntPathRequestMatcher("/api/applicant/status-changes"),
+            new AntPathRequestMatcher("/api/applicant/register"),
+            new AntPathRequestMatcher("/api/applicant/*/status", HttpMethod.GET.name()),
+            new AntPathRequestMatcher("/api/applicant/counts", HttpMethod.GET.name()),
+            new AntPathRequestMatcher("/api/applicant/availability", HttpMethod.GET.name()));
+
+    /**
+     * Matches the streamed exports, which are limited separately.
+     */
+    private static final RequestMatcher STREAMED_REQUESTS = new AntPathRequestMatcher("/api/applicant/export", HttpMethod.GET.name());
+
+    /**
+     * The permits of the requests that are currently processed, handed out in arrival order.
+     */
+    private final Semaphore permits;
+
+    /**
+     * The permits of the exports that are currently streamed, handed out in arrival order.
+     */
+    private final Semaphore streamPermits;
+
+    /**
+     * The maximum number of requests waiting for a permit.
+     */
+    private final int maxWaiting;
+
+    /**
+     * The longest time a request waits for a permit, in nanoseconds.
+     */
+    private final long acquireTimeoutNanos;
+
+    /**
+     * ObjectMapper writing the ErrorDTO of rejected requests.
+     */
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Constructor for the ConcurrencyLimitFilter.
+     *
+     * @param maxConcurrentRequests is the number of requests processed at the same time.
+     * @param maxConcurrentStreams  is the number of exports streamed at the same time.
+     * @param maxWaiting            is the maximum number of requests waiting for a permit.
+     * @param acquireTimeout        is the longest time a request waits for a permit.
+     * @param objectMapper          writes the ErrorDTO of rejected requests.
+     */
+    public ConcurrencyLimitFilter(int maxConcurrentRequests, int maxConcurrentStreams, int maxWaiting, Duration acquireTimeout, ObjectMapper objectMapper) {
+        this.permits = new Semaphore(maxConcurrentRequests, true);
+        this.streamPermits = new Semaphore(maxConcurrentStreams, true);
+        this.maxWaiting = maxWaiting;
+        this.acquireTimeoutNanos = acquireTimeout.toNanos();
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Only API requests are limited. Subscriptions to the status change feed stay open for a long
+     * time and only use a database connection while the missed changes are replayed, so they do not hold a permit.
+     * Registrations spend most of their time waiting for their passwords to be hashed, which has back-pressure
+     * of its own, and only use a database connection for the inserts, so they do not hold a permit either.
+     * Reads of the current status, the status counts and the availability are answered from in-memory
+     * caches and counters, and only use a database connection briefly on a cache miss.
+     *
+     * @param request is the current HTTP request.
+     * @return true if the request is not an API request or is matched by UNLIMITED_REQUESTS.
+     */
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getRequestURI().startsWith("/api/") || UNLIMITED_REQUESTS.matches(request);
+    }
+
+    /**
+     * Processes the request once a permit is acquired, or rejects it with HTTP 503.
+     *
+     * @param request     is the current HTTP request.
+     * @param response    is the current HTTP response.
+     * @param filterChain is the remaining filter chain.
+     */
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
+        Semaphore limit = STREAMED_REQUESTS.matches(request) ? streamPermits : permits;
+        if (!acquire(limit)) {
+            logger.warn("The request from IP address: {} was rejected since {} requests are waiting for the database ", request.getRemoteAddr(), limit.getQueueLength());
+            response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            objectMapper.writeValue(response.getOutputStream(), new ErrorDTO("SERVICE_UNAVAILABLE"));
+            return;
+        }
+        boolean releaseNow = true;
+        try {
+            filterChain.doFilter(request, response);
+            if (request.isAsyncStarted()) {
+                request.getAsyncContext().addListener(new PermitReleasingListener(limit));
+                releaseNow = false;
+            }
+        } finally {
+            if (releaseNow) {
+                limit.release();
+            }
+        }
+    }
+
+    /**
+     * Acquires a permit, failing fast when the waiting queue is full.
+     *
+     * @param permits are the permits of the limit of the request.
+     * @return true if a permit was acquired.
+     */
+    private boolean acquire(Semaphore permits) {
+        if (permits.tryAcquire()) {
+            return true;
+        }
+        if (permits.getQueueLength() >= maxWaiting) {
+            return false;
+        }
+        try {
+            return permits.tryAcquire(acquireTimeoutNanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    /**
+     * Releases the permit of a request once its asynchronous processing has completed,
+     * which also follows a timeout or an error.
+     */
+    private static final class PermitReleasingListener implements AsyncListener {
+
+        /**
+         * The permits the permit of the request was taken from.
+         */
+        private final Semaphore permits;
+
+        /**
+         * Constructor for the PermitReleasingListener.
+         *
+         * @param permits are the permits the permit of the request was taken from.
+         */
+        PermitReleasingListener(Semaphore permits) {
+            this.permits = permits;
+        }
+
+        /**
+         * Releases the permit of the request.
+         *
+         * @param event is the completion event.
+         */
+        @Override
+        public void onComplete(AsyncEvent event) {
+            permits.release();
+        }
+
+        /**
+         * Nothing to do, the request completes after the timeout.
+         *
+         * @param event is the timeout event.
+         */
+        @Override
+        public void onTimeout(AsyncEvent event) {
+        }
+
+        /**
+         * Nothing to do, the request completes after the error.
+         *
+         * @param event is the error event.
+         */
+        @Override
+        public void onError(AsyncEvent event) {
+        }
+
+        /**
+         * Nothing to do, the listener stays registered for the new asynchronous cycle.
+         *
+         * @param event is the start event.
+         */
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package com.example.applicationstatusservice.security;
+
+import com.example.applicationstatusservice.model.dto.ErrorDTO;
+import com.example.applicationstatusservice.service.JwtAuthService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.web.util.matcher.AntPathRequestMatcher;
+import org.springframework.security.web.util.matcher.OrRequestMatcher;
+import org.springframework.security.web.util.matcher.RequestMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * JwtAuthenticationFilter authorizes the requests matched by PROTECTED_REQUESTS, the writes and the
+ * recruiter-only reads, inside the security filter chain. Requests without a valid recruiter JWT token
+ * are rejected before the request body is read and before any database work is done.
+ */
+@SuppressFBWarnings("EI_EXPOSE_REP2")
+public class JwtAuthenticationFilter extends OncePerRequestFilter {
+
+    /**
+     * Name of the request attribute set once the JWT token of a request has been authorized.
+     */
+    public static final String AUTHORIZED_ATTRIBUTE = JwtAuthenticationFilter.class.getName() + ".AUTHORIZED";
+
+    /**
+     * Logger to log requests rejected by the filter.
+     */
+    private static final Logger logger = LogManager.getLogger(JwtAuthenticationFilter.class);
+
+    /**
+     * Matches the requests that require a recruiter JWT token.
+     */
+    private static final RequestMatcher PROTECTED_REQUESTS = new OrRequestMatcher(
+            new AntPathRequestMatcher("/api/applicant/**", HttpMethod.POST.name()),
+            new AntPathRequestMatcher("/api/applicant/operations/*", HttpMethod.GET.name()),
+            new AntPathRequestMatcher("/api/applicant/export", HttpMethod.GET.name()),
+            new AntPathRequestMatcher("/api/applicant/counts", HttpMethod.GET.name()),
+            new AntPathRequestMatcher("/api/applicant/availability", HttpMethod.GET.name()),
+            new AntPathRequestMatcher("/api/applicant/status-changes", HttpMethod.GET.name()),
+            new AntPathRequestMatcher("/api/applicant/*/history", HttpMethod.GET.name()));
+
+    /**
+     * An instance of JwtAuthService handling the authentication and authorization of JWT tokens.
+     */
+    private final JwtAuthService jwtAuthService;
+
+    /**
+     * ObjectMapper writing the ErrorDTO of rejected requests.
+     */
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Constructor for the JwtAuthenticationFilter.
+     *
+     * @param jwtAuthService is the service responsible for the authentication and authorization of JWT tokens.
+     * @param objectMapper   writes the ErrorDTO of rejected requests.
+     */
+    public JwtAuthenticationFilter(JwtAuthService jwtAuthService, ObjectMapper objectMapper) {
+        this.jwtAuthService = jwtAuthService;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Every request outside PROTECTED_REQUESTS, which does not need a recruiter JWT token, is skipped.
+     *
+     * @param request is the current HTTP request.
+     * @return true if the request does not require a recruiter JWT token.
+     */
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !PROTECTED_REQUESTS.matches(request);
+    }
+
+    /**
+     * Rejects the request with the UNAUTHORIZED ErrorDTO if the JWT token in the
+     * Authorization header is missing, invalid or does not belong to a recruiter.
+     *
+     * @param request     is the current HTTP request.
+     * @param response    is the current HTTP response.
+     * @param filterChain is the remaining filter chain.
+     */
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
+        String header = request.getHeader("Authorization");
+        if (header == null || !"AUTHORIZED".equals(jwtAuthService.jwtAuth(header))) {
+            logger.warn("The person with IP address: {} has unauthorized access with the provided JWT token ", request.getRemoteAddr());
+            response.setStatus(HttpStatus.BAD_REQUEST.value());
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            objectMapper.writeValue(response.getOutputStream(), new ErrorDTO("UNAUTHORIZED"));
+            return;
+        }
+        request.setAttribute(AUTHORIZED_ATTRIBUTE, Boolean.TRUE);
+        filterChain.doFilter(request, response);
+    }
+}
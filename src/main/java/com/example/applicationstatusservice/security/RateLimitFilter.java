@@ -0,0 +1,175 @@
+package com.example.applicationstatusservice.security;
+
+import com.example.applicationstatusservice.model.dto.ErrorDTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * RateLimitFilter limits the rate of API requests from each IP address with a token bucket,
+ * so that a single client cannot flood the service with requests that are rejected anyway.
+ * It runs before the JWT and concurrency limit filters, so a rejected request costs neither
+ * a token verification nor a database connection. Each request takes one token and a request
+ * finding the bucket empty is rejected with HTTP 429 and the TOO_MANY_REQUESTS ErrorDTO.
+ * A request answered with HTTP 400, the UNAUTHORIZED and INVALID_DATA responses, takes the
+ * penalty in tokens as well, so clients repeating bad requests run out of tokens faster.
+ * The buckets are kept in a bounded cache and evicted once their client has been idle for the idle timeout.
+ */
+@SuppressFBWarnings("EI_EXPOSE_REP2")
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    /**
+     * Logger to log requests rejected by the filter.
+     */
+    private static final Logger logger = LogManager.getLogger(RateLimitFilter.class);
+
+    /**
+     * The time it takes to refill one token, in nanoseconds.
+     */
+    private final long refillNanos;
+
+    /**
+     * The time it takes to refill the whole bucket, in nanoseconds.
+     */
+    private final long capacityNanos;
+
+    /**
+     * The extra tokens taken by a request answered with HTTP 400.
+     */
+    private final long penalty;
+
+    /**
+     * The token buckets of the clients, keyed by IP address.
+     */
+    private final Cache<String, TokenBucket> buckets;
+
+    /**
+     * Counter of the requests rejected by the filter.
+     */
+    private final Counter rejectedCounter;
+
+    /**
+     * ObjectMapper writing the ErrorDTO of rejected requests.
+     */
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Constructor for the RateLimitFilter.
+     *
+     * @param requestsPerSecond is the number of tokens refilled each second.
+     * @param capacity          is the number of tokens of a full bucket, the largest burst of requests.
+     * @param penalty           is the number of extra tokens taken by a request answered with HTTP 400.
+     * @param maxClients        is the maximum number of buckets kept at a time.
+     * @param idleTimeout       is the time after which the bucket of an idle client is evicted.
+     * @param objectMapper      writes the ErrorDTO of rejected requests.
+     * @param meterRegistry     registers the metrics of the rejections and of the buckets.
+     */
+    public RateLimitFilter(double requestsPerSecond, long capacity, long penalty, long maxClients, Duration idleTimeout, ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.refillNanos = Math.max(1, (long) (TimeUnit.SECONDS.toNanos(1) / requestsPerSecond));
+        this.capacityNanos = capacity * refillNanos;
+        this.penalty = penalty;
+        this.buckets = Caffeine.newBuilder().maximumSize(maxClients).expireAfterAccess(idleTimeout).recordStats().build();
+        this.rejectedCounter = Counter.builder("application.status.rate.limited").description("Requests rejected by the rate limit of their IP address").register(meterRegistry);
+        this.objectMapper = objectMapper;
+        CaffeineCacheMetrics.monitor(meterRegistry, buckets, "rate.limit.buckets");
+    }
+
+    /**
+     * Only API requests are limited.
+     *
+     * @param request is the current HTTP request.
+     * @return true if the request is not an API request.
+     */
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getRequestURI().startsWith("/api/");
+    }
+
+    /**
+     * Processes the request if the bucket of its IP address has a token, or rejects it with HTTP 429.
+     *
+     * @param request     is the current HTTP request.
+     * @param response    is the current HTTP response.
+     * @param filterChain is the remaining filter chain.
+     */
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
+        String address = request.getRemoteAddr();
+        TokenBucket bucket = buckets.get(address, key -> new TokenBucket());
+        long waitNanos = bucket.tryTake(System.nanoTime());
+        if (waitNanos > 0) {
+            logger.warn("The request from IP address: {} was rejected since it exceeded the rate limit ", address);
+            rejectedCounter.increment();
+            response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(Math.ceilDiv(waitNanos, TimeUnit.SECONDS.toNanos(1))));
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            objectMapper.writeValue(response.getOutputStream(), new ErrorDTO("TOO_MANY_REQUESTS"));
+            return;
+        }
+        filterChain.doFilter(request, response);
+        if (penalty > 0 && response.getStatus() == HttpStatus.BAD_REQUEST.value()) {
+            bucket.takePenalty(System.nanoTime());
+        }
+    }
+
+    /**
+     * TokenBucket is the lock-free token bucket of one client. Instead of a number of tokens it
+     * keeps the time at which the bucket is full again, so taking a token is a single
+     * compare-and-set of that time and refilling needs no background work.
+     */
+    private final class TokenBucket {
+
+        /**
+         * The System.nanoTime() at which the bucket is full again, in the past if it is full.
+         */
+        private final AtomicLong fullAt = new AtomicLong(Long.MIN_VALUE);
+
+        /**
+         * Takes one token if the bucket has one.
+         *
+         * @param now is the current System.nanoTime().
+         * @return 0 if a token was taken, otherwise the time until the next token is refilled, in nanoseconds.
+         */
+        long tryTake(long now) {
+            while (true) {
+                long current = fullAt.get();
+                long next = Math.max(current, now) + refillNanos;
+                long excess = next - now - capacityNanos;
+                if (excess > 0) {
+                    return excess;
+                }
+                if (fullAt.compareAndSet(current, next)) {
+                    return 0;
+                }
+            }
+        }
+
+        /**
+         * Takes the penalty tokens of a bad request, leaving the bucket in debt if it has fewer.
+         *
+         * @param now is the current System.nanoTime().
+         */
+        void takePenalty(long now) {
+            fullAt.accumulateAndGet(now, (current, time) -> Math.max(current, time) + penalty * refillNanos);
+        }
+    }
+}
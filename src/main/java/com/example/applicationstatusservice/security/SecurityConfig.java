@@ -1,11 +1,18 @@
 package com.example.applicationstatusservice.security;
 
+import com.example.applicationstatusservice.service.JwtAuthService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
+
+import java.time.Duration;
 
 
 /**
@@ -16,14 +23,42 @@ import org.springframework.security.web.SecurityFilterChain;
 public class SecurityConfig {
 
     /**
-     * @param http is the HttpSecurity that will be configured.
+     * @param http                  is the HttpSecurity that will be configured.
+     * @param jwtAuthService        is the service responsible for the authentication and authorization of JWT tokens.
+     * @param objectMapper          writes the ErrorDTO of requests rejected by the rate limit, JWT and concurrency limit filters.
+     * @param meterRegistry         registers the metrics of the rate limit.
+     * @param rateLimitEnabled      is true if the API requests of each IP address are rate-limited.
+     * @param requestsPerSecond     is the number of API requests each IP address may make per second.
+     * @param burst                 is the number of API requests an IP address may make at once.
+     * @param penalty               is the number of extra requests a request answered with HTTP 400 counts as.
+     * @param maxClients            is the maximum number of IP addresses rate-limited at a time.
+     * @param idleTimeout           is the time after which the rate limit of an idle IP address is forgotten.
+     * @param maxConcurrentRequests is the number of API requests processed at the same time, sized to the datasource pool.
+     * @param maxConcurrentStreams  is the number of exports streamed at the same time.
+     * @param maxWaiting            is the maximum number of API requests waiting to be processed.
+     * @param acquireTimeout        is the longest time an API request waits to be processed.
      * @return The configured filter chain.
      * @throws Exception thrown if an error occurs during the
      *                   SecurityFilterChain configuration.
      */
     @Bean
-    public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
-        http.csrf(AbstractHttpConfigurer::disable).authorizeHttpRequests(requests -> requests.requestMatchers("/api/applicant", "/error", "/api/test").permitAll());
+    public SecurityFilterChain filterChain(HttpSecurity http, JwtAuthService jwtAuthService, ObjectMapper objectMapper, MeterRegistry meterRegistry,
+                                           @Value("${application-status.rate-limit.enabled:true}") boolean rateLimitEnabled,
+                                           @Value("${application-status.rate-limit.requests-per-second:20}") double requestsPerSecond,
+                                           @Value("${application-status.rate-limit.burst:40}") long burst,
+                                           @Value("${application-status.rate-limit.penalty:4}") long penalty,
+                                           @Value("${application-status.rate-limit.max-clients:100000}") long maxClients,
+                                           @Value("${application-status.rate-limit.idle-timeout:PT10M}") Duration idleTimeout,
+                                           @Value("${application-status.concurrency.max-concurrent-requests:1}") int maxConcurrentRequests,
+                                           @Value("${application-status.concurrency.max-concurrent-streams:1}") int maxConcurrentStreams,
+                                           @Value("${application-status.concurrency.max-waiting:200}") int maxWaiting,
+                                           @Value("${application-status.concurrency.acquire-timeout:PT2S}") Duration acquireTimeout) throws Exception {
+        http.csrf(AbstractHttpConfigurer::disable).authorizeHttpRequests(requests -> requests.requestMatchers("/api/applicant", "/api/applicant/batch", "/api/applicant/register", "/api/applicant/statuses", "/api/applicant/export", "/api/applicant/import", "/api/applicant/counts", "/api/applicant/availability", "/api/applicant/status-changes", "/api/applicant/operations/*", "/api/applicant/*/status", "/api/applicant/*/history", "/error", "/api/test", "/actuator/health", "/actuator/prometheus").permitAll());
+        http.addFilterBefore(new JwtAuthenticationFilter(jwtAuthService, objectMapper), UsernamePasswordAuthenticationFilter.class);
+        if (rateLimitEnabled) {
+            http.addFilterBefore(new RateLimitFilter(requestsPerSecond, burst, penalty, maxClients, idleTimeout, objectMapper, meterRegistry), JwtAuthenticationFilter.class);
+        }
+        http.addFilterAfter(new ConcurrencyLimitFilter(maxConcurrentRequests, maxConcurrentStreams, maxWaiting, acquireTimeout, objectMapper), JwtAuthenticationFilter.class);
         return http.build();
     }
 }
@@ -0,0 +1,116 @@
+package com.example.applicationstatusservice.service;
+
+import com.example.applicationstatusservice.model.dto.CurrentStatusDTO;
+import com.example.applicationstatusservice.repository.ApplicationStatusRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * ApplicationStatusCache is a bounded in-process cache of the current status of each
+ * application, so that applicants polling their status are answered from memory.
+ * Persons without an application status are cached as well. Entries are invalidated when a
+ * new status is written and again once the writing transaction has committed. A load running
+ * concurrently with an invalidation completes before the entry is removed, so a status read
+ * before the commit cannot stay in the cache. The time to live only bounds the staleness of
+ * writes made by other services.
+ */
+@Service
+public class ApplicationStatusCache {
+
+    /**
+     * An instance of applicationStatusRepository used for data access in the Application_status table.
+     */
+    private final ApplicationStatusRepository applicationStatusRepository;
+
+    /**
+     * The cached current status of each person_id, empty if the person has no application status.
+     */
+    private final Cache<Long, Optional<CurrentStatusDTO>> currentStatuses;
+
+    /**
+     * Constructor for the ApplicationStatusCache class.
+     * {@code @Autowired} provides automatic dependency injection.
+     *
+     * @param applicationStatusRepository handles data retrieval operations in the Application_status table.
+     * @param meterRegistry               registers the metrics of the cache.
+     * @param maxSize                     is the maximum number of cached statuses.
+     * @param ttl                         is the longest time a status is cached.
+     */
+    @Autowired
+    public ApplicationStatusCache(ApplicationStatusRepository applicationStatusRepository, MeterRegistry meterRegistry,
+                                  @Value("${application-status.status-cache.max-size:100000}") long maxSize,
+                                  @Value("${application-status.status-cache.ttl:PT10M}") Duration ttl) {
+        this.applicationStatusRepository = applicationStatusRepository;
+        this.currentStatuses = Caffeine.newBuilder().maximumSize(maxSize).expireAfterWrite(ttl).recordStats().build();
+        CaffeineCacheMetrics.monitor(meterRegistry, currentStatuses, "application.statuses");
+    }
+
+    /**
+     * Returns the current status of an application, reading it from the database only on a cache miss.
+     *
+     * @param personId is the person_id of the application.
+     * @return the current status, or null if the person has no application status.
+     */
+    public CurrentStatusDTO getCurrentStatus(long personId) {
+        return currentStatuses.get(personId, applicationStatusRepository::findCurrentStatus).orElse(null);
+    }
+
+    /**
+     * Invalidates the cached status of an application.
+     *
+     * @param personId is the person_id of the application.
+     */
+    public void invalidate(Long personId) {
+        invalidate(List.of(personId));
+    }
+
+    /**
+     * Invalidates the cached statuses of applications right away, so that the writing transaction
+     * reads its own writes, and again once the transaction has committed, to drop the statuses
+     * other requests have read and cached in the meantime.
+     *
+     * @param personIds are the person_ids of the applications.
+     */
+    public void invalidate(Collection<Long> personIds) {
+        List<Long> invalidated = List.copyOf(personIds);
+        currentStatuses.invalidateAll(invalidated);
+        afterCommit(() -> currentStatuses.invalidateAll(invalidated));
+    }
+
+    /**
+     * Invalidates all cached statuses right away and again once the writing transaction has
+     * committed, for writes touching too many applications to invalidate them one by one.
+     */
+    public void invalidateAll() {
+        currentStatuses.invalidateAll();
+        afterCommit(currentStatuses::invalidateAll);
+    }
+
+    /**
+     * Runs an invalidation once the current transaction has committed, if there is one.
+     *
+     * @param invalidation is the invalidation to run.
+     */
+    private static void afterCommit(Runnable invalidation) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    invalidation.run();
+                }
+            });
+        }
+    }
+}
@@ -1,16 +1,31 @@
 package com.example.applicationstatusservice.service;
 
-import com.example.applicationstatusservice.model.ApplicationStatus;
-import com.example.applicationstatusservice.model.Person;
+import com.example.applicationstatusservice.model.Status;
 import com.example.applicationstatusservice.model.dto.ApplicationStatusDTO;
+import com.example.applicationstatusservice.model.dto.ApplicationStatusResultDTO;
+import com.example.applicationstatusservice.model.dto.CurrentStatusDTO;
 import com.example.applicationstatusservice.repository.ApplicationStatusRepository;
 import com.example.applicationstatusservice.repository.PersonRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+
 /**
  * ApplicationStatusService is a service class meant to handle the business-logic
  * specific to status-related operations.
@@ -32,6 +47,57 @@ public class ApplicationStatusService {
      */
     private final PersonRepository personRepository;
 
+    /**
+     * An in-memory index answering person_id validation without querying the database for unknown ids.
+     */
+    private final PersonExistenceIndex personExistenceIndex;
+
+    /**
+     * The in-process cache of the current status of each application.
+     */
+    private final ApplicationStatusCache applicationStatusCache;
+
+    /**
+     * The in-memory counters of the number of applications with each status.
+     */
+    private final StatusCountService statusCountService;
+
+    /**
+     * The maximum number of items accepted in one batch of status updates.
+     */
+    private final int maxBatchSize;
+
+    /**
+     * Timer of the person_id validations. The meters are registered once so that recording only reads the clock.
+     * Status validations are only counted, since timing them would cost more than the enum lookup itself.
+     */
+    private final Timer personIdValidationTimer;
+
+    /**
+     * Timer of the upserts of single status updates.
+     */
+    private final Timer upsertTimer;
+
+    /**
+     * Timer of the upserts of batches of status updates.
+     */
+    private final Timer batchUpsertTimer;
+
+    /**
+     * Counter of the rejected status updates and batch items.
+     */
+    private final Counter invalidDataCounter;
+
+    /**
+     * Counter of the conditional status updates rejected since the application did not have the expected status or version.
+     */
+    private final Counter conflictCounter;
+
+    /**
+     * Counter of the written status updates and batch items.
+     */
+    private final Counter okCounter;
+
     /**
      * Constructor for the ApplicationStatusService class.
      * {@code @Autowired} provides automatic dependency injection.
@@ -40,55 +106,197 @@ public class ApplicationStatusService {
      *                                    operations in the Application_status table.
      * @param personRepository            handles handles data retrieval/modification operations
      *                                    in the Person table.
+     * @param personExistenceIndex        answers person_id validation without querying the database for unknown ids.
+     * @param applicationStatusCache      caches the current status of each application.
+     * @param statusCountService          counts the applications with each status.
+     * @param maxBatchSize                is the maximum number of items accepted in one batch.
+     * @param meterRegistry               registers the metrics of the validation and persistence stages.
      */
     @Autowired
-    public ApplicationStatusService(ApplicationStatusRepository applicationStatusRepository, PersonRepository personRepository) {
+    public ApplicationStatusService(ApplicationStatusRepository applicationStatusRepository, PersonRepository personRepository, PersonExistenceIndex personExistenceIndex,
+                                    ApplicationStatusCache applicationStatusCache, StatusCountService statusCountService, @Value("${application-status.batch.max-size:5000}") int maxBatchSize, MeterRegistry meterRegistry) {
         this.applicationStatusRepository = applicationStatusRepository;
         this.personRepository = personRepository;
+        this.personExistenceIndex = personExistenceIndex;
+        this.applicationStatusCache = applicationStatusCache;
+        this.statusCountService = statusCountService;
+        this.maxBatchSize = maxBatchSize;
+        this.personIdValidationTimer = Timer.builder("application.status.validation").tag("stage", "person_id").description("Time spent validating status updates").register(meterRegistry);
+        this.upsertTimer = Timer.builder("application.status.upsert").tag("mode", "single").description("Time spent writing statuses to the database").register(meterRegistry);
+        this.batchUpsertTimer = Timer.builder("application.status.upsert").tag("mode", "batch").description("Time spent writing statuses to the database").register(meterRegistry);
+        this.invalidDataCounter = Counter.builder("application.status.results").tag("result", "INVALID_DATA").description("Results of the validation stages").register(meterRegistry);
+        this.conflictCounter = Counter.builder("application.status.results").tag("result", "CONFLICT").description("Results of the validation stages").register(meterRegistry);
+        this.okCounter = Counter.builder("application.status.results").tag("result", "OK").description("Results of the validation stages").register(meterRegistry);
     }
 
     /**
      * Method for either inserting a status for an application or
-     * updating a previously set status of an application.
+     * updating a previously set status of an application. The status is written
+     * with one atomic upsert statement against the unique person_id, so concurrent
+     * updates for the same person can never create duplicate rows. The statement returns the
+     * previous status, so the status counters are updated without another query.
+     * An update carrying an expected status or version is instead applied with one conditional
+     * update statement, and only if the application still has the expected status and version,
+     * so that concurrent updates based on the same status cannot overwrite each other.
      * {@code @Transactional} ensures application is saved to the
      * database only if the transaction is successful.
      *
      * @param applicationStatusDTO Data transfer object
      *                             representing status for an application.
+     * @param actor                is the user setting the status, recorded in the status history.
+     * @return a response string, CREATED if a new application status was inserted,
+     * UPDATED if a previously set status was overwritten, CONFLICT if the application does not have the
+     * expected status or version, or INVALID_DATA if the status or the expected status is not valid.
      */
     @Transactional
-    public void updateApplicationStatus(ApplicationStatusDTO applicationStatusDTO) {
-        Long personId = applicationStatusDTO.getPerson_id();
-        String status = applicationStatusDTO.getStatus();
-
-        Person person = personRepository.findById(personId).orElse(null);
-        ApplicationStatus checkApplicationStatus = applicationStatusRepository.findByPerson(person);
-        if (checkApplicationStatus != null) {
-            checkApplicationStatus.setStatus(status);
-            applicationStatusRepository.save(checkApplicationStatus);
-            logger.debug("The status of the application for person Id: {} has been updated to status: {} ", applicationStatusDTO.getPerson_id(), applicationStatusDTO.getStatus());
-        } else if (person != null) {
-            ApplicationStatus applicationStatus = ApplicationStatus.builder().person(person).status(applicationStatusDTO.getStatus()).build();
-            applicationStatusRepository.save(applicationStatus);
+    public String updateApplicationStatus(ApplicationStatusDTO applicationStatusDTO, String actor) {
+        Status status = Status.fromValue(applicationStatusDTO.getStatus());
+        if (status == null) {
+            logger.debug("The status: {} for person Id: {} is not valid ", applicationStatusDTO.getStatus(), applicationStatusDTO.getPerson_id());
+            invalidDataCounter.increment();
+            return "INVALID_DATA";
+        }
+        Status expectedStatus = Status.fromValue(applicationStatusDTO.getExpected_status());
+        if (applicationStatusDTO.getExpected_status() != null && expectedStatus == null) {
+            logger.debug("The expected status: {} for person Id: {} is not valid ", applicationStatusDTO.getExpected_status(), applicationStatusDTO.getPerson_id());
+            invalidDataCounter.increment();
+            return "INVALID_DATA";
+        }
+        long start = System.nanoTime();
+        Status previousStatus;
+        if (applicationStatusDTO.isConditional()) {
+            try {
+                previousStatus = applicationStatusRepository.compareAndSetStatus(applicationStatusDTO.getPerson_id(), expectedStatus, applicationStatusDTO.getExpected_version(), status, actor);
+            } catch (OptimisticLockingFailureException e) {
+                logger.debug("The status of the application for person Id: {} was not updated: {} ", applicationStatusDTO.getPerson_id(), e.getMessage());
+                conflictCounter.increment();
+                return "CONFLICT";
+            } finally {
+                upsertTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            }
+        } else {
+            previousStatus = applicationStatusRepository.upsertStatus(applicationStatusDTO.getPerson_id(), status, actor);
+            upsertTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+        applicationStatusCache.invalidate(applicationStatusDTO.getPerson_id());
+        statusCountService.recordChange(previousStatus, status);
+        okCounter.increment();
+        if (previousStatus == null) {
             logger.debug("A new application status for person Id: {} has been set to status: {} ", applicationStatusDTO.getPerson_id(), applicationStatusDTO.getStatus());
+            return "CREATED";
         }
+        logger.debug("The status of the application for person Id: {} has been updated to status: {} ", applicationStatusDTO.getPerson_id(), applicationStatusDTO.getStatus());
+        return "UPDATED";
+    }
+
+    /**
+     * Method for inserting or updating the status of many applications at once.
+     * All person_ids are checked with one set-based query and every valid item is
+     * written with JDBC-batched upserts. If the same person_id occurs several times
+     * the last occurrence wins. Items carrying an expected status or version are rejected,
+     * since the batched upserts cannot apply them conditionally.
+     * {@code @Transactional} ensures the statuses are saved to the
+     * database only if the transaction is successful.
+     *
+     * @param applicationStatusDTOs Data transfer objects
+     *                              representing statuses for many applications.
+     * @param actor                 is the user setting the statuses, recorded in the status history.
+     * @return a result for each item, in the order the items were received.
+     */
+    @Transactional
+    public List<ApplicationStatusResultDTO> updateApplicationStatuses(List<ApplicationStatusDTO> applicationStatusDTOs, String actor) {
+        if (applicationStatusDTOs.isEmpty()) {
+            return List.of();
+        }
+        List<Long> candidatePersonIds = applicationStatusDTOs.stream().map(ApplicationStatusDTO::getPerson_id).filter(personId -> personId != null && !personExistenceIndex.isDefinitelyAbsent(personId)).distinct().toList();
+        Set<Long> existingPersonIds = candidatePersonIds.isEmpty() ? Set.of() : personRepository.findExistingPersonIds(candidatePersonIds);
+
+        List<ApplicationStatusResultDTO> results = new ArrayList<>(applicationStatusDTOs.size());
+        Map<Long, Status> statusByPersonId = new LinkedHashMap<>();
+        int invalidItems = 0;
+        for (ApplicationStatusDTO applicationStatusDTO : applicationStatusDTOs) {
+            Long personId = applicationStatusDTO.getPerson_id();
+            Status status = Status.fromValue(applicationStatusDTO.getStatus());
+            if (status == null || applicationStatusDTO.isConditional() || !existingPersonIds.contains(personId)) {
+                results.add(new ApplicationStatusResultDTO(personId, applicationStatusDTO.getStatus(), "INVALID_DATA"));
+                invalidItems++;
+                continue;
+            }
+            statusByPersonId.put(personId, status);
+            results.add(new ApplicationStatusResultDTO(personId, applicationStatusDTO.getStatus(), "OK"));
+        }
+
+        long start = System.nanoTime();
+        Map<Status, Long> countChanges = applicationStatusRepository.batchUpsertStatuses(statusByPersonId, actor);
+        batchUpsertTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        applicationStatusCache.invalidate(statusByPersonId.keySet());
+        statusCountService.recordChanges(countChanges);
+        okCounter.increment(results.size() - invalidItems);
+        invalidDataCounter.increment(invalidItems);
+        logger.debug("The status of {} applications has been set in a batch of {} items ", statusByPersonId.size(), applicationStatusDTOs.size());
+        return results;
+    }
+
+    /**
+     * Method returning the current status of an application, answered from the
+     * in-process cache when the status has been read before.
+     *
+     * @param personId is the person_id of the application.
+     * @return the current status, or null if the person has no application status.
+     */
+    public CurrentStatusDTO getCurrentStatus(long personId) {
+        return applicationStatusCache.getCurrentStatus(personId);
+    }
+
+    /**
+     * Method reading the current status of many applications with a single query and handing
+     * each one to the consumer as it is read, without collecting them first. Persons without
+     * an application status are skipped.
+     *
+     * @param personIds      are the person_ids of the applications.
+     * @param statusConsumer receives the person_id and the status of each application.
+     */
+    public void forEachCurrentStatus(Collection<Long> personIds, BiConsumer<Long, String> statusConsumer) {
+        if (personIds.isEmpty()) {
+            return;
+        }
+        applicationStatusRepository.forEachCurrentStatus(personIds, (personId, status) -> statusConsumer.accept(personId, status.getValue()));
+    }
+
+    /**
+     * Method to check if the number of items in a batch of status updates is within the allowed limit.
+     *
+     * @param batchSize is the number of items in the batch.
+     * @return a response string indicating either a valid or an invalid batch size.
+     */
+    public String isBatchSizeValid(int batchSize) {
+        logger.debug("Check to see if batch size: {} is valid", batchSize);
+        if (batchSize <= maxBatchSize) {
+            return "VALID_DATA";
+        }
+        invalidDataCounter.increment();
+        return "INVALID_DATA";
     }
 
     /**
      * Method to check id a person entity exists based on a person_id received in
-     * the ApplicationStatusDTO.
+     * the ApplicationStatusDTO. Person_ids ruled out by the person existence index
+     * are rejected without querying the database.
      *
      * @param personId is the person_id provided as parameter.
      * @return a response string indicating either a valid or an invalid person_id.
      */
     public String isPersonIdValid(Long personId) {
-        boolean isPersonIdValid = personRepository.existsById(personId);
+        long start = System.nanoTime();
+        boolean isPersonIdValid = personId != null && personExistenceIndex.exists(personId);
+        personIdValidationTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
         logger.debug("Check if person Id: {} exists: {} ", personId, isPersonIdValid);
         if (isPersonIdValid) {
             logger.debug("Person Id: {} exists ", personId);
             return "VALID_DATA";
         }
         logger.debug("Person Id: {} does not exists ", personId);
+        invalidDataCounter.increment();
         return "INVALID_DATA";
     }
 
@@ -101,9 +309,10 @@ public class ApplicationStatusService {
      */
     public String isStatusValid(String status) {
         logger.debug("Check to see if status: {} is valid", status);
-        return switch (status) {
-            case "Accept", "Reject", "Pending" -> "VALID_DATA";
-            default -> "INVALID_DATA";
-        };
+        if (Status.fromValue(status) != null) {
+            return "VALID_DATA";
+        }
+        invalidDataCounter.increment();
+        return "INVALID_DATA";
     }
 }
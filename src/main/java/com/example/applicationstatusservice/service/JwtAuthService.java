@@ -1,24 +1,39 @@
 package com.example.applicationstatusservice.service;
 
-import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.Claims;
-import io.jsonwebtoken.Jws;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import javax.crypto.spec.SecretKeySpec;
+import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
 
 /**
  * JwtAuthService is a service class meant to handle the logic
  * for authentication and authorization of JWT tokens.
+ * The signing key and the parser are built once, and the claims of verified tokens are
+ * cached by the SHA-256 digest of the token until the token expires, so that a recruiter
+ * reusing the same token does not pay for the signature check on every request.
  */
 @Service
-@SuppressFBWarnings("DM_DEFAULT_ENCODING")
 public class JwtAuthService {
 
     /**
@@ -27,10 +42,61 @@ public class JwtAuthService {
     private static final Logger logger = LogManager.getLogger(JwtAuthService.class);
 
     /**
-     * Config variable JWT secret from Heroku.
+     * The key used to verify and sign JWT tokens, built from the JWT secret.
      */
-    @Value("${JWT_SECRET:FKi2FTPuzT6XzXZnDjR4Z2X5Uu2+C3yNq3BgtHJvd4g=}")
-    private String JWT_SECRET;
+    private final SecretKeySpec secretKey;
+
+    /**
+     * The thread-safe parser verifying the signature of JWT tokens.
+     */
+    private final JwtParser jwtParser;
+
+    /**
+     * Bounded cache of the claims of verified tokens keyed by the digest of the token.
+     * Each entry is evicted when its token expires, or after the maximum time to live.
+     * Null when the cache is disabled.
+     */
+    private final Cache<ByteBuffer, Claims> verifiedTokens;
+
+    /**
+     * Timer of the JWT verifications, registered once so that recording only reads the clock.
+     */
+    private final Timer verificationTimer;
+
+    /**
+     * Counter of the requests with an authorized JWT token.
+     */
+    private final Counter authorizedCounter;
+
+    /**
+     * Counter of the requests with an unauthorized JWT token.
+     */
+    private final Counter unauthorizedCounter;
+
+    /**
+     * Constructor for the JwtAuthService class.
+     * {@code @Autowired} provides automatic dependency injection.
+     *
+     * @param jwtSecret     is the config variable JWT secret from Heroku.
+     * @param cacheMaxSize  is the maximum number of verified tokens kept in the cache, 0 disables the cache.
+     * @param cacheMaxTtl   is the longest time a verified token is cached, used for tokens without expiration.
+     * @param meterRegistry registers the metrics of the JWT verifications and of the cache.
+     */
+    @Autowired
+    public JwtAuthService(@Value("${JWT_SECRET:FKi2FTPuzT6XzXZnDjR4Z2X5Uu2+C3yNq3BgtHJvd4g=}") String jwtSecret,
+                          @Value("${application-status.jwt.cache.max-size:10000}") long cacheMaxSize,
+                          @Value("${application-status.jwt.cache.max-ttl:PT15M}") Duration cacheMaxTtl,
+                          MeterRegistry meterRegistry) {
+        this.secretKey = new SecretKeySpec(jwtSecret.getBytes(StandardCharsets.UTF_8), SignatureAlgorithm.HS256.getJcaName());
+        this.jwtParser = Jwts.parserBuilder().setSigningKey(secretKey).build();
+        this.verifiedTokens = cacheMaxSize > 0 ? Caffeine.newBuilder().maximumSize(cacheMaxSize).expireAfter(new TokenExpiry(cacheMaxTtl)).recordStats().build() : null;
+        this.verificationTimer = Timer.builder("application.status.jwt.verification").description("Time spent authorizing JWT tokens").register(meterRegistry);
+        this.authorizedCounter = Counter.builder("application.status.results").tag("result", "AUTHORIZED").description("Results of the validation stages").register(meterRegistry);
+        this.unauthorizedCounter = Counter.builder("application.status.results").tag("result", "UNAUTHORIZED").description("Results of the validation stages").register(meterRegistry);
+        if (verifiedTokens != null) {
+            CaffeineCacheMetrics.monitor(meterRegistry, verifiedTokens, "jwt.tokens");
+        }
+    }
 
     /**
      * Method for  authentication and authorization of JWT tokens.
@@ -40,34 +106,141 @@ public class JwtAuthService {
      * UNAUTHORIZED for when decoding failed or role value was not 1.
      */
     public String jwtAuth(String header) {
+        long start = System.nanoTime();
+        Claims claims = verifiedClaims(header);
+        Integer roleValue = claims == null ? null : claims.get("role", Integer.class);
+        return record(start, roleValue != null && roleValue.equals(1));
+    }
+
+    /**
+     * Method for authentication and authorization of JWT tokens reading the application
+     * status of a person. Recruiters may read the status of any person and applicants
+     * only their own, identified by the id claim of the token.
+     *
+     * @param header   contains the encoded JWT token.
+     * @param personId is the person_id of the application that is read.
+     * @return Response strings: AUTHORIZED for when the decoding and validation are successful and
+     * the token belongs to a recruiter or to the applicant with the person_id, otherwise UNAUTHORIZED.
+     */
+    public String jwtAuthStatusRead(String header, long personId) {
+        long start = System.nanoTime();
+        Claims claims = verifiedClaims(header);
+        Integer roleValue = claims == null ? null : claims.get("role", Integer.class);
+        if (roleValue != null && roleValue.equals(2)) {
+            Long id = claims.get("id", Long.class);
+            return record(start, id != null && id == personId);
+        }
+        return record(start, roleValue != null && roleValue.equals(1));
+    }
+
+    /**
+     * Method returning the user a JWT token was issued to, recorded as the actor of the status
+     * changes made with it. The claims of an already authorized token are read from the cache.
+     *
+     * @param header contains the encoded JWT token.
+     * @return the username claim of the token, or null if the token could not be verified.
+     */
+    public String jwtActor(String header) {
+        Claims claims = verifiedClaims(header);
+        return claims == null ? null : claims.get("username", String.class);
+    }
+
+    /**
+     * Verifies the JWT token in the header.
+     *
+     * @param header contains the encoded JWT token.
+     * @return the claims of the token, or null if the token could not be verified.
+     */
+    private Claims verifiedClaims(String header) {
         String jwtToken = header.replace("Bearer ", "");
         logger.debug("Currently processed JWT token: {} ", jwtToken);
-        SecretKeySpec secKey = new SecretKeySpec(JWT_SECRET.getBytes(StandardCharsets.UTF_8), SignatureAlgorithm.HS256.getJcaName());
         try {
-            Jws<Claims> parseJwtClaims = Jwts.parserBuilder().setSigningKey(secKey).build().parseClaimsJws(jwtToken);
-            Claims claims = parseJwtClaims.getBody();
-            Integer roleValue = claims.get("role", Integer.class);
-            if (roleValue != null && roleValue.equals(1)) {
-                logger.debug("Authorized user");
-                return "AUTHORIZED";
-            } else {
-                logger.debug("Unauthorized user");
-                return "UNAUTHORIZED";
-            }
+            return verify(jwtToken);
         } catch (Exception e) {
             logger.debug("Exception caused in jwtAuth method: {} ", e.getMessage());
-            return "UNAUTHORIZED";
+            return null;
         }
     }
 
+    /**
+     * Records the duration and the result of an authorization.
+     *
+     * @param start      is the System.nanoTime() when the authorization started.
+     * @param authorized is true if the token was authorized.
+     * @return AUTHORIZED or UNAUTHORIZED.
+     */
+    private String record(long start, boolean authorized) {
+        verificationTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        if (authorized) {
+            logger.debug("Authorized user");
+            authorizedCounter.increment();
+            return "AUTHORIZED";
+        }
+        logger.debug("Unauthorized user");
+        unauthorizedCounter.increment();
+        return "UNAUTHORIZED";
+    }
+
+    /**
+     * Returns the claims of a JWT token, verifying its signature only if the
+     * token is not found in the cache of verified tokens.
+     *
+     * @param jwtToken is the encoded JWT token.
+     * @return the claims of the verified token.
+     * @throws io.jsonwebtoken.JwtException if the token is malformed, expired or wrongly signed.
+     */
+    private Claims verify(String jwtToken) {
+        if (verifiedTokens == null) {
+            return jwtParser.parseClaimsJws(jwtToken).getBody();
+        }
+        ByteBuffer tokenDigest = ByteBuffer.wrap(digest(jwtToken));
+        Claims claims = verifiedTokens.getIfPresent(tokenDigest);
+        if (claims == null) {
+            claims = jwtParser.parseClaimsJws(jwtToken).getBody();
+            verifiedTokens.put(tokenDigest, claims);
+        }
+        return claims;
+    }
+
+    /**
+     * Computes the SHA-256 digest of a token, so that the cache does not retain the tokens themselves.
+     *
+     * @param jwtToken is the encoded JWT token.
+     * @return the digest of the token.
+     */
+    private static byte[] digest(String jwtToken) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(jwtToken.getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not supported", e);
+        }
+    }
+
+    /**
+     * Returns the number of token verifications answered by the cache.
+     *
+     * @return the number of cache hits.
+     */
+    public long getCacheHitCount() {
+        return verifiedTokens == null ? 0 : verifiedTokens.stats().hitCount();
+    }
+
+    /**
+     * Returns the number of token verifications that required a signature check.
+     *
+     * @return the number of cache misses.
+     */
+    public long getCacheMissCount() {
+        return verifiedTokens == null ? 0 : verifiedTokens.stats().missCount();
+    }
+
     /**
      * Creates JWT tokens to use during integration testing with recruiter role.
      *
      * @return JWT tokens encoded using HS256 algorithm.
      */
     public String jwtCreateTestTokensRecruiter() {
-        SecretKeySpec keyTest = new SecretKeySpec(JWT_SECRET.getBytes(), SignatureAlgorithm.HS256.getJcaName());
-        return Jwts.builder().claim("usage", "login").claim("id", 5).claim("username", "MaxwellBailey").claim("role", 1).signWith(keyTest).compact();
+        return Jwts.builder().claim("usage", "login").claim("id", 5).claim("username", "MaxwellBailey").claim("role", 1).signWith(secretKey).compact();
     }
 
     /**
@@ -76,7 +249,54 @@ public class JwtAuthService {
      * @return JWT tokens encoded using HS256 algorithm.
      */
     public String jwtCreateTestTokensApplicant() {
-        SecretKeySpec keyTest = new SecretKeySpec(JWT_SECRET.getBytes(), SignatureAlgorithm.HS256.getJcaName());
-        return Jwts.builder().claim("usage", "login").claim("id", 5).claim("username", "MaxwellBailey").claim("role", 2).signWith(keyTest).compact();
+        return jwtCreateTestTokensApplicant(5);
+    }
+
+    /**
+     * Creates JWT tokens to use during integration testing with applicant role for a given person.
+     *
+     * @param personId is the id claim of the applicant.
+     * @return JWT tokens encoded using HS256 algorithm.
+     */
+    public String jwtCreateTestTokensApplicant(long personId) {
+        return Jwts.builder().claim("usage", "login").claim("id", personId).claim("username", "MaxwellBailey").claim("role", 2).signWith(secretKey).compact();
+    }
+
+    /**
+     * TokenExpiry lets each cached token expire together with the token itself.
+     *
+     * @param maxTtl is the longest time a verified token is cached.
+     */
+    private record TokenExpiry(Duration maxTtl) implements Expiry<ByteBuffer, Claims> {
+
+        /**
+         * Computes the time to live of a newly cached token from its exp claim.
+         */
+        @Override
+        public long expireAfterCreate(ByteBuffer key, Claims claims, long currentTime) {
+            long maxTtlNanos = maxTtl.toNanos();
+            Date expiration = claims.getExpiration();
+            if (expiration == null) {
+                return maxTtlNanos;
+            }
+            long untilExpirationNanos = Duration.ofMillis(expiration.getTime() - System.currentTimeMillis()).toNanos();
+            return Math.max(0, Math.min(maxTtlNanos, untilExpirationNanos));
+        }
+
+        /**
+         * Keeps the time to live when a token is cached again.
+         */
+        @Override
+        public long expireAfterUpdate(ByteBuffer key, Claims claims, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+
+        /**
+         * Reading a token does not extend its time to live.
+         */
+        @Override
+        public long expireAfterRead(ByteBuffer key, Claims claims, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
     }
 }
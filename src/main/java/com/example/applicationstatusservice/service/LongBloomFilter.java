@@ -0,0 +1,122 @@
+package com.example.applicationstatusservice.service;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * LongBloomFilter is a thread-safe Bloom filter over primitive long values. It answers
+ * whether a value might have been added, with no false negatives and a false-positive
+ * probability determined by the number of values added and the size of the filter.
+ */
+final class LongBloomFilter {
+
+    /**
+     * The bits of the filter, packed into longs.
+     */
+    private final AtomicLongArray bits;
+
+    /**
+     * The number of bits of the filter.
+     */
+    private final long bitCount;
+
+    /**
+     * The number of bits set for each value.
+     */
+    private final int hashFunctions;
+
+    /**
+     * The number of bits currently set, used to estimate the false-positive probability.
+     */
+    private final LongAdder bitsSet = new LongAdder();
+
+    /**
+     * Constructor sizing the filter for an expected number of values and false-positive probability.
+     *
+     * @param expectedInsertions is the number of values the filter is sized for.
+     * @param fpp                is the false-positive probability once the expected number of values were added.
+     */
+    LongBloomFilter(long expectedInsertions, double fpp) {
+        long n = Math.max(1, expectedInsertions);
+        long m = Math.max(64, (long) Math.ceil(-n * Math.log(fpp) / (Math.log(2) * Math.log(2))));
+        this.bits = new AtomicLongArray(Math.toIntExact((m + 63) / 64));
+        this.bitCount = bits.length() * 64L;
+        this.hashFunctions = Math.max(1, (int) Math.round((double) m / n * Math.log(2)));
+    }
+
+    /**
+     * Adds a value to the filter.
+     *
+     * @param value is the value to add.
+     */
+    void put(long value) {
+        long hash1 = mix(value);
+        long hash2 = mix(hash1);
+        for (int i = 0; i < hashFunctions; i++) {
+            long bitIndex = ((hash1 + i * hash2) & Long.MAX_VALUE) % bitCount;
+            int word = (int) (bitIndex >>> 6);
+            long mask = 1L << bitIndex;
+            long current = bits.get(word);
+            while ((current & mask) == 0) {
+                long witness = bits.compareAndExchange(word, current, current | mask);
+                if (witness == current) {
+                    bitsSet.increment();
+                    break;
+                }
+                current = witness;
+            }
+        }
+    }
+
+    /**
+     * Checks if a value might have been added to the filter.
+     *
+     * @param value is the value to check.
+     * @return false if the value has definitely not been added, true if it might have been.
+     */
+    boolean mightContain(long value) {
+        long hash1 = mix(value);
+        long hash2 = mix(hash1);
+        for (int i = 0; i < hashFunctions; i++) {
+            long bitIndex = ((hash1 + i * hash2) & Long.MAX_VALUE) % bitCount;
+            if ((bits.get((int) (bitIndex >>> 6)) & (1L << bitIndex)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the memory used by the bits of the filter.
+     *
+     * @return the size of the filter in bytes.
+     */
+    long memoryFootprintBytes() {
+        return bits.length() * 8L;
+    }
+
+    /**
+     * Estimates the current false-positive probability from the share of bits that are set.
+     *
+     * @return the probability that a value that was never added is reported as possibly added.
+     */
+    double expectedFalsePositiveRate() {
+        return Math.pow((double) bitsSet.sum() / bitCount, hashFunctions);
+    }
+
+    /**
+     * Spreads the bits of a value, using the finalization step of MurmurHash3.
+     *
+     * @param value is the value to mix.
+     * @return the mixed value.
+     */
+    private static long mix(long value) {
+        long h = value;
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -0,0 +1,202 @@
+package com.example.applicationstatusservice.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PreDestroy;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * PasswordHashingService hashes the passwords of registered applicants with bcrypt on a
+ * dedicated pool of threads, sized to a share of the CPUs, so that a spike of registrations
+ * cannot take the CPU time of the request threads answering status updates. Callers wait for
+ * their hashes without using any CPU. The number of passwords waiting to be hashed is bounded,
+ * and a caller that finds no room within the acquire timeout is rejected with a
+ * RejectedExecutionException, so a spike that outpaces the pool is turned away instead of queued
+ * without bound. The work factor of bcrypt is configurable, each step doubling the cost of a hash.
+ */
+@Service
+public class PasswordHashingService {
+
+    /**
+     * Logger to log the rejected hashes.
+     */
+    private static final Logger logger = LogManager.getLogger(PasswordHashingService.class);
+
+    /**
+     * The bcrypt encoder with the configured work factor.
+     */
+    private final PasswordEncoder passwordEncoder;
+
+    /**
+     * The threads hashing the passwords.
+     */
+    private final ThreadPoolExecutor executor;
+
+    /**
+     * The permits of the passwords waiting to be hashed or being hashed, handed out in arrival order.
+     */
+    private final Semaphore pending;
+
+    /**
+     * The maximum number of passwords waiting to be hashed or being hashed.
+     */
+    private final int maxPending;
+
+    /**
+     * The longest time a caller waits for room for its passwords, in nanoseconds.
+     */
+    private final long acquireTimeoutNanos;
+
+    /**
+     * Counter of the hashes rejected since too many passwords were waiting.
+     */
+    private final Counter rejectedCounter;
+
+    /**
+     * Constructor for the PasswordHashingService class.
+     * {@code @Autowired} provides automatic dependency injection.
+     *
+     * @param meterRegistry  registers the metrics of the hashing threads and of the rejections.
+     * @param strength       is the work factor of bcrypt, the base 2 logarithm of its number of rounds.
+     * @param threads        is the number of hashing threads, or 0 for half of the available processors.
+     * @param maxPending     is the maximum number of passwords waiting to be hashed or being hashed.
+     * @param acquireTimeout is the longest time a caller waits for room for its passwords.
+     */
+    @Autowired
+    public PasswordHashingService(MeterRegistry meterRegistry,
+                                  @Value("${application-status.password-hashing.strength:10}") int strength,
+                                  @Value("${application-status.password-hashing.threads:0}") int threads,
+                                  @Value("${application-status.password-hashing.max-pending:1000}") int maxPending,
+                                  @Value("${application-status.password-hashing.acquire-timeout:PT2S}") Duration acquireTimeout) {
+        this.passwordEncoder = new BCryptPasswordEncoder(strength);
+        int poolSize = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(), runnable -> {
+            Thread thread = new Thread(runnable, "password-hashing-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.maxPending = maxPending;
+        this.pending = new Semaphore(maxPending, true);
+        this.acquireTimeoutNanos = acquireTimeout.toNanos();
+        this.rejectedCounter = Counter.builder("application.password.hashing.rejected").description("Password hashes rejected since too many passwords were waiting").register(meterRegistry);
+        ExecutorServiceMetrics.monitor(meterRegistry, executor, "password.hashing");
+        logger.info("Hashing passwords with bcrypt strength {} on {} threads ", strength, poolSize);
+    }
+
+    /**
+     * Hashes one password on the hashing threads.
+     *
+     * @param password is the password to hash.
+     * @return the bcrypt hash of the password.
+     * @throws RejectedExecutionException if too many passwords are waiting to be hashed.
+     */
+    public String hash(String password) {
+        return hashAll(List.of(password)).get(0);
+    }
+
+    /**
+     * Hashes many passwords on the hashing threads, in parallel as far as there are threads. The
+     * passwords wait for room among the pending passwords all at once, or in chunks of the maximum
+     * number of pending passwords, so that concurrent callers holding part of their room cannot starve
+     * each other. Each chunk is hashed before room is acquired for the next one, since the room held by
+     * a chunk is only released as its passwords are hashed. If a chunk does not get room within the
+     * acquire timeout, the passwords that have not started yet are withdrawn and the call is rejected.
+     *
+     * @param passwords are the passwords to hash.
+     * @return the bcrypt hashes of the passwords, in the same order.
+     * @throws RejectedExecutionException if too many passwords are waiting to be hashed.
+     */
+    public List<String> hashAll(List<String> passwords) {
+        List<FutureTask<String>> hashes = new ArrayList<>(passwords.size());
+        List<String> hashed = new ArrayList<>(passwords.size());
+        boolean completed = false;
+        try {
+            for (int chunkStart = 0; chunkStart < passwords.size(); chunkStart += maxPending) {
+                int chunkEnd = Math.min(passwords.size(), chunkStart + maxPending);
+                if (!acquire(chunkEnd - chunkStart)) {
+                    rejectedCounter.increment();
+                    logger.warn("Rejected hashing {} passwords since {} callers are waiting for the hashing threads ", passwords.size(), pending.getQueueLength());
+                    throw new RejectedExecutionException("Too many passwords are waiting to be hashed");
+                }
+                for (String password : passwords.subList(chunkStart, chunkEnd)) {
+                    FutureTask<String> hash = new FutureTask<>(() -> {
+                        try {
+                            return passwordEncoder.encode(password);
+                        } finally {
+                            pending.release();
+                        }
+                    });
+                    hashes.add(hash);
+                    executor.execute(hash);
+                }
+                for (FutureTask<String> hash : hashes.subList(chunkStart, chunkEnd)) {
+                    hashed.add(hash.get());
+                }
+            }
+            completed = true;
+            return hashed;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RejectedExecutionException("Interrupted while waiting for the password hashes", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Failed to hash a password", e.getCause());
+        } finally {
+            if (!completed) {
+                withdraw(hashes);
+            }
+        }
+    }
+
+    /**
+     * Stops the hashing threads when the application shuts down.
+     */
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Acquires room for a number of passwords, failing after the acquire timeout.
+     *
+     * @param permits is the number of passwords.
+     * @return true if room was acquired.
+     * @throws InterruptedException if the caller was interrupted while waiting.
+     */
+    private boolean acquire(int permits) throws InterruptedException {
+        return pending.tryAcquire(permits) || pending.tryAcquire(permits, acquireTimeoutNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Withdraws the hashes of a rejected or failed call that have not started yet, releasing their
+     * room. Hashes that are already running release their room when they finish.
+     *
+     * @param hashes are the hashes submitted by the call.
+     */
+    private void withdraw(List<FutureTask<String>> hashes) {
+        for (FutureTask<String> hash : hashes) {
+            if (executor.remove(hash)) {
+                pending.release();
+            }
+        }
+    }
+}
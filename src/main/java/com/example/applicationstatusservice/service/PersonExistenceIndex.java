@@ -0,0 +1,211 @@
+package com.example.applicationstatusservice.service;
+
+import com.example.applicationstatusservice.model.Person;
+import com.example.applicationstatusservice.repository.PersonRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+
+/**
+ * PersonExistenceIndex is an in-memory index of the person_ids in the Person table, used
+ * to answer person_id validation without querying the database for unknown ids.
+ * The index is a Bloom filter warmed at startup and kept up to date with the persons registered
+ * through the PersonService, and with a periodic scan of the person_ids added since the last scan
+ * by other services. Person_ids are allocated in blocks of Person.ID_ALLOCATION_SIZE, and a
+ * block can be used by another instance well after later blocks, so persons are committed out of
+ * id order. The person_ids of the latest blocks below the highest scanned id are therefore scanned
+ * again on each refresh, and neither they nor the person_ids above the highest scanned id are ruled
+ * out by the index, they are always looked up in the database. A person_id that might exist is
+ * confirmed with one read.
+ */
+@Service
+public class PersonExistenceIndex {
+
+    /**
+     * Logger to log the warm-up and refreshes of the index.
+     */
+    private static final Logger logger = LogManager.getLogger(PersonExistenceIndex.class);
+
+    /**
+     * An instance of personRepository used for data access/retrieval in the Person table.
+     */
+    private final PersonRepository personRepository;
+
+    /**
+     * Runs the scans of the Person table in read-only transactions.
+     */
+    private final TransactionTemplate readOnlyTransactionTemplate;
+
+    /**
+     * The Bloom filter containing every indexed person_id.
+     */
+    private final LongBloomFilter bloomFilter;
+
+    /**
+     * The number of person_ids below the highest scanned id that are scanned again on each
+     * refresh, to pick up persons committed out of id order, the size of the blocks that may
+     * still be in use.
+     */
+    private final long refreshOverlap;
+
+    /**
+     * The highest person_id seen by a scan of the Person table, -1 before the warm-up.
+     */
+    private final LongAccumulator highestScannedPersonId = new LongAccumulator(Math::max, -1);
+
+    /**
+     * The number of lookups the index could not answer alone and confirmed in the database.
+     */
+    private final LongAdder confirmedLookups = new LongAdder();
+
+    /**
+     * The number of confirmed lookups where the filter reported a person_id that does not exist.
+     */
+    private final LongAdder falsePositives = new LongAdder();
+
+    /**
+     * Constructor for the PersonExistenceIndex class.
+     * {@code @Autowired} provides automatic dependency injection.
+     *
+     * @param personRepository     handles data retrieval operations in the Person table.
+     * @param transactionManager   is used to scan the Person table in read-only transactions.
+     * @param meterRegistry        registers the metrics of the index.
+     * @param expectedPersons      is the number of persons the Bloom filter is sized for.
+     * @param fpp                  is the false-positive probability once the expected number of persons is indexed.
+     * @param refreshOverlapBlocks is the number of blocks of person_ids below the highest scanned one
+     *                             that may still be in use, and are scanned again on each refresh.
+     */
+    @Autowired
+    public PersonExistenceIndex(PersonRepository personRepository, PlatformTransactionManager transactionManager, MeterRegistry meterRegistry,
+                                @Value("${application-status.person-index.expected-persons:1000000}") long expectedPersons,
+                                @Value("${application-status.person-index.fpp:0.01}") double fpp,
+                                @Value("${application-status.person-index.refresh-overlap-blocks:20}") long refreshOverlapBlocks) {
+        this.personRepository = personRepository;
+        this.readOnlyTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransactionTemplate.setReadOnly(true);
+        this.bloomFilter = new LongBloomFilter(expectedPersons, fpp);
+        this.refreshOverlap = refreshOverlapBlocks * Person.ID_ALLOCATION_SIZE;
+
+        Gauge.builder("person.index.memory", bloomFilter, LongBloomFilter::memoryFootprintBytes).baseUnit("bytes").description("Memory used by the person existence index").register(meterRegistry);
+        Gauge.builder("person.index.false.positive.rate", this, PersonExistenceIndex::getFalsePositiveRate).description("Share of confirmed lookups where the index reported a person that does not exist").register(meterRegistry);
+        Gauge.builder("person.index.expected.false.positive.rate", bloomFilter, LongBloomFilter::expectedFalsePositiveRate).description("False-positive probability estimated from the fill ratio of the index").register(meterRegistry);
+    }
+
+    /**
+     * Checks if a person exists, querying the database only if the index cannot rule the person_id out.
+     *
+     * @param personId is the person_id to check.
+     * @return true if the person exists.
+     */
+    public boolean exists(long personId) {
+        if (isDefinitelyAbsent(personId)) {
+            return false;
+        }
+        boolean exists = personRepository.existsById(personId);
+        confirmedLookups.increment();
+        if (exists) {
+            bloomFilter.put(personId);
+        } else if (personId <= highestSettledPersonId()) {
+            falsePositives.increment();
+        }
+        return exists;
+    }
+
+    /**
+     * Checks if the index can tell, without querying the database, that a person does not exist.
+     *
+     * @param personId is the person_id to check.
+     * @return true if the person definitely does not exist, false if it might exist.
+     */
+    public boolean isDefinitelyAbsent(long personId) {
+        return personId <= highestSettledPersonId() && !bloomFilter.mightContain(personId);
+    }
+
+    /**
+     * Returns the highest person_id below the blocks that are scanned again on each refresh, up to
+     * which a person_id missing from the index is taken not to exist.
+     *
+     * @return the highest settled person_id, negative before the warm-up.
+     */
+    private long highestSettledPersonId() {
+        long highest = highestScannedPersonId.get();
+        return highest < 0 ? -1 : highest - refreshOverlap;
+    }
+
+    /**
+     * Adds the person_id of a newly registered person to the index.
+     *
+     * @param personId is the person_id to add.
+     */
+    public void indexPerson(long personId) {
+        bloomFilter.put(personId);
+    }
+
+    /**
+     * Warms the index up with all person_ids once the application has started.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        long indexed = scanFrom(-1);
+        logger.info("Person existence index warmed up with {} person Ids using {} bytes ", indexed, bloomFilter.memoryFootprintBytes());
+    }
+
+    /**
+     * Adds the person_ids registered by other services since the last scan.
+     */
+    @Scheduled(fixedDelayString = "${application-status.person-index.refresh-interval:PT5S}", initialDelayString = "${application-status.person-index.refresh-interval:PT5S}")
+    public void refresh() {
+        long highest = highestScannedPersonId.get();
+        if (highest < 0) {
+            return;
+        }
+        long indexed = scanFrom(Math.max(0, highest - refreshOverlap));
+        logger.debug("Person existence index refreshed with {} person Ids ", indexed);
+    }
+
+    /**
+     * Returns the share of confirmed lookups where the index reported a person that does not exist.
+     *
+     * @return the observed false-positive rate.
+     */
+    public double getFalsePositiveRate() {
+        long lookups = confirmedLookups.sum();
+        return lookups == 0 ? 0 : (double) falsePositives.sum() / lookups;
+    }
+
+    /**
+     * Adds every person_id greater than the given one to the index.
+     *
+     * @param afterPersonId is the person_id after which the table is scanned.
+     * @return the number of person_ids scanned.
+     */
+    private long scanFrom(long afterPersonId) {
+        Long scanned = readOnlyTransactionTemplate.execute(tx -> {
+            long count = 0;
+            long highest = afterPersonId;
+            try (Stream<Long> personIds = personRepository.streamPersonIdsAfter(afterPersonId)) {
+                for (Long personId : (Iterable<Long>) personIds::iterator) {
+                    bloomFilter.put(personId);
+                    highest = Math.max(highest, personId);
+                    count++;
+                }
+            }
+            highestScannedPersonId.accumulate(Math.max(highest, 0));
+            return count;
+        });
+        return scanned == null ? 0 : scanned;
+    }
+}
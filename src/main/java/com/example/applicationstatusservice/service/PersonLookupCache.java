@@ -0,0 +1,206 @@
+package com.example.applicationstatusservice.service;
+
+import com.example.applicationstatusservice.model.Person;
+import com.example.applicationstatusservice.repository.PersonRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Predicate;
+
+/**
+ * PersonLookupCache is a bounded in-process read-through cache of whether usernames, emails and
+ * pnrs belong to a registered person, so that repeated availability checks are answered from
+ * memory. Usernames and emails are looked up case-insensitively. A value that is taken stays
+ * taken, since persons are not deleted, so taken values are cached for the taken time to live,
+ * while available values are only cached for the much shorter available time to live, which
+ * bounds how long a value registered by another service is reported as available. Values
+ * registered through this service are cached as taken once the registration has committed.
+ */
+@Service
+public class PersonLookupCache {
+
+    /**
+     * An instance of personRepository used for the lookups in the Person table.
+     */
+    private final PersonRepository personRepository;
+
+    /**
+     * Whether each looked up value is taken, keyed by its field and normalized value.
+     */
+    private final Cache<LookupKey, Boolean> lookups;
+
+    /**
+     * Constructor for the PersonLookupCache class.
+     * {@code @Autowired} provides automatic dependency injection.
+     *
+     * @param personRepository handles the lookups in the Person table.
+     * @param meterRegistry    registers the metrics of the cache.
+     * @param maxSize          is the maximum number of cached lookups.
+     * @param takenTtl         is the longest time a taken value is cached.
+     * @param availableTtl     is the longest time an available value is cached.
+     */
+    @Autowired
+    public PersonLookupCache(PersonRepository personRepository, MeterRegistry meterRegistry,
+                             @Value("${application-status.lookup-cache.max-size:100000}") long maxSize,
+                             @Value("${application-status.lookup-cache.taken-ttl:PT1H}") Duration takenTtl,
+                             @Value("${application-status.lookup-cache.available-ttl:PT5S}") Duration availableTtl) {
+        this.personRepository = personRepository;
+        this.lookups = Caffeine.newBuilder().maximumSize(maxSize).expireAfter(new TakenExpiry(takenTtl.toNanos(), availableTtl.toNanos())).recordStats().build();
+        CaffeineCacheMetrics.monitor(meterRegistry, lookups, "person.lookups");
+    }
+
+    /**
+     * Checks if a username belongs to a registered person, comparing usernames case-insensitively.
+     *
+     * @param username is the username to look up.
+     * @return true if the username is taken.
+     */
+    public boolean isUsernameTaken(String username) {
+        return lookup("username", normalize(username), personRepository::existsByUsernameIgnoreCase);
+    }
+
+    /**
+     * Checks if an email belongs to a registered person, comparing emails case-insensitively.
+     *
+     * @param email is the email to look up.
+     * @return true if the email is taken.
+     */
+    public boolean isEmailTaken(String email) {
+        return lookup("email", normalize(email), personRepository::existsByEmailIgnoreCase);
+    }
+
+    /**
+     * Checks if a pnr belongs to a registered person.
+     *
+     * @param pnr is the pnr to look up.
+     * @return true if the pnr is taken.
+     */
+    public boolean isPnrTaken(String pnr) {
+        return lookup("pnr", pnr, personRepository::existsByPnr);
+    }
+
+    /**
+     * Records that persons have been registered, caching their usernames, emails and pnrs as
+     * taken once the registering transaction has committed. Missing values are not cached.
+     *
+     * @param persons are the registered persons.
+     */
+    public void recordRegistered(Collection<Person> persons) {
+        List<LookupKey> taken = new ArrayList<>(persons.size() * 3);
+        for (Person person : persons) {
+            addTaken(taken, "username", normalize(person.getUsername()));
+            addTaken(taken, "email", normalize(person.getEmail()));
+            addTaken(taken, "pnr", person.getPnr());
+        }
+        afterCommit(() -> taken.forEach(key -> lookups.put(key, Boolean.TRUE)));
+    }
+
+    /**
+     * Normalizes a username or an email for the case-insensitive comparisons.
+     *
+     * @param value is the username or email.
+     * @return the value in lower case, or null if the value is null.
+     */
+    static String normalize(String value) {
+        return value == null ? null : value.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Adds the key of a taken value, unless the value is missing.
+     *
+     * @param taken are the keys of the taken values.
+     * @param field is the field of the value.
+     * @param value is the value, normalized if the field is compared case-insensitively.
+     */
+    private static void addTaken(List<LookupKey> taken, String field, String value) {
+        if (value != null) {
+            taken.add(new LookupKey(field, value));
+        }
+    }
+
+    /**
+     * Looks a value up in the cache, reading it from the database only on a cache miss.
+     *
+     * @param field is the field of the value.
+     * @param value is the value, normalized if the field is compared case-insensitively.
+     * @param exists checks if the value exists in the database.
+     * @return true if the value is taken.
+     */
+    private boolean lookup(String field, String value, Predicate<String> exists) {
+        return lookups.get(new LookupKey(field, value), key -> exists.test(key.value()));
+    }
+
+    /**
+     * Runs an update of the cache once the current transaction has committed, or right away if there is none.
+     *
+     * @param update is the update to run.
+     */
+    private static void afterCommit(Runnable update) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            update.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                update.run();
+            }
+        });
+    }
+
+    /**
+     * LookupKey identifies a looked up value by its field and value.
+     *
+     * @param field is the field of the value: username, email or pnr.
+     * @param value is the value, normalized if the field is compared case-insensitively.
+     */
+    private record LookupKey(String field, String value) {
+    }
+
+    /**
+     * TakenExpiry expires taken and available values after their own time to live, counted from
+     * when they were loaded or last recorded as taken.
+     *
+     * @param takenNanos     is the time to live of a taken value, in nanoseconds.
+     * @param availableNanos is the time to live of an available value, in nanoseconds.
+     */
+    private record TakenExpiry(long takenNanos, long availableNanos) implements Expiry<LookupKey, Boolean> {
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public long expireAfterCreate(LookupKey key, Boolean taken, long currentTime) {
+            return taken ? takenNanos : availableNanos;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public long expireAfterUpdate(LookupKey key, Boolean taken, long currentTime, long currentDuration) {
+            return taken ? takenNanos : availableNanos;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public long expireAfterRead(LookupKey key, Boolean taken, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -1,17 +1,27 @@
 package com.example.applicationstatusservice.service;
 
 import com.example.applicationstatusservice.model.Person;
+import com.example.applicationstatusservice.model.dto.PersonAvailabilityDTO;
 import com.example.applicationstatusservice.model.dto.PersonDTO;
+import com.example.applicationstatusservice.model.dto.PersonRegistrationResultDTO;
 import com.example.applicationstatusservice.repository.PersonRepository;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
 
 /**
  * PersonService is a service class meant to handle the business-logic
- * specific to person-related operations.
+ * specific to person-related operations. Passwords are hashed by the {@link PasswordHashingService}
+ * before the registering transaction starts, so no database connection is held while they are hashed.
  */
 @Service
 public class PersonService {
@@ -27,30 +37,218 @@ public class PersonService {
      */
     private final PersonRepository personRepository;
 
+    /**
+     * The in-memory index of existing person_ids, kept up to date with registered persons.
+     */
+    private final PersonExistenceIndex personExistenceIndex;
+
+    /**
+     * The cache of the usernames, emails and pnrs of registered persons.
+     */
+    private final PersonLookupCache personLookupCache;
+
+    /**
+     * The service hashing the passwords of the registered persons.
+     */
+    private final PasswordHashingService passwordHashingService;
+
+    /**
+     * Runs the inserts of each registration in one transaction, after the passwords have been hashed.
+     */
+    private final TransactionTemplate transactionTemplate;
+
+    /**
+     * The maximum number of persons accepted in one bulk registration.
+     */
+    private final int maxRegistrationSize;
+
     /**
      * Constructor for the personService class.
      * {@code @Autowired} provides automatic dependency injection.
      *
-     * @param personRepository handles handles data retrieval/modification operations.
+     * @param personRepository     handles handles data retrieval/modification operations.
+     * @param personExistenceIndex is the in-memory index of existing person_ids.
+     * @param personLookupCache      is the cache of the usernames, emails and pnrs of registered persons.
+     * @param passwordHashingService hashes the passwords of the registered persons.
+     * @param transactionManager     is used to run the inserts of each registration in one transaction.
+     * @param maxRegistrationSize    is the maximum number of persons accepted in one bulk registration.
      */
     @Autowired
-    public PersonService(PersonRepository personRepository) {
+    public PersonService(PersonRepository personRepository, PersonExistenceIndex personExistenceIndex, PersonLookupCache personLookupCache,
+                         PasswordHashingService passwordHashingService, PlatformTransactionManager transactionManager,
+                         @Value("${application-status.registration.max-size:10000}") int maxRegistrationSize) {
         this.personRepository = personRepository;
+        this.personExistenceIndex = personExistenceIndex;
+        this.personLookupCache = personLookupCache;
+        this.passwordHashingService = passwordHashingService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.maxRegistrationSize = maxRegistrationSize;
     }
 
     /**
      * Saves a person when they have correctly registered/passed
-     * validation checks to the application.
-     * {@code @Transactional} ensures application is saved to the
-     * database only if the transaction is successful.
+     * validation checks to the application. The password is hashed first, and the person is
+     * then inserted right away with a person_id from the current block, like the persons of a
+     * bulk registration, in a transaction so that it is saved only if the transaction is successful.
      *
      * @param personDTO Data transfer object
      *                  representing users submitted information.
+     * @throws java.util.concurrent.RejectedExecutionException if too many passwords are waiting to be hashed.
      */
-    @Transactional
     public void saveApplicant(PersonDTO personDTO) {
-        Person person = Person.builder().name(personDTO.getName()).surname(personDTO.getSurname()).pnr(personDTO.getPnr()).email(personDTO.getEmail()).password(personDTO.getPassword()).role_id(2).username(personDTO.getUsername()).build();
-        personRepository.save(person);
+        String passwordHash = personDTO.getPassword() == null ? null : passwordHashingService.hash(personDTO.getPassword());
+        Person person = Person.builder().name(personDTO.getName()).surname(personDTO.getSurname()).pnr(personDTO.getPnr()).email(personDTO.getEmail()).password(passwordHash).role_id(2).username(personDTO.getUsername()).build();
+        transactionTemplate.executeWithoutResult(tx -> {
+            personRepository.insertPersons(List.of(person));
+            personExistenceIndex.indexPerson(person.getPersonId());
+            personLookupCache.recordRegistered(List.of(person));
+        });
         logger.debug("A new person has registered with username: {}", personDTO.getUsername());
     }
+
+    /**
+     * Method to check if a bulk registration is within the maximum number of persons.
+     *
+     * @param registrationSize is the number of persons in the registration.
+     * @return VALID_DATA or INVALID_DATA.
+     */
+    public String isRegistrationSizeValid(int registrationSize) {
+        logger.debug("Check to see if registration size: {} is valid", registrationSize);
+        return registrationSize <= maxRegistrationSize ? "VALID_DATA" : "INVALID_DATA";
+    }
+
+    /**
+     * Method checking if a username, email and pnr are still available for a new registration.
+     * The checks are answered from the lookup cache, and from the indexes of the Person table on a cache miss.
+     *
+     * @param username is the username to check, or null.
+     * @param email    is the email to check, or null.
+     * @param pnr      is the pnr to check, or null.
+     * @return AVAILABLE or TAKEN for each value that was checked.
+     */
+    public PersonAvailabilityDTO checkAvailability(String username, String email, String pnr) {
+        logger.debug("Check to see if username: {} is available", username);
+        return new PersonAvailabilityDTO(
+                isPresent(username) ? availability(personLookupCache.isUsernameTaken(username)) : null,
+                isPresent(email) ? availability(personLookupCache.isEmailTaken(email)) : null,
+                isPresent(pnr) ? availability(personLookupCache.isPnrTaken(pnr)) : null);
+    }
+
+    /**
+     * Registers many applicants at once, such as applicants onboarded from a partner system.
+     * Each person is checked on its own and the valid persons are inserted with batched insert
+     * statements, so one invalid or duplicate person does not fail the others. Usernames, emails
+     * and pnrs are checked against the registered persons with one indexed query each, and against
+     * the earlier persons of the same registration. Usernames and emails are compared case-insensitively.
+     * The passwords of the accepted persons are then hashed, and the persons are inserted in one
+     * transaction, so they are saved only if the transaction is successful.
+     *
+     * @param personDTOs Data transfer objects representing the submitted information of each user.
+     * @return the result of each person, in the order they were submitted.
+     * @throws java.util.concurrent.RejectedExecutionException if too many passwords are waiting to be hashed.
+     */
+    public List<PersonRegistrationResultDTO> saveApplicants(List<PersonDTO> personDTOs) {
+        Set<String> usernames = new HashSet<>();
+        Set<String> emails = new HashSet<>();
+        Set<String> pnrs = new HashSet<>();
+        for (PersonDTO personDTO : personDTOs) {
+            if (isRegistrationValid(personDTO)) {
+                usernames.add(personDTO.getUsername());
+                emails.add(personDTO.getEmail());
+                pnrs.add(personDTO.getPnr());
+            }
+        }
+        Set<String> takenUsernames = normalize(personRepository.findExistingUsernames(usernames));
+        Set<String> takenEmails = normalize(personRepository.findExistingEmails(emails));
+        Set<String> takenPnrs = personRepository.findExistingPnrs(pnrs);
+
+        String[] results = new String[personDTOs.size()];
+        List<PersonDTO> accepted = new ArrayList<>(personDTOs.size());
+        for (int i = 0; i < personDTOs.size(); i++) {
+            PersonDTO personDTO = personDTOs.get(i);
+            if (!isRegistrationValid(personDTO)) {
+                results[i] = "INVALID_DATA";
+            } else if (takenUsernames.contains(PersonLookupCache.normalize(personDTO.getUsername()))) {
+                results[i] = "DUPLICATE_USERNAME";
+            } else if (takenEmails.contains(PersonLookupCache.normalize(personDTO.getEmail()))) {
+                results[i] = "DUPLICATE_EMAIL";
+            } else if (takenPnrs.contains(personDTO.getPnr())) {
+                results[i] = "DUPLICATE_PNR";
+            } else {
+                takenUsernames.add(PersonLookupCache.normalize(personDTO.getUsername()));
+                takenEmails.add(PersonLookupCache.normalize(personDTO.getEmail()));
+                takenPnrs.add(personDTO.getPnr());
+                accepted.add(personDTO);
+            }
+        }
+
+        List<String> passwordHashes = passwordHashingService.hashAll(accepted.stream().map(PersonDTO::getPassword).toList());
+        List<Person> persons = new ArrayList<>(accepted.size());
+        for (int i = 0; i < accepted.size(); i++) {
+            PersonDTO personDTO = accepted.get(i);
+            persons.add(Person.builder().name(personDTO.getName()).surname(personDTO.getSurname()).pnr(personDTO.getPnr()).email(personDTO.getEmail()).password(passwordHashes.get(i)).role_id(2).username(personDTO.getUsername()).build());
+        }
+        transactionTemplate.executeWithoutResult(tx -> personRepository.insertPersons(persons));
+        personLookupCache.recordRegistered(persons);
+
+        List<PersonRegistrationResultDTO> registrationResults = new ArrayList<>(personDTOs.size());
+        int registered = 0;
+        for (int i = 0; i < personDTOs.size(); i++) {
+            Long personId = null;
+            if (results[i] == null) {
+                personId = persons.get(registered++).getPersonId();
+                personExistenceIndex.indexPerson(personId);
+                results[i] = "OK";
+            }
+            PersonDTO personDTO = personDTOs.get(i);
+            registrationResults.add(new PersonRegistrationResultDTO(personDTO == null ? null : personDTO.getUsername(), personId, results[i]));
+        }
+        logger.debug("{} of {} persons have registered in a bulk registration", registered, personDTOs.size());
+        return registrationResults;
+    }
+
+    /**
+     * Method to check if all the fields required by the registration form are present.
+     *
+     * @param personDTO Data transfer object representing users submitted information.
+     * @return true if no field is missing or blank.
+     */
+    private boolean isRegistrationValid(PersonDTO personDTO) {
+        return personDTO != null && isPresent(personDTO.getName()) && isPresent(personDTO.getSurname()) && isPresent(personDTO.getPnr())
+                && isPresent(personDTO.getEmail()) && isPresent(personDTO.getPassword()) && isPresent(personDTO.getUsername());
+    }
+
+    /**
+     * Method normalizing usernames or emails for the case-insensitive comparisons.
+     *
+     * @param values are the usernames or emails.
+     * @return the normalized values.
+     */
+    private static Set<String> normalize(Set<String> values) {
+        Set<String> normalized = new HashSet<>();
+        for (String value : values) {
+            normalized.add(PersonLookupCache.normalize(value));
+        }
+        return normalized;
+    }
+
+    /**
+     * Method describing the availability of a value.
+     *
+     * @param taken is true if the value belongs to a registered person.
+     * @return AVAILABLE or TAKEN.
+     */
+    private static String availability(boolean taken) {
+        return taken ? "TAKEN" : "AVAILABLE";
+    }
+
+    /**
+     * Method to check if a submitted field is present.
+     *
+     * @param value is the submitted value of the field.
+     * @return true if the value is neither null nor blank.
+     */
+    private static boolean isPresent(String value) {
+        return value != null && !value.isBlank();
+    }
 }
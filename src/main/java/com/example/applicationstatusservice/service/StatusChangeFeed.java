@@ -0,0 +1,355 @@
+package com.example.applicationstatusservice.service;
+
+import com.example.applicationstatusservice.model.dto.StatusChangeDTO;
+import com.example.applicationstatusservice.repository.ApplicationStatusRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * StatusChangeFeed publishes the status changes written to the status_outbox table to the
+ * subscribers of the status change feed as Server-Sent Events. The outbox is read in batches
+ * by a single dispatcher, so the database is polled once for all subscribers, and each event
+ * carries its outbox id so a subscriber reconnecting with a Last-Event-ID header is sent the
+ * changes it missed before the live ones.
+ */
+@Service
+@SuppressFBWarnings("EI_EXPOSE_REP2")
+public class StatusChangeFeed {
+
+    /**
+     * Logger to log the subscriptions and the cleanup of the outbox.
+     */
+    private static final Logger logger = LogManager.getLogger(StatusChangeFeed.class);
+
+    /**
+     * Name of the events carrying a status change.
+     */
+    private static final String EVENT_NAME = "status";
+
+    /**
+     * An instance of applicationStatusRepository used for data retrieval in the status_outbox table.
+     */
+    private final ApplicationStatusRepository applicationStatusRepository;
+
+    /**
+     * ObjectMapper writing the data of each event once for all subscribers.
+     */
+    private final ObjectMapper objectMapper;
+
+    /**
+     * The maximum number of status changes read from the outbox at a time.
+     */
+    private final int batchSize;
+
+    /**
+     * How long the dispatcher waits for a transaction holding a lower outbox id to commit before skipping the id.
+     */
+    private final Duration commitGrace;
+
+    /**
+     * How long published status changes are kept for subscribers resuming the feed.
+     */
+    private final Duration retention;
+
+    /**
+     * How long a subscription is kept open before the subscriber has to reconnect.
+     */
+    private final Duration emitterTimeout;
+
+    /**
+     * The open subscriptions.
+     */
+    private final List<FeedSubscription> subscribers = new CopyOnWriteArrayList<>();
+
+    /**
+     * Counter of the status changes published to the feed.
+     */
+    private final Counter eventCounter;
+
+    /**
+     * The id of the last status change published, -1 until it is read from the outbox.
+     */
+    private long lastEventId = -1;
+
+    /**
+     * Constructor for the StatusChangeFeed class.
+     * {@code @Autowired} provides automatic dependency injection.
+     *
+     * @param applicationStatusRepository handles data retrieval operations in the status_outbox table.
+     * @param objectMapper                writes the data of the events.
+     * @param meterRegistry               registers the metrics of the feed.
+     * @param batchSize                   is the maximum number of status changes read at a time.
+     * @param commitGrace                 is how long a missing outbox id is waited for.
+     * @param retention                   is how long published status changes are kept.
+     * @param emitterTimeout              is how long a subscription is kept open.
+     */
+    @Autowired
+    public StatusChangeFeed(ApplicationStatusRepository applicationStatusRepository, ObjectMapper objectMapper, MeterRegistry meterRegistry,
+                            @Value("${application-status.status-feed.batch-size:500}") int batchSize,
+                            @Value("${application-status.status-feed.commit-grace:PT5S}") Duration commitGrace,
+                            @Value("${application-status.status-feed.retention:PT24H}") Duration retention,
+                            @Value("${application-status.status-feed.emitter-timeout:PT30M}") Duration emitterTimeout) {
+        this.applicationStatusRepository = applicationStatusRepository;
+        this.objectMapper = objectMapper;
+        this.batchSize = batchSize;
+        this.commitGrace = commitGrace;
+        this.retention = retention;
+        this.emitterTimeout = emitterTimeout;
+        this.eventCounter = Counter.builder("application.status.feed.events").description("Status changes published to the status change feed").register(meterRegistry);
+        Gauge.builder("application.status.feed.subscribers", subscribers, List::size).description("Open subscriptions to the status change feed").register(meterRegistry);
+    }
+
+    /**
+     * Opens a subscription to the feed. The status changes after the given event id that were
+     * already published are sent first, then the subscriber receives the changes as they are published.
+     * The subscription is registered together with the id of the last published change, so the
+     * dispatcher hands it every later change. Those changes are held back until the earlier ones
+     * up to that id have been replayed, which happens outside the lock of the dispatcher so that a
+     * slow subscriber does not hold up the feed of the others.
+     *
+     * @param afterEventId is the id of the last event received by the subscriber, or null to only receive new changes.
+     * @return the emitter of the subscription.
+     */
+    public SseEmitter subscribe(Long afterEventId) {
+        SseEmitter emitter = new SseEmitter(emitterTimeout.toMillis());
+        FeedSubscription subscription = new FeedSubscription(emitter);
+        emitter.onCompletion(() -> subscribers.remove(subscription));
+        emitter.onTimeout(() -> {
+            subscribers.remove(subscription);
+            emitter.complete();
+        });
+        emitter.onError(e -> subscribers.remove(subscription));
+        long cursor;
+        synchronized (this) {
+            cursor = currentEventId();
+            subscribers.add(subscription);
+        }
+        try {
+            // The response headers are only sent with the first write, so a comment is sent right away.
+            emitter.send(SseEmitter.event().comment("subscribed"));
+            if (afterEventId != null) {
+                replay(emitter, afterEventId, cursor);
+            }
+            subscription.replayed();
+        } catch (IOException | IllegalStateException e) {
+            subscribers.remove(subscription);
+            emitter.completeWithError(e);
+            return emitter;
+        }
+        logger.info("Opened a subscription to the status change feed after the event: {} ", afterEventId);
+        return emitter;
+    }
+
+    /**
+     * Sends the published status changes after the id of the last event received by a subscriber,
+     * up to the id of the last change published when it subscribed.
+     *
+     * @param emitter      is the emitter of the subscription.
+     * @param afterEventId is the id of the last event received by the subscriber.
+     * @param cursor       is the id of the last change published when it subscribed.
+     * @throws IOException if an event could not be sent.
+     */
+    private void replay(SseEmitter emitter, long afterEventId, long cursor) throws IOException {
+        long replayed = afterEventId;
+        while (replayed < cursor) {
+            List<StatusChangeDTO> changes = applicationStatusRepository.findStatusChanges(replayed, batchSize);
+            for (StatusChangeDTO change : changes) {
+                if (change.getEvent_id() > cursor) {
+                    return;
+                }
+                emitter.send(event(change));
+                replayed = change.getEvent_id();
+            }
+            if (changes.size() < batchSize) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Publishes the status changes written to the outbox since the last dispatch. An outbox id
+     * is assigned when the row is inserted, so a transaction can commit after one holding a
+     * higher id. The dispatcher therefore stops before a missing id until the commit grace has
+     * passed, after which the id is assumed to belong to a rolled back transaction.
+     */
+    @Scheduled(fixedDelayString = "${application-status.status-feed.poll-interval:PT0.5S}")
+    public synchronized void dispatch() {
+        long cursor = currentEventId();
+        Instant graceStart = Instant.now().minus(commitGrace);
+        List<StatusChangeDTO> changes;
+        do {
+            changes = applicationStatusRepository.findStatusChanges(cursor, batchSize);
+            for (StatusChangeDTO change : changes) {
+                if (change.getEvent_id() != cursor + 1 && change.getChanged_at().isAfter(graceStart)) {
+                    lastEventId = cursor;
+                    return;
+                }
+                publish(event(change), true);
+                eventCounter.increment();
+                cursor = change.getEvent_id();
+            }
+        } while (changes.size() == batchSize);
+        lastEventId = cursor;
+    }
+
+    /**
+     * Sends a comment to every subscriber, so that idle connections are not closed by proxies.
+     */
+    @Scheduled(fixedDelayString = "${application-status.status-feed.heartbeat-interval:PT30S}")
+    public void heartbeat() {
+        publish(SseEmitter.event().comment("heartbeat").build(), false);
+    }
+
+    /**
+     * Deletes the published status changes older than the retention from the outbox.
+     */
+    @Scheduled(fixedDelayString = "${application-status.status-feed.cleanup-interval:PT1M}")
+    public void cleanup() {
+        long cursor;
+        synchronized (this) {
+            cursor = lastEventId;
+        }
+        if (cursor <= 0) {
+            return;
+        }
+        int deleted = applicationStatusRepository.deleteStatusChanges(cursor, retention);
+        if (deleted > 0) {
+            logger.info("Deleted {} published status changes from the outbox ", deleted);
+        }
+    }
+
+    /**
+     * Returns the id of the last published status change, reading it from the outbox the first time.
+     *
+     * @return the id of the last published status change.
+     */
+    private long currentEventId() {
+        if (lastEventId < 0) {
+            lastEventId = applicationStatusRepository.findLastStatusChangeId();
+        }
+        return lastEventId;
+    }
+
+    /**
+     * Sends an event to every subscriber, removing the subscribers it could not be sent to.
+     *
+     * @param event       is the event, built once for all subscribers.
+     * @param statusChange is true if the event is a status change, which is held back for the
+     *                     subscribers that are still being sent the changes they missed.
+     */
+    private void publish(Set<ResponseBodyEmitter.DataWithMediaType> event, boolean statusChange) {
+        for (FeedSubscription subscription : subscribers) {
+            try {
+                subscription.send(event, statusChange);
+            } catch (IOException | IllegalStateException e) {
+                subscribers.remove(subscription);
+                subscription.emitter.completeWithError(e);
+            }
+        }
+    }
+
+    /**
+     * Builds the event of a status change.
+     *
+     * @param change is the status change.
+     * @return the event with the outbox id as its id and the status change as JSON data.
+     */
+    private Set<ResponseBodyEmitter.DataWithMediaType> event(StatusChangeDTO change) {
+        try {
+            return SseEmitter.event().id(Long.toString(change.getEvent_id())).name(EVENT_NAME).data(objectMapper.writeValueAsString(change)).build();
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * FeedSubscription is an open subscription to the feed. While the changes the subscriber missed are
+     * replayed, the status changes published by the dispatcher are held back, and they are sent in
+     * order once the replay is done.
+     */
+    private static final class FeedSubscription {
+
+        /**
+         * The emitter of the subscription.
+         */
+        private final SseEmitter emitter;
+
+        /**
+         * The status changes held back during the replay, or null once the replay is done.
+         */
+        private List<Set<ResponseBodyEmitter.DataWithMediaType>> heldBack = new ArrayList<>();
+
+        /**
+         * Constructor for the FeedSubscription class.
+         *
+         * @param emitter is the emitter of the subscription.
+         */
+        FeedSubscription(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        /**
+         * Sends an event, or holds it back if it is a status change published during the replay.
+         * Other events, such as heartbeats, are not needed during the replay and are dropped.
+         *
+         * @param event        is the event.
+         * @param statusChange is true if the event is a status change.
+         * @throws IOException if the event could not be sent.
+         */
+        void send(Set<ResponseBodyEmitter.DataWithMediaType> event, boolean statusChange) throws IOException {
+            synchronized (this) {
+                if (heldBack != null) {
+                    if (statusChange) {
+                        heldBack.add(event);
+                    }
+                    return;
+                }
+            }
+            emitter.send(event);
+        }
+
+        /**
+         * Sends the status changes held back during the replay, in the order they were published,
+         * and then lets the dispatcher send the next ones directly.
+         *
+         * @throws IOException if an event could not be sent.
+         */
+        void replayed() throws IOException {
+            while (true) {
+                List<Set<ResponseBodyEmitter.DataWithMediaType>> events;
+                synchronized (this) {
+                    if (heldBack.isEmpty()) {
+                        heldBack = null;
+                        return;
+                    }
+                    events = heldBack;
+                    heldBack = new ArrayList<>();
+                }
+                for (Set<ResponseBodyEmitter.DataWithMediaType> event : events) {
+                    emitter.send(event);
+                }
+            }
+        }
+    }
+}
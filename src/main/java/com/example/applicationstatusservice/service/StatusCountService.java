@@ -0,0 +1,218 @@
+package com.example.applicationstatusservice.service;
+
+import com.example.applicationstatusservice.model.Status;
+import com.example.applicationstatusservice.model.dto.StatusCountsDTO;
+import com.example.applicationstatusservice.repository.ApplicationStatusRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * StatusCountService keeps the number of applications with each status in memory, so that
+ * reading the counts does not scan the Application_status table. Every write reports the net
+ * change of the counts it made, which is applied once its transaction has committed. A periodic
+ * reconciliation counts the table again and corrects the counters, which also loads them when
+ * the application starts. The counters are striped, so concurrent writes do not contend on them.
+ * Two transactions setting the first status of the same application at the same time both read
+ * no previous status, so such a race drifts the counters until the next reconciliation.
+ */
+@Service
+public class StatusCountService {
+
+    /**
+     * Logger to log the reconciliations of the counters.
+     */
+    private static final Logger logger = LogManager.getLogger(StatusCountService.class);
+
+    /**
+     * An instance of applicationStatusRepository used to count the statuses in the Application_status table.
+     */
+    private final ApplicationStatusRepository applicationStatusRepository;
+
+    /**
+     * The number of applications with each status.
+     */
+    private final Map<Status, LongAdder> counts = new EnumMap<>(Status.class);
+
+    /**
+     * The number of writes that have reported a change of the counts.
+     */
+    private final LongAdder writesStarted = new LongAdder();
+
+    /**
+     * The number of reported writes whose transaction has completed, and whose change has been applied if it committed.
+     */
+    private final LongAdder writesCompleted = new LongAdder();
+
+    /**
+     * Counter of the corrections made to the counters by the reconciliations.
+     */
+    private final Counter driftCounter;
+
+    /**
+     * True once the counters have been reconciled with the table, false again after a write
+     * that did not report its change of the counts, such as an import.
+     */
+    private volatile boolean reconciled;
+
+    /**
+     * Constructor for the StatusCountService class.
+     * {@code @Autowired} provides automatic dependency injection.
+     *
+     * @param applicationStatusRepository handles the counting of the statuses in the Application_status table.
+     * @param meterRegistry               registers the counters and the metrics of the reconciliations.
+     */
+    @Autowired
+    public StatusCountService(ApplicationStatusRepository applicationStatusRepository, MeterRegistry meterRegistry) {
+        this.applicationStatusRepository = applicationStatusRepository;
+        for (Status status : Status.values()) {
+            LongAdder count = new LongAdder();
+            counts.put(status, count);
+            Gauge.builder("application.status.count", count, LongAdder::sum).tag("status", status.getValue()).description("Applications with each status").register(meterRegistry);
+        }
+        this.driftCounter = Counter.builder("application.status.count.drift").description("Corrections made to the status counters by the reconciliations").register(meterRegistry);
+    }
+
+    /**
+     * Method returning the number of applications with each status. Until the counters have been
+     * reconciled the statuses are counted in the table instead.
+     *
+     * @return the number of applications with each status.
+     */
+    public StatusCountsDTO getStatusCounts() {
+        if (!reconciled) {
+            reconcile();
+            if (!reconciled) {
+                Map<Status, Long> counted = applicationStatusRepository.countStatuses();
+                return new StatusCountsDTO(counted.getOrDefault(Status.PENDING, 0L), counted.getOrDefault(Status.ACCEPT, 0L), counted.getOrDefault(Status.REJECT, 0L));
+            }
+        }
+        return new StatusCountsDTO(counts.get(Status.PENDING).sum(), counts.get(Status.ACCEPT).sum(), counts.get(Status.REJECT).sum());
+    }
+
+    /**
+     * Records that the status of an application has been set, decrementing the count of the
+     * previous status and incrementing the count of the new one once the transaction has committed.
+     *
+     * @param previousStatus is the status the application had before, or null if it had none.
+     * @param status         is the status that was set.
+     */
+    public void recordChange(Status previousStatus, Status status) {
+        if (previousStatus == status) {
+            return;
+        }
+        Map<Status, Long> countChanges = new EnumMap<>(Status.class);
+        countChanges.put(status, 1L);
+        if (previousStatus != null) {
+            countChanges.put(previousStatus, -1L);
+        }
+        recordChanges(countChanges);
+    }
+
+    /**
+     * Records the net change of the number of applications with each status made by a write,
+     * applied to the counters once the transaction has committed.
+     *
+     * @param countChanges is the net change of the number of applications with each status.
+     */
+    public void recordChanges(Map<Status, Long> countChanges) {
+        if (countChanges.isEmpty()) {
+            return;
+        }
+        Map<Status, Long> applied = new EnumMap<>(countChanges);
+        afterCompletion(committed -> {
+            if (committed) {
+                applied.forEach((status, change) -> counts.get(status).add(change));
+            }
+        });
+    }
+
+    /**
+     * Records a write whose change of the counts is unknown, such as an import. Once the
+     * transaction has committed the counters are counted again before they are read.
+     */
+    public void invalidate() {
+        afterCompletion(committed -> {
+            if (committed) {
+                reconciled = false;
+            }
+        });
+    }
+
+    /**
+     * Counts the statuses in the table and corrects the counters that differ. The counts are only
+     * compared when no reported write was running before or during the count, since such a write
+     * may be included in one of them and not the other. Otherwise the reconciliation is left to the
+     * next run.
+     */
+    @Scheduled(fixedDelayString = "${application-status.counts.reconcile-interval:PT5M}")
+    public synchronized void reconcile() {
+        long started = writesStarted.sum();
+        if (started != writesCompleted.sum()) {
+            logger.debug("Skipped the reconciliation of the status counters during a write ");
+            return;
+        }
+        Map<Status, Long> counted = applicationStatusRepository.countStatuses();
+        Map<Status, Long> current = new EnumMap<>(Status.class);
+        counts.forEach((status, count) -> current.put(status, count.sum()));
+        if (writesStarted.sum() != started) {
+            logger.debug("Skipped the reconciliation of the status counters during a write ");
+            return;
+        }
+        long drift = 0;
+        for (Status status : Status.values()) {
+            long correction = counted.getOrDefault(status, 0L) - current.get(status);
+            if (correction != 0) {
+                counts.get(status).add(correction);
+                drift += Math.abs(correction);
+            }
+        }
+        if (!reconciled) {
+            reconciled = true;
+            logger.info("Loaded the status counters: {} ", counted);
+        } else if (drift > 0) {
+            driftCounter.increment(drift);
+            logger.warn("Corrected the status counters by {} applications, counted: {} ", drift, counted);
+        }
+    }
+
+    /**
+     * Runs an action once the current transaction has completed, or right away if there is no
+     * transaction, counting the write as running until then.
+     *
+     * @param action receives true if the transaction committed.
+     */
+    private void afterCompletion(Consumer<Boolean> action) {
+        writesStarted.increment();
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            try {
+                action.accept(true);
+            } finally {
+                writesCompleted.increment();
+            }
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                try {
+                    action.accept(status == STATUS_COMMITTED);
+                } finally {
+                    writesCompleted.increment();
+                }
+            }
+        });
+    }
+}
@@ -0,0 +1,191 @@
+package com.example.applicationstatusservice.service;
+
+import com.example.applicationstatusservice.model.Status;
+import com.example.applicationstatusservice.model.dto.StatusExportDTO;
+import com.example.applicationstatusservice.repository.ApplicationStatusRepository;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.function.Consumer;
+
+/**
+ * StatusExportService writes every application status joined with its person to an output
+ * stream, as NDJSON or CSV. The rows are read from a server-side cursor inside a read-only
+ * transaction and written one by one as they are fetched, so the memory used by an export
+ * does not grow with the size of the table.
+ */
+@Service
+@SuppressFBWarnings("EI_EXPOSE_REP2")
+public class StatusExportService {
+
+    /**
+     * Logger to log the exports.
+     */
+    private static final Logger logger = LogManager.getLogger(StatusExportService.class);
+
+    /**
+     * The header line of CSV exports.
+     */
+    private static final String CSV_HEADER = "person_id,name,surname,email,status,updated_at";
+
+    /**
+     * An instance of applicationStatusRepository used for data retrieval in the Application_status table.
+     */
+    private final ApplicationStatusRepository applicationStatusRepository;
+
+    /**
+     * Writes the rows of NDJSON exports without flushing the output after each row.
+     */
+    private final ObjectWriter rowWriter;
+
+    /**
+     * ObjectMapper creating the JSON generators of NDJSON exports.
+     */
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Constructor for the StatusExportService class.
+     * {@code @Autowired} provides automatic dependency injection.
+     *
+     * @param applicationStatusRepository handles data retrieval operations in the Application_status table.
+     * @param objectMapper                writes the rows of NDJSON exports.
+     */
+    @Autowired
+    public StatusExportService(ApplicationStatusRepository applicationStatusRepository, ObjectMapper objectMapper) {
+        this.applicationStatusRepository = applicationStatusRepository;
+        this.objectMapper = objectMapper;
+        this.rowWriter = objectMapper.writerFor(StatusExportDTO.class).without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    }
+
+    /**
+     * Method to check if an export format is supported.
+     *
+     * @param format is the requested export format.
+     * @return a response string indicating either a valid or an invalid export format.
+     */
+    public String isExportFormatValid(String format) {
+        if ("ndjson".equals(format) || "csv".equals(format)) {
+            return "VALID_DATA";
+        }
+        return "INVALID_DATA";
+    }
+
+    /**
+     * Method writing the application statuses to the output stream in the given format.
+     * {@code @Transactional(readOnly = true)} keeps the connection out of auto-commit mode,
+     * which the PostgreSQL driver needs to fetch the rows through a cursor.
+     *
+     * @param format is the export format, ndjson or csv.
+     * @param status is the status the exported rows are filtered by, or null for all statuses.
+     * @param out    is the output stream the export is written to, left open.
+     * @throws IOException if the export could not be written.
+     */
+    @Transactional(readOnly = true)
+    public void exportStatuses(String format, String status, OutputStream out) throws IOException {
+        Status filter = status == null ? null : Status.fromValue(status);
+        if ("csv".equals(format)) {
+            writeCsv(filter, out);
+        } else {
+            writeNdjson(filter, out);
+        }
+        logger.info("Exported the application statuses as {} with the status filter: {} ", format, status);
+    }
+
+    /**
+     * Writes one JSON object per line for each exported row.
+     *
+     * @param filter is the status the rows are filtered by, or null.
+     * @param out    is the output stream the export is written to.
+     * @throws IOException if the export could not be written.
+     */
+    private void writeNdjson(Status filter, OutputStream out) throws IOException {
+        JsonGenerator generator = objectMapper.getFactory().createGenerator(out).setRootValueSeparator(null);
+        forEachRow(filter, row -> {
+            try {
+                rowWriter.writeValue(generator, row);
+                generator.writeRaw('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        generator.flush();
+    }
+
+    /**
+     * Writes a header line followed by one CSV line for each exported row.
+     *
+     * @param filter is the status the rows are filtered by, or null.
+     * @param out    is the output stream the export is written to.
+     * @throws IOException if the export could not be written.
+     */
+    private void writeCsv(Status filter, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        writer.write(CSV_HEADER);
+        writer.write('\n');
+        forEachRow(filter, row -> {
+            try {
+                writer.write(row.getPerson_id().toString());
+                writer.write(',');
+                writer.write(csvField(row.getName()));
+                writer.write(',');
+                writer.write(csvField(row.getSurname()));
+                writer.write(',');
+                writer.write(csvField(row.getEmail()));
+                writer.write(',');
+                writer.write(row.getStatus());
+                writer.write(',');
+                writer.write(row.getUpdated_at() == null ? "" : row.getUpdated_at().toString());
+                writer.write('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        writer.flush();
+    }
+
+    /**
+     * Reads the exported rows, rethrowing the write errors of the consumer as IOExceptions.
+     *
+     * @param filter      is the status the rows are filtered by, or null.
+     * @param rowConsumer writes each row.
+     * @throws IOException if a row could not be written.
+     */
+    private void forEachRow(Status filter, Consumer<StatusExportDTO> rowConsumer) throws IOException {
+        try {
+            applicationStatusRepository.forEachStatusExport(filter, rowConsumer);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Quotes a CSV field if it contains a separator, a quote or a line break.
+     *
+     * @param value is the field value, possibly null.
+     * @return the field as written to the CSV export.
+     */
+    private static String csvField(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return "\"" + value.replace("\"", "\"\"") + "\"";
+    }
+}
@@ -0,0 +1,82 @@
+package com.example.applicationstatusservice.service;
+
+import com.example.applicationstatusservice.model.dto.StatusHistoryDTO;
+import com.example.applicationstatusservice.repository.ApplicationStatusRepository;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+/**
+ * StatusHistoryService reads the append-only history of status changes and maintains its
+ * monthly partitions. The history rows are written by the same statements that set the
+ * statuses, so recording a change does not add a round trip to the update path.
+ */
+@Service
+public class StatusHistoryService {
+
+    /**
+     * Logger to log the maintenance of the partitions.
+     */
+    private static final Logger logger = LogManager.getLogger(StatusHistoryService.class);
+
+    /**
+     * An instance of applicationStatusRepository used for data retrieval in the status_history table.
+     */
+    private final ApplicationStatusRepository applicationStatusRepository;
+
+    /**
+     * The maximum number of status changes returned for one application.
+     */
+    private final int maxEntries;
+
+    /**
+     * The number of months ahead of the current month partitions are created for.
+     */
+    private final int partitionMonthsAhead;
+
+    /**
+     * Constructor for the StatusHistoryService class.
+     * {@code @Autowired} provides automatic dependency injection.
+     *
+     * @param applicationStatusRepository handles data retrieval operations in the status_history table.
+     * @param maxEntries                  is the maximum number of status changes returned for one application.
+     * @param partitionMonthsAhead        is the number of months ahead partitions are created for.
+     */
+    @Autowired
+    public StatusHistoryService(ApplicationStatusRepository applicationStatusRepository,
+                                @Value("${application-status.history.max-entries:1000}") int maxEntries,
+                                @Value("${application-status.history.partition-months-ahead:2}") int partitionMonthsAhead) {
+        this.applicationStatusRepository = applicationStatusRepository;
+        this.maxEntries = maxEntries;
+        this.partitionMonthsAhead = partitionMonthsAhead;
+    }
+
+    /**
+     * Method returning the latest status changes of an application.
+     *
+     * @param personId is the person_id of the application.
+     * @return the status changes, newest first, at most the maximum number of entries.
+     */
+    @Transactional(readOnly = true)
+    public List<StatusHistoryDTO> getStatusHistory(long personId) {
+        return applicationStatusRepository.findStatusHistory(personId, maxEntries);
+    }
+
+    /**
+     * Creates the partitions of the coming months ahead of time, so that no status change is
+     * written before the partition of its month exists.
+     */
+    @Scheduled(fixedDelayString = "${application-status.history.partition-check-interval:PT6H}")
+    public void createPartitions() {
+        int created = applicationStatusRepository.createStatusHistoryPartitions(partitionMonthsAhead);
+        if (created > 0) {
+            logger.info("Created {} partitions of the status history ", created);
+        }
+    }
+}
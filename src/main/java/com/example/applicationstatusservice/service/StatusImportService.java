@@ -0,0 +1,110 @@
+package com.example.applicationstatusservice.service;
+
+import com.example.applicationstatusservice.model.dto.StatusImportResultDTO;
+import com.example.applicationstatusservice.repository.ApplicationStatusRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.InputStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * StatusImportService imports large CSV files of statuses, such as decisions migrated from
+ * another system. The file is streamed to the database with the COPY protocol instead of being
+ * read into memory, and merged into the Application_status table with one set-based upsert,
+ * so the memory used by an import does not grow with the size of the file.
+ */
+@Service
+public class StatusImportService {
+
+    /**
+     * Logger to log the imports.
+     */
+    private static final Logger logger = LogManager.getLogger(StatusImportService.class);
+
+    /**
+     * An instance of applicationStatusRepository used for data modification in the Application_status table.
+     */
+    private final ApplicationStatusRepository applicationStatusRepository;
+
+    /**
+     * The in-process cache of the current status of each application, invalidated by each import.
+     */
+    private final ApplicationStatusCache applicationStatusCache;
+
+    /**
+     * The in-memory counters of the number of applications with each status, counted again after each import.
+     */
+    private final StatusCountService statusCountService;
+
+    /**
+     * The maximum number of rejected rows reported for one import.
+     */
+    private final int maxReportedRejections;
+
+    /**
+     * Timer of the imports.
+     */
+    private final Timer importTimer;
+
+    /**
+     * Counter of the imported rows.
+     */
+    private final Counter okCounter;
+
+    /**
+     * Counter of the rejected rows.
+     */
+    private final Counter invalidDataCounter;
+
+    /**
+     * Constructor for the StatusImportService class.
+     * {@code @Autowired} provides automatic dependency injection.
+     *
+     * @param applicationStatusRepository handles data modification operations in the Application_status table.
+     * @param applicationStatusCache      caches the current status of each application.
+     * @param statusCountService          counts the applications with each status.
+     * @param maxReportedRejections       is the maximum number of rejected rows reported for one import.
+     * @param meterRegistry               registers the metrics of the imports.
+     */
+    @Autowired
+    public StatusImportService(ApplicationStatusRepository applicationStatusRepository, ApplicationStatusCache applicationStatusCache, StatusCountService statusCountService,
+                               @Value("${application-status.import.max-reported-rejections:1000}") int maxReportedRejections, MeterRegistry meterRegistry) {
+        this.applicationStatusRepository = applicationStatusRepository;
+        this.applicationStatusCache = applicationStatusCache;
+        this.statusCountService = statusCountService;
+        this.maxReportedRejections = maxReportedRejections;
+        this.importTimer = Timer.builder("application.status.upsert").tag("mode", "import").description("Time spent writing statuses to the database").register(meterRegistry);
+        this.okCounter = Counter.builder("application.status.results").tag("result", "OK").description("Results of the validation stages").register(meterRegistry);
+        this.invalidDataCounter = Counter.builder("application.status.results").tag("result", "INVALID_DATA").description("Results of the validation stages").register(meterRegistry);
+    }
+
+    /**
+     * Method importing the statuses of a CSV file with a person_id,status header.
+     * {@code @Transactional} ensures the statuses are saved to the
+     * database only if the whole file was imported.
+     *
+     * @param csv   is the CSV file.
+     * @param actor is the user importing the statuses, recorded in the status history.
+     * @return the number of imported and rejected rows, and the first rejected rows.
+     */
+    @Transactional
+    public StatusImportResultDTO importStatuses(InputStream csv, String actor) {
+        long start = System.nanoTime();
+        StatusImportResultDTO result = applicationStatusRepository.importStatuses(csv, maxReportedRejections, actor);
+        importTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        applicationStatusCache.invalidateAll();
+        statusCountService.invalidate();
+        okCounter.increment(result.getImported());
+        invalidDataCounter.increment(result.getRejected());
+        logger.info("Imported the status of {} applications, {} rows were rejected ", result.getImported(), result.getRejected());
+        return result;
+    }
+}
@@ -0,0 +1,245 @@
+package com.example.applicationstatusservice.service;
+
+import com.example.applicationstatusservice.model.Status;
+import com.example.applicationstatusservice.model.dto.ApplicationStatusDTO;
+import com.example.applicationstatusservice.model.dto.OperationStatusDTO;
+import com.example.applicationstatusservice.repository.ApplicationStatusRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * StatusUpdateQueue is the write-behind mode of status updates. Validated updates are
+ * enqueued and acknowledged with an operation id, and a background writer flushes them
+ * in one batched transaction at most every maximum delay. Updates are coalesced per
+ * person_id while they wait, so only the last status of each person is written and the
+ * number of database writes follows the number of distinct applicants, not of requests.
+ */
+@Service
+public class StatusUpdateQueue {
+
+    /**
+     * Logger to log the flushes of the queue.
+     */
+    private static final Logger logger = LogManager.getLogger(StatusUpdateQueue.class);
+
+    /**
+     * An instance of applicationStatusRepository used for data modification in the Application_status table.
+     */
+    private final ApplicationStatusRepository applicationStatusRepository;
+
+    /**
+     * The in-process cache of the current status of each application, invalidated by each flush.
+     */
+    private final ApplicationStatusCache applicationStatusCache;
+
+    /**
+     * The in-memory counters of the number of applications with each status, updated by each flush.
+     */
+    private final StatusCountService statusCountService;
+
+    /**
+     * Runs each flush in one transaction.
+     */
+    private final TransactionTemplate transactionTemplate;
+
+    /**
+     * Whether status updates are written through the queue instead of synchronously.
+     */
+    private final boolean enabled;
+
+    /**
+     * The pending update of each person_id, replaced by later updates until it is flushed.
+     */
+    private final Map<Long, PendingUpdate> pending = new ConcurrentHashMap<>();
+
+    /**
+     * Bounded registry of the recent operations by operation id, used to look up their state.
+     */
+    private final Cache<String, OperationStatusDTO> operations;
+
+    /**
+     * Counter of the updates replaced by a later update for the same person_id before being written.
+     */
+    private final Counter coalescedCounter;
+
+    /**
+     * Timer of the flushes.
+     */
+    private final Timer flushTimer;
+
+    /**
+     * Constructor for the StatusUpdateQueue class.
+     * {@code @Autowired} provides automatic dependency injection.
+     *
+     * @param applicationStatusRepository handles data modification operations in the Application_status table.
+     * @param applicationStatusCache      caches the current status of each application.
+     * @param statusCountService          counts the applications with each status.
+     * @param transactionManager          is used to run each flush in one transaction.
+     * @param meterRegistry               registers the metrics of the queue.
+     * @param enabled                     is true when status updates are written through the queue.
+     * @param maxOperations               is the maximum number of operations kept for lookups.
+     * @param operationTtl                is how long an operation can be looked up after its last change.
+     */
+    @Autowired
+    public StatusUpdateQueue(ApplicationStatusRepository applicationStatusRepository, ApplicationStatusCache applicationStatusCache, StatusCountService statusCountService, PlatformTransactionManager transactionManager, MeterRegistry meterRegistry,
+                             @Value("${application-status.write-behind.enabled:false}") boolean enabled,
+                             @Value("${application-status.write-behind.max-operations:100000}") long maxOperations,
+                             @Value("${application-status.write-behind.operation-ttl:PT1H}") Duration operationTtl) {
+        this.applicationStatusRepository = applicationStatusRepository;
+        this.applicationStatusCache = applicationStatusCache;
+        this.statusCountService = statusCountService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.operations = Caffeine.newBuilder().maximumSize(maxOperations).expireAfterWrite(operationTtl).build();
+        this.coalescedCounter = Counter.builder("application.status.write.behind.coalesced").description("Status updates replaced by a later update for the same person before being written").register(meterRegistry);
+        this.flushTimer = Timer.builder("application.status.upsert").tag("mode", "write_behind").description("Time spent writing statuses to the database").register(meterRegistry);
+        Gauge.builder("application.status.write.behind.pending", pending, Map::size).description("Persons with a status update waiting to be written").register(meterRegistry);
+    }
+
+    /**
+     * Returns whether status updates are written through the queue.
+     *
+     * @return true if the write-behind mode is enabled.
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Submits a validated status update to the queue, replacing the pending update of the same person_id.
+     *
+     * @param applicationStatusDTO Data transfer object representing a valid status for an application.
+     * @param actor                is the user setting the status, recorded in the status history.
+     * @return the PENDING operation of the update.
+     */
+    public OperationStatusDTO submit(ApplicationStatusDTO applicationStatusDTO, String actor) {
+        OperationStatusDTO operation = new OperationStatusDTO(UUID.randomUUID().toString(), applicationStatusDTO.getPerson_id(), applicationStatusDTO.getStatus(), "PENDING");
+        operations.put(operation.getOperation_id(), operation);
+        PendingUpdate superseded = pending.put(operation.getPerson_id(), new PendingUpdate(operation, actor));
+        if (superseded != null) {
+            complete(superseded.operation(), "SUPERSEDED");
+            coalescedCounter.increment();
+        }
+        return operation;
+    }
+
+    /**
+     * Looks up the state of an operation.
+     *
+     * @param operationId is the id of the operation.
+     * @return the operation, or null if it is unknown or has expired.
+     */
+    public OperationStatusDTO getOperation(String operationId) {
+        return operations.getIfPresent(operationId);
+    }
+
+    /**
+     * Writes the pending updates in one batched transaction, with one batch for each actor.
+     * Updates enqueued while the flush is running are written by the next flush, after this
+     * one has completed.
+     */
+    @Scheduled(fixedDelayString = "${application-status.write-behind.max-delay:PT0.2S}")
+    public synchronized void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        List<PendingUpdate> updates = new ArrayList<>();
+        for (Long personId : pending.keySet()) {
+            PendingUpdate update = pending.remove(personId);
+            if (update != null) {
+                updates.add(update);
+            }
+        }
+        write(updates);
+    }
+
+    /**
+     * Writes the pending update of one person_id, if there is one, so that a conditional update
+     * written synchronously is checked against it and is not overwritten by a later flush.
+     * An update of the person_id taken by a running flush is written before this method returns.
+     *
+     * @param personId is the person_id whose pending update is written.
+     */
+    public synchronized void flush(Long personId) {
+        PendingUpdate update = pending.remove(personId);
+        if (update != null) {
+            write(List.of(update));
+        }
+    }
+
+    /**
+     * Writes updates taken from the queue in one batched transaction, with one batch for each actor.
+     *
+     * @param updates are the updates, at most one for each person_id.
+     */
+    private void write(List<PendingUpdate> updates) {
+        Map<String, Map<Long, Status>> statusByPersonIdByActor = new LinkedHashMap<>();
+        List<OperationStatusDTO> flushed = new ArrayList<>();
+        for (PendingUpdate update : updates) {
+            statusByPersonIdByActor.computeIfAbsent(update.actor(), actor -> new LinkedHashMap<>()).put(update.operation().getPerson_id(), Status.fromValue(update.operation().getStatus()));
+            flushed.add(update.operation());
+        }
+        long start = System.nanoTime();
+        try {
+            transactionTemplate.executeWithoutResult(tx -> statusByPersonIdByActor.forEach((actor, statusByPersonId) -> {
+                statusCountService.recordChanges(applicationStatusRepository.batchUpsertStatuses(statusByPersonId, actor));
+                applicationStatusCache.invalidate(statusByPersonId.keySet());
+            }));
+            flushTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            flushed.forEach(operation -> complete(operation, "COMPLETED"));
+            logger.debug("Flushed the status of {} applications ", flushed.size());
+        } catch (RuntimeException e) {
+            flushed.forEach(operation -> complete(operation, "FAILED"));
+            logger.error("Failed to flush the status of {} applications: {} ", flushed.size(), e.getMessage());
+        }
+    }
+
+    /**
+     * Writes the remaining updates before the application shuts down.
+     */
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    /**
+     * Records the final state of an operation.
+     *
+     * @param operation is the operation.
+     * @param state     is its final state.
+     */
+    private void complete(OperationStatusDTO operation, String state) {
+        operations.put(operation.getOperation_id(), new OperationStatusDTO(operation.getOperation_id(), operation.getPerson_id(), operation.getStatus(), state));
+    }
+
+    /**
+     * PendingUpdate is an update waiting to be flushed, with the user who submitted it.
+     *
+     * @param operation is the PENDING operation of the update.
+     * @param actor     is the user setting the status.
+     */
+    private record PendingUpdate(OperationStatusDTO operation, String actor) {
+    }
+}
@@ -0,0 +1,126 @@
+-- Runs after Hibernate has created/updated the tables (spring.jpa.defer-datasource-initialization=true).
+-- Every statement must be idempotent since the script runs on each startup.
+
+-- Creates the tables of the entities when Hibernate does not, in the JDBC persistence mode (the jdbc profile).
+-- The definitions match the tables Hibernate creates, so in the JPA persistence mode these statements do nothing.
+CREATE TABLE IF NOT EXISTS person (
+    person_id bigserial PRIMARY KEY,
+    email varchar(255),
+    name varchar(255),
+    password varchar(255),
+    pnr varchar(255),
+    role_id integer NOT NULL,
+    surname varchar(255),
+    username varchar(255)
+);
+
+CREATE TABLE IF NOT EXISTS application_status (
+    application_status_id bigserial PRIMARY KEY,
+    status smallint,
+    updated_at timestamp(6) with time zone,
+    version bigint NOT NULL DEFAULT 0,
+    person_id bigint UNIQUE REFERENCES person (person_id)
+);
+
+-- Adds the columns the status table has gained since it was first created, since CREATE TABLE IF NOT EXISTS leaves
+-- an existing table as it is and Hibernate does not update the tables in the JDBC persistence mode.
+ALTER TABLE application_status ADD COLUMN IF NOT EXISTS updated_at timestamp(6) with time zone;
+ALTER TABLE application_status ADD COLUMN IF NOT EXISTS version bigint NOT NULL DEFAULT 0;
+
+-- Makes each value of the person_id sequence reserve a block of 50 person_ids (Person.ID_ALLOCATION_SIZE), the value
+-- being the last person_id of the block, so that registrations read the sequence once per block. Inserts relying on the
+-- default of the column, such as those of other services, still take a value each and never collide with a block.
+DO '
+BEGIN
+    IF (SELECT increment_by FROM pg_sequences WHERE schemaname = current_schema() AND sequencename = ''person_person_id_seq'') <> 50 THEN
+        ALTER SEQUENCE person_person_id_seq INCREMENT BY 50;
+    END IF;
+    IF (SELECT column_default FROM information_schema.columns
+        WHERE table_schema = current_schema() AND table_name = ''person'' AND column_name = ''person_id'') IS NULL THEN
+        ALTER TABLE person ALTER COLUMN person_id SET DEFAULT nextval(''person_person_id_seq'');
+        ALTER SEQUENCE person_person_id_seq OWNED BY person.person_id;
+    END IF;
+END';
+
+-- Indexes the case-insensitive lookups of usernames and emails and the lookups of pnrs, used by the availability checks
+-- and the duplicate checks of registrations. The indexes are not unique, since the table may already hold usernames or
+-- emails differing only in case that were registered before the checks were case-insensitive.
+CREATE INDEX IF NOT EXISTS person_lower_username_idx ON person (lower(username));
+CREATE INDEX IF NOT EXISTS person_lower_email_idx ON person (lower(email));
+CREATE INDEX IF NOT EXISTS person_pnr_idx ON person (pnr);
+
+-- Makes person_id unique so that status updates can be written as INSERT ... ON CONFLICT upserts.
+-- Duplicate rows left behind by earlier concurrent updates are removed first, keeping the newest one.
+DO '
+BEGIN
+    IF to_regclass(''application_status_person_id_key'') IS NULL THEN
+        DELETE FROM application_status a USING application_status b
+        WHERE a.person_id = b.person_id AND a.application_status_id < b.application_status_id;
+        CREATE UNIQUE INDEX application_status_person_id_key ON application_status (person_id);
+    END IF;
+END';
+
+-- Migrates the status column from its VARCHAR(7) value to the SMALLINT code of the Status enum.
+DO '
+BEGIN
+    IF EXISTS (SELECT 1 FROM information_schema.columns
+               WHERE table_name = ''application_status'' AND column_name = ''status'' AND data_type = ''character varying'') THEN
+        ALTER TABLE application_status ALTER COLUMN status TYPE smallint
+            USING CASE status WHEN ''Pending'' THEN 0 WHEN ''Accept'' THEN 1 WHEN ''Reject'' THEN 2 END;
+    END IF;
+END';
+
+-- Gives the rows written before the version column existed version 0, and lets the upserts insert new rows with version 0.
+-- Every statement writing a status increments the version, which conditional status updates compare against.
+DO '
+BEGIN
+    IF EXISTS (SELECT 1 FROM information_schema.columns
+               WHERE table_name = ''application_status'' AND column_name = ''version'' AND is_nullable = ''YES'') THEN
+        UPDATE application_status SET version = 0 WHERE version IS NULL;
+        ALTER TABLE application_status ALTER COLUMN version SET DEFAULT 0, ALTER COLUMN version SET NOT NULL;
+    END IF;
+END';
+
+-- Transactional outbox of status changes. Every statement setting a status also inserts the change here,
+-- in the same transaction, and the status change feed publishes the rows in id order.
+CREATE TABLE IF NOT EXISTS status_outbox (
+    id bigint GENERATED ALWAYS AS IDENTITY PRIMARY KEY,
+    person_id bigint NOT NULL,
+    status smallint NOT NULL,
+    created_at timestamp with time zone NOT NULL DEFAULT clock_timestamp()
+);
+
+-- Append-only history of status changes, range-partitioned by month so that old months can be detached
+-- (ALTER TABLE status_history DETACH PARTITION status_history_y2024m01) without rewriting the table.
+-- There is no default partition, so creating a new partition never has to scan existing rows.
+CREATE TABLE IF NOT EXISTS status_history (
+    person_id bigint NOT NULL,
+    old_status smallint,
+    new_status smallint NOT NULL,
+    actor varchar(255),
+    changed_at timestamp with time zone NOT NULL DEFAULT clock_timestamp()
+) PARTITION BY RANGE (changed_at);
+
+CREATE INDEX IF NOT EXISTS status_history_person_id_changed_at_idx ON status_history (person_id, changed_at);
+
+-- Creates the monthly partitions of status_history from the current month, in UTC, up to months_ahead months ahead,
+-- and returns the number of partitions created.
+CREATE OR REPLACE FUNCTION create_status_history_partitions(months_ahead integer) RETURNS integer LANGUAGE plpgsql AS '
+DECLARE
+    month_start timestamp := date_trunc(''month'', now() AT TIME ZONE ''UTC'');
+    partition_name text;
+    created integer := 0;
+BEGIN
+    FOR i IN 0..months_ahead LOOP
+        partition_name := ''status_history_'' || to_char(month_start + make_interval(months => i), ''"y"YYYY"m"MM'');
+        IF to_regclass(partition_name) IS NULL THEN
+            EXECUTE format(''CREATE TABLE %I PARTITION OF status_history FOR VALUES FROM (%L) TO (%L)'', partition_name,
+                           (month_start + make_interval(months => i)) AT TIME ZONE ''UTC'',
+                           (month_start + make_interval(months => i + 1)) AT TIME ZONE ''UTC'');
+            created := created + 1;
+        END IF;
+    END LOOP;
+    RETURN created;
+END';
+
+SELECT create_status_history_partitions(2);
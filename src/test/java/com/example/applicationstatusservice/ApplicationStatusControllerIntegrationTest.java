@@ -3,24 +3,53 @@ package com.example.applicationstatusservice;
 import com.example.applicationstatusservice.controller.ApplicationStatusController;
 import com.example.applicationstatusservice.model.Person;
 import com.example.applicationstatusservice.model.dto.ApplicationStatusDTO;
+import com.example.applicationstatusservice.model.dto.ApplicationStatusResultDTO;
+import com.example.applicationstatusservice.model.dto.CurrentStatusDTO;
+import com.example.applicationstatusservice.model.dto.ErrorDTO;
+import com.example.applicationstatusservice.model.dto.PersonAvailabilityDTO;
 import com.example.applicationstatusservice.model.dto.PersonDTO;
+import com.example.applicationstatusservice.model.dto.PersonRegistrationResultDTO;
+import com.example.applicationstatusservice.model.dto.RejectedRowDTO;
+import com.example.applicationstatusservice.model.dto.StatusImportResultDTO;
 import com.example.applicationstatusservice.repository.PersonRepository;
+import com.example.applicationstatusservice.service.ApplicationStatusService;
 import com.example.applicationstatusservice.service.JwtAuthService;
 import com.example.applicationstatusservice.service.PersonService;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementSetter;
+import org.springframework.jdbc.core.RowCallbackHandler;
 import org.springframework.mock.web.MockHttpServletRequest;
 import org.springframework.test.context.DynamicPropertyRegistry;
 import org.springframework.test.context.DynamicPropertySource;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.testcontainers.containers.PostgreSQLContainer;
 import org.testcontainers.junit.jupiter.Container;
 import org.testcontainers.junit.jupiter.Testcontainers;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 
 /**
  * ApplicationStatusControllerIntegrationTest test uses TestContainers and demonstrates integration testing.
@@ -31,10 +60,26 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
  * the correct HTTP status response.
  * 3. Checking if a valid or invalid JWT token, received through header returns
  * the correct HTTP status response.
+ * 4. Checking if a batch of statuses returns the correct HTTP status response and a result for each item.
+ * 5. Checking if the current status can be read by the applicant it belongs to, with an ETag,
+ * and not by other applicants.
+ * 6. Checking if a bulk status lookup returns the statuses of all requested person_ids with
+ * a single query, however many person_ids are requested.
+ * 7. Checking if the export of the statuses is filtered by status, written as CSV or NDJSON,
+ * and compressed with gzip when accepted.
+ * 8. Checking if a CSV import sets the statuses of the valid rows and reports the rejected rows with their reason.
+ * 9. Checking if a status update expecting a status or version is only applied while the application
+ * still has it, and otherwise returns HTTP status 409.
+ * 10. Checking if a bulk registration returns the correct HTTP status response and a result for each applicant.
+ * 11. Checking if an availability check returns the correct HTTP status response and the availability of each value.
+ * The status change feed only polls the outbox at startup, so its queries are not counted
+ * with the queries of the tests.
  * {@code @Transactional} ensures application is saved to the database only if
  * the transaction is successful.
  */
-@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties = {
+        "application-status.status-feed.poll-interval=PT1H",
+        "application-status.status-feed.cleanup-interval=PT1H"})
 @Testcontainers
 @Transactional
 public class ApplicationStatusControllerIntegrationTest {
@@ -75,6 +120,25 @@ public class ApplicationStatusControllerIntegrationTest {
     @Autowired
     PersonRepository personRepository;
 
+    /**
+     * ApplicationStatusService is an autowired instance containing business-logic for status-related operations.
+     */
+    @Autowired
+    ApplicationStatusService applicationStatusService;
+
+    /**
+     * JdbcTemplate is a spy on the JdbcTemplate of the application, used to count the executed queries.
+     * {@code @SpyBean} wraps the bean so that its invocations can be verified.
+     */
+    @SpyBean
+    JdbcTemplate jdbcTemplate;
+
+    /**
+     * ObjectMapper is an autowired instance used to read the streamed response bodies.
+     */
+    @Autowired
+    ObjectMapper objectMapper;
+
     /**
      * The method sets the property JDBC URL spring.datasource.url
      * dynamically for the postgreSQL container.
@@ -266,4 +330,262 @@ public class ApplicationStatusControllerIntegrationTest {
         ResponseEntity<Object> resp = applicationStatusController.handleApplicationStatus(testHeader, applicationStatusDTO, req);
         assertEquals(HttpStatus.BAD_REQUEST, resp.getStatusCode());
     }
-}
\ No newline at end of file
+
+    /**
+     * JUnit test to check if a batch of statuses returns the correct HTTP Status response
+     * together with a result for each item.
+     */
+    @Test
+    void batchValid() throws Exception {
+        PersonDTO personDTO = new PersonDTO("Clara", "Eklund", "202203323434", "claraeklund@kth.com", "123", "claraek");
+        personService.saveApplicant(personDTO);
+        Person person = personRepository.findByUsername("claraek");
+        Long personId = person.getPersonId();
+
+        MockHttpServletRequest req = new MockHttpServletRequest();
+        req.addHeader("X-Forwarded-For", "127.0.0.1");
+        String testToken = jwtAuthService.jwtCreateTestTokensRecruiter();
+        String testHeader = "Bearer " + testToken;
+        List<ApplicationStatusDTO> applicationStatusDTOs = List.of(new ApplicationStatusDTO(personId, "Pending"), new ApplicationStatusDTO(4000L, "Pending"), new ApplicationStatusDTO(personId, "random"), new ApplicationStatusDTO(personId, "Accept"));
+        ResponseEntity<Object> resp = applicationStatusController.handleApplicationStatuses(testHeader, applicationStatusDTOs, req);
+        assertEquals(HttpStatus.OK, resp.getStatusCode());
+        List<String> results = ((List<?>) resp.getBody()).stream().map(result -> ((ApplicationStatusResultDTO) result).getResult()).toList();
+        assertEquals(List.of("OK", "INVALID_DATA", "INVALID_DATA", "OK"), results);
+    }
+
+    /**
+     * JUnit test to check if a batch with an invalid JWT token returns the correct HTTP Status response.
+     */
+    @Test
+    void batchJwtTokenInValid() throws Exception {
+        MockHttpServletRequest req = new MockHttpServletRequest();
+        req.addHeader("X-Forwarded-For", "127.0.0.1");
+        String testHeader = "Bearer INVALID_TOKEN";
+        ResponseEntity<Object> resp = applicationStatusController.handleApplicationStatuses(testHeader, List.of(new ApplicationStatusDTO(4000L, "Pending")), req);
+        assertEquals(HttpStatus.BAD_REQUEST, resp.getStatusCode());
+    }
+
+    /**
+     * JUnit test to check if a bulk registration returns the correct HTTP Status response
+     * together with a result for each applicant, and is rejected with an applicant token.
+     */
+    @Test
+    void registrationValid() throws Exception {
+        MockHttpServletRequest req = new MockHttpServletRequest();
+        req.addHeader("X-Forwarded-For", "127.0.0.1");
+        List<PersonDTO> personDTOs = List.of(new PersonDTO("Clara", "Eklund", "202203323434", "claraeklund@kth.com", "123", "claraek"), new PersonDTO("Clara", "Eklund", "", "claraeklund2@kth.com", "123", "claraek2"));
+        ResponseEntity<Object> resp = applicationStatusController.handleApplicantRegistration("Bearer " + jwtAuthService.jwtCreateTestTokensApplicant(), personDTOs, req);
+        assertEquals(HttpStatus.BAD_REQUEST, resp.getStatusCode());
+
+        resp = applicationStatusController.handleApplicantRegistration("Bearer " + jwtAuthService.jwtCreateTestTokensRecruiter(), personDTOs, req);
+        assertEquals(HttpStatus.OK, resp.getStatusCode());
+        List<String> results = ((List<?>) resp.getBody()).stream().map(result -> ((PersonRegistrationResultDTO) result).getResult()).toList();
+        assertEquals(List.of("OK", "INVALID_DATA"), results);
+        assertNotNull(personRepository.findByUsername("claraek"));
+    }
+
+    /**
+     * JUnit test to check if an availability check returns the correct HTTP Status response
+     * together with the availability of each value, and is rejected without a value.
+     */
+    @Test
+    void availabilityValid() throws Exception {
+        personService.saveApplicant(new PersonDTO("Clara", "Eklund", "202203323434", "claraeklund@kth.com", "123", "claraek"));
+
+        MockHttpServletRequest req = new MockHttpServletRequest();
+        req.addHeader("X-Forwarded-For", "127.0.0.1");
+        String testHeader = "Bearer " + jwtAuthService.jwtCreateTestTokensRecruiter();
+        ResponseEntity<Object> resp = applicationStatusController.handleAvailability(testHeader, "ClaraEK", "claraeklund2@kth.com", null, req);
+        assertEquals(HttpStatus.OK, resp.getStatusCode());
+        PersonAvailabilityDTO availability = (PersonAvailabilityDTO) resp.getBody();
+        assertEquals("TAKEN", availability.getUsername());
+        assertEquals("AVAILABLE", availability.getEmail());
+
+        resp = applicationStatusController.handleAvailability(testHeader, null, "", null, req);
+        assertEquals(HttpStatus.BAD_REQUEST, resp.getStatusCode());
+        resp = applicationStatusController.handleAvailability("Bearer " + jwtAuthService.jwtCreateTestTokensApplicant(), "claraek", null, null, req);
+        assertEquals(HttpStatus.BAD_REQUEST, resp.getStatusCode());
+    }
+
+    /**
+     * JUnit test to check if an applicant can read its own current status, with an ETag, but not the status of others.
+     */
+    @Test
+    void currentStatusReadByApplicant() throws Exception {
+        PersonDTO personDTO = new PersonDTO("Clara", "Eklund", "202203323434", "claraeklund@kth.com", "123", "claraek");
+        personService.saveApplicant(personDTO);
+        Person person = personRepository.findByUsername("claraek");
+        Long personId = person.getPersonId();
+
+        MockHttpServletRequest req = new MockHttpServletRequest();
+        req.addHeader("X-Forwarded-For", "127.0.0.1");
+        String recruiterHeader = "Bearer " + jwtAuthService.jwtCreateTestTokensRecruiter();
+        applicationStatusController.handleApplicationStatus(recruiterHeader, new ApplicationStatusDTO(personId, "Accept"), req);
+
+        String applicantHeader = "Bearer " + jwtAuthService.jwtCreateTestTokensApplicant(personId);
+        ResponseEntity<Object> resp = applicationStatusController.handleCurrentStatus(applicantHeader, personId, req);
+        assertEquals(HttpStatus.OK, resp.getStatusCode());
+        assertEquals("Accept", ((CurrentStatusDTO) resp.getBody()).getStatus());
+        assertNotNull(resp.getHeaders().getETag());
+
+        String otherApplicantHeader = "Bearer " + jwtAuthService.jwtCreateTestTokensApplicant(personId + 1);
+        assertEquals(HttpStatus.BAD_REQUEST, applicationStatusController.handleCurrentStatus(otherApplicantHeader, personId, req).getStatusCode());
+    }
+
+    /**
+     * JUnit test to check if an update expecting the current version is applied and increments the version,
+     * and if updates expecting an outdated version or another status are rejected with HTTP status 409.
+     */
+    @Test
+    void conditionalUpdateConflict() throws Exception {
+        PersonDTO personDTO = new PersonDTO("Clara", "Eklund", "202203323434", "claraeklund@kth.com", "123", "claraek");
+        personService.saveApplicant(personDTO);
+        Long personId = personRepository.findByUsername("claraek").getPersonId();
+
+        MockHttpServletRequest req = new MockHttpServletRequest();
+        req.addHeader("X-Forwarded-For", "127.0.0.1");
+        String testHeader = "Bearer " + jwtAuthService.jwtCreateTestTokensRecruiter();
+        assertEquals(HttpStatus.CONFLICT, applicationStatusController.handleApplicationStatus(testHeader, new ApplicationStatusDTO(personId, "Accept", null, 0L), req).getStatusCode());
+        applicationStatusController.handleApplicationStatus(testHeader, new ApplicationStatusDTO(personId, "Pending"), req);
+        long version = ((CurrentStatusDTO) applicationStatusController.handleCurrentStatus(testHeader, personId, req).getBody()).getVersion();
+
+        ResponseEntity<Object> resp = applicationStatusController.handleApplicationStatus(testHeader, new ApplicationStatusDTO(personId, "Accept", "Pending", version), req);
+        assertEquals(HttpStatus.OK, resp.getStatusCode());
+        CurrentStatusDTO currentStatus = (CurrentStatusDTO) applicationStatusController.handleCurrentStatus(testHeader, personId, req).getBody();
+        assertEquals("Accept", currentStatus.getStatus());
+        assertEquals(version + 1, currentStatus.getVersion());
+
+        resp = applicationStatusController.handleApplicationStatus(testHeader, new ApplicationStatusDTO(personId, "Reject", null, version), req);
+        assertEquals(HttpStatus.CONFLICT, resp.getStatusCode());
+        assertEquals("CONFLICT", ((ErrorDTO) resp.getBody()).getError());
+        assertEquals(HttpStatus.CONFLICT, applicationStatusController.handleApplicationStatus(testHeader, new ApplicationStatusDTO(personId, "Reject", "Pending", null), req).getStatusCode());
+        assertEquals("Accept", ((CurrentStatusDTO) applicationStatusController.handleCurrentStatus(testHeader, personId, req).getBody()).getStatus());
+    }
+
+    /**
+     * JUnit test to check if a bulk status lookup returns the status of each person_id that has one,
+     * and that the number of queries stays the same for 3 and for 300 requested person_ids.
+     */
+    @Test
+    void currentStatusesSingleQuery() throws Exception {
+        PersonDTO personDTO = new PersonDTO("Clara", "Eklund", "202203323434", "claraeklund@kth.com", "123", "claraek");
+        personService.saveApplicant(personDTO);
+        Long personId = personRepository.findByUsername("claraek").getPersonId();
+        PersonDTO otherPersonDTO = new PersonDTO("Erik", "Berg", "202203323435", "erikberg@kth.com", "123", "erikberg");
+        personService.saveApplicant(otherPersonDTO);
+        Long otherPersonId = personRepository.findByUsername("erikberg").getPersonId();
+
+        MockHttpServletRequest req = new MockHttpServletRequest();
+        req.addHeader("X-Forwarded-For", "127.0.0.1");
+        String testHeader = "Bearer " + jwtAuthService.jwtCreateTestTokensRecruiter();
+        applicationStatusController.handleApplicationStatus(testHeader, new ApplicationStatusDTO(personId, "Accept"), req);
+
+        Mockito.clearInvocations(jdbcTemplate);
+        ResponseEntity<StreamingResponseBody> resp = applicationStatusController.handleCurrentStatuses(testHeader, List.of(personId, otherPersonId, 4000L), req);
+        assertEquals(HttpStatus.OK, resp.getStatusCode());
+        assertEquals(Map.of(String.valueOf(personId), "Accept"), readStatuses(resp));
+        verify(jdbcTemplate, times(1)).query(any(String.class), any(PreparedStatementSetter.class), any(RowCallbackHandler.class));
+        int fewIdsInvocations = Mockito.mockingDetails(jdbcTemplate).getInvocations().size();
+
+        List<Long> manyPersonIds = new ArrayList<>(List.of(personId));
+        for (long id = 4000L; manyPersonIds.size() < 300; id++) {
+            manyPersonIds.add(id);
+        }
+        Mockito.clearInvocations(jdbcTemplate);
+        resp = applicationStatusController.handleCurrentStatuses(testHeader, manyPersonIds, req);
+        assertEquals(Map.of(String.valueOf(personId), "Accept"), readStatuses(resp));
+        verify(jdbcTemplate, times(1)).query(any(String.class), any(PreparedStatementSetter.class), any(RowCallbackHandler.class));
+        assertEquals(fewIdsInvocations, Mockito.mockingDetails(jdbcTemplate).getInvocations().size());
+    }
+
+    /**
+     * JUnit test to check if an export filtered by status contains only the matching applications,
+     * as a gzip compressed CSV and as NDJSON.
+     */
+    @Test
+    void exportFilteredByStatus() throws Exception {
+        PersonDTO personDTO = new PersonDTO("Clara", "Eklund", "202203323434", "claraeklund@kth.com", "123", "claraek");
+        personService.saveApplicant(personDTO);
+        Long personId = personRepository.findByUsername("claraek").getPersonId();
+        PersonDTO otherPersonDTO = new PersonDTO("Erik", "Berg", "202203323435", "erikberg@kth.com", "123", "erikberg");
+        personService.saveApplicant(otherPersonDTO);
+        Long otherPersonId = personRepository.findByUsername("erikberg").getPersonId();
+
+        MockHttpServletRequest req = new MockHttpServletRequest();
+        req.addHeader("X-Forwarded-For", "127.0.0.1");
+        String testHeader = "Bearer " + jwtAuthService.jwtCreateTestTokensRecruiter();
+        applicationStatusController.handleApplicationStatus(testHeader, new ApplicationStatusDTO(personId, "Accept"), req);
+        applicationStatusController.handleApplicationStatus(testHeader, new ApplicationStatusDTO(otherPersonId, "Reject"), req);
+
+        MockHttpServletRequest gzipReq = new MockHttpServletRequest();
+        gzipReq.addHeader("Accept-Encoding", "gzip, deflate");
+        ResponseEntity<StreamingResponseBody> resp = applicationStatusController.handleStatusExport(testHeader, "csv", "Accept", gzipReq);
+        assertEquals(HttpStatus.OK, resp.getStatusCode());
+        assertEquals("gzip", resp.getHeaders().getFirst("Content-Encoding"));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        resp.getBody().writeTo(out);
+        String[] lines = new String(new GZIPInputStream(new ByteArrayInputStream(out.toByteArray())).readAllBytes(), StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, lines.length);
+        assertEquals("person_id,name,surname,email,status,updated_at", lines[0]);
+        assertTrue(lines[1].startsWith(personId + ",Clara,Eklund,claraeklund@kth.com,Accept,"));
+
+        resp = applicationStatusController.handleStatusExport(testHeader, "ndjson", "Reject", req);
+        out = new ByteArrayOutputStream();
+        resp.getBody().writeTo(out);
+        lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(1, lines.length);
+        assertEquals(otherPersonId, objectMapper.readTree(lines[0]).get("person_id").asLong());
+
+        assertEquals(HttpStatus.BAD_REQUEST, applicationStatusController.handleStatusExport(testHeader, "xml", null, req).getStatusCode());
+    }
+
+    /**
+     * JUnit test to check if a CSV import sets the status of the valid rows, keeping the last row
+     * of a person_id, and reports the rejected rows in file order with their reason.
+     */
+    @Test
+    void importRejectsInvalidRows() throws Exception {
+        PersonDTO personDTO = new PersonDTO("Clara", "Eklund", "202203323434", "claraeklund@kth.com", "123", "claraek");
+        personService.saveApplicant(personDTO);
+        Long personId = personRepository.findByUsername("claraek").getPersonId();
+        PersonDTO otherPersonDTO = new PersonDTO("Erik", "Berg", "202203323435", "erikberg@kth.com", "123", "erikberg");
+        personService.saveApplicant(otherPersonDTO);
+        Long otherPersonId = personRepository.findByUsername("erikberg").getPersonId();
+
+        String csv = "person_id,status\n"
+                + personId + ",Accept\n"
+                + otherPersonId + ",Pending\n"
+                + otherPersonId + ",Reject\n"
+                + "4000,Accept\n"
+                + "abc,Accept\n"
+                + personId + ",Maybe\n";
+        MockHttpServletRequest req = new MockHttpServletRequest();
+        req.addHeader("X-Forwarded-For", "127.0.0.1");
+        req.setContentType("text/csv");
+        req.setContent(csv.getBytes(StandardCharsets.UTF_8));
+        String testHeader = "Bearer " + jwtAuthService.jwtCreateTestTokensRecruiter();
+        ResponseEntity<Object> resp = applicationStatusController.handleStatusImport(testHeader, req);
+        assertEquals(HttpStatus.OK, resp.getStatusCode());
+
+        StatusImportResultDTO result = (StatusImportResultDTO) resp.getBody();
+        assertEquals(2, result.getImported());
+        assertEquals(4, result.getRejected());
+        assertEquals(List.of(2L, 4L, 5L, 6L), result.getRejected_rows().stream().map(RejectedRowDTO::getRow_number).toList());
+        assertEquals(List.of("DUPLICATE_PERSON_ID", "UNKNOWN_PERSON_ID", "INVALID_PERSON_ID", "INVALID_STATUS"), result.getRejected_rows().stream().map(RejectedRowDTO::getReason).toList());
+        assertEquals("Accept", applicationStatusService.getCurrentStatus(personId).getStatus());
+        assertEquals("Reject", applicationStatusService.getCurrentStatus(otherPersonId).getStatus());
+    }
+
+    /**
+     * Writes a streamed bulk status lookup body and reads it as a map.
+     *
+     * @param resp is the response of the bulk status lookup.
+     * @return the status of each person_id in the body.
+     */
+    private Map<String, String> readStatuses(ResponseEntity<StreamingResponseBody> resp) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        resp.getBody().writeTo(out);
+        return objectMapper.readValue(out.toByteArray(), new TypeReference<>() {
+        });
+    }
+}
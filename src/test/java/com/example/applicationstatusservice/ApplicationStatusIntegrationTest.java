@@ -1,15 +1,27 @@
 package com.example.applicationstatusservice;
 
 import com.example.applicationstatusservice.model.Person;
+import com.example.applicationstatusservice.model.Status;
 import com.example.applicationstatusservice.model.dto.ApplicationStatusDTO;
+import com.example.applicationstatusservice.model.dto.PersonAvailabilityDTO;
 import com.example.applicationstatusservice.model.dto.PersonDTO;
+import com.example.applicationstatusservice.model.dto.PersonRegistrationResultDTO;
+import com.example.applicationstatusservice.model.dto.StatusChangeDTO;
+import com.example.applicationstatusservice.model.dto.StatusHistoryDTO;
+import com.example.applicationstatusservice.repository.ApplicationStatusRepository;
 import com.example.applicationstatusservice.repository.PersonRepository;
 import com.example.applicationstatusservice.service.ApplicationStatusService;
 import com.example.applicationstatusservice.service.JwtAuthService;
+import com.example.applicationstatusservice.service.PersonExistenceIndex;
 import com.example.applicationstatusservice.service.PersonService;
+import com.example.applicationstatusservice.service.StatusHistoryService;
+import com.example.applicationstatusservice.service.StatusUpdateQueue;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.test.context.DynamicPropertyRegistry;
 import org.springframework.test.context.DynamicPropertySource;
 import org.springframework.transaction.annotation.Transactional;
@@ -17,7 +29,13 @@ import org.testcontainers.containers.PostgreSQLContainer;
 import org.testcontainers.junit.jupiter.Container;
 import org.testcontainers.junit.jupiter.Testcontainers;
 
+import java.util.List;
+import java.util.Map;
+
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 /**
  * ApplicationStatusIntegrationTest test uses TestContainers and demonstrates integration testing.
@@ -28,6 +46,20 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
  * the correct response message from the service-layer.
  * 3. Checking if a valid or invalid JWT token, received through header returns
  * the correct response message from the service-layer.
+ * 4. Checking if updating a status reports whether the row was created or updated.
+ * 5. Checking if the results of the validation stages are counted in the metrics.
+ * 6. Checking if the write-behind queue coalesces the updates of a person and writes only the last one.
+ * 7. Checking if the cached current status is invalidated when the status is updated.
+ * 8. Checking if every status update writes its change to the outbox of the status change feed.
+ * 9. Checking if the status history records the old and new status and the actor of each change.
+ * 10. Checking if status updates report the change of the number of applications with each status.
+ * 11. Checking if a bulk registration registers the valid applicants and reports duplicate and invalid ones,
+ * and if a single registration saves an applicant with a missing username and email.
+ * 12. Checking if usernames, emails and pnrs are checked for availability, and for duplicates
+ * in a bulk registration, with usernames and emails compared case-insensitively.
+ * 13. Checking if the passwords of registered applicants are stored as bcrypt hashes.
+ * 14. Checking if a person committed by another instance with a person_id below the highest scanned
+ * one, from a block allocated before the latest blocks, is valid and its status can be updated.
  * {@code @Transactional} ensures application is saved to the database only if
  * the transaction is successful.
  */
@@ -75,6 +107,49 @@ public class ApplicationStatusIntegrationTest {
     @Autowired
     private PersonRepository personRepository;
 
+    /**
+     * ApplicationStatusRepository is an autowired instance containing method for data
+     * access/retrieval from the Application_status table.
+     * {@code @Autowired} provides automatic dependency injection.
+     */
+    @Autowired
+    private ApplicationStatusRepository applicationStatusRepository;
+
+    /**
+     * MeterRegistry is an autowired instance holding the metrics of the service.
+     * {@code @Autowired} provides automatic dependency injection.
+     */
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    /**
+     * StatusUpdateQueue is an autowired instance writing status updates in the write-behind mode.
+     * {@code @Autowired} provides automatic dependency injection.
+     */
+    @Autowired
+    private StatusUpdateQueue statusUpdateQueue;
+
+    /**
+     * StatusHistoryService is an autowired instance reading the history of status changes.
+     * {@code @Autowired} provides automatic dependency injection.
+     */
+    @Autowired
+    private StatusHistoryService statusHistoryService;
+
+    /**
+     * PersonExistenceIndex is an autowired instance indexing the person_ids of the Person table.
+     * {@code @Autowired} provides automatic dependency injection.
+     */
+    @Autowired
+    private PersonExistenceIndex personExistenceIndex;
+
+    /**
+     * JdbcTemplate is an autowired instance inserting persons the way another instance of the service would.
+     * {@code @Autowired} provides automatic dependency injection.
+     */
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
     /**
      * The method sets the property JDBC URL spring.datasource.url
      * dynamically for the postgreSQL container.
@@ -213,4 +288,258 @@ public class ApplicationStatusIntegrationTest {
         assertEquals("UNAUTHORIZED", jwtAuthService.jwtAuth(testHeader));
     }
 
-}
\ No newline at end of file
+    /**
+     * JUnit test to check if the first update of a person's application creates a status
+     * and the following update overwrites it.
+     */
+    @Test
+    void updateApplicationStatusCreatedThenUpdated() throws Exception {
+        PersonDTO personDTO = new PersonDTO("Clara", "Eklund", "202203323434", "claraeklund@kth.com", "123", "claraek");
+        personService.saveApplicant(personDTO);
+        Person person = personRepository.findByUsername("claraek");
+        Long personId = person.getPersonId();
+
+        assertEquals("CREATED", applicationStatusService.updateApplicationStatus(new ApplicationStatusDTO(personId, "Pending"), "MaxwellBailey"));
+        assertEquals("UPDATED", applicationStatusService.updateApplicationStatus(new ApplicationStatusDTO(personId, "Accept"), "MaxwellBailey"));
+        assertEquals(Status.ACCEPT, applicationStatusRepository.findStatusByPersonId(personId).orElseThrow().status());
+    }
+
+    /**
+     * JUnit test to check if a reused JWT token is answered by the cache of verified tokens.
+     */
+    @Test
+    void jwtTokenCached() throws Exception {
+        String testHeader = "Bearer " + jwtAuthService.jwtCreateTestTokensRecruiter();
+        assertEquals("AUTHORIZED", jwtAuthService.jwtAuth(testHeader));
+        long hitCount = jwtAuthService.getCacheHitCount();
+        assertEquals("AUTHORIZED", jwtAuthService.jwtAuth(testHeader));
+        assertEquals(hitCount + 1, jwtAuthService.getCacheHitCount());
+    }
+
+    /**
+     * JUnit test to check if the results of the validation stages are counted.
+     */
+    @Test
+    void validationResultsCounted() throws Exception {
+        double invalidData = meterRegistry.counter("application.status.results", "result", "INVALID_DATA").count();
+        double unauthorized = meterRegistry.counter("application.status.results", "result", "UNAUTHORIZED").count();
+        assertEquals("INVALID_DATA", applicationStatusService.isStatusValid("Wrong"));
+        assertEquals("UNAUTHORIZED", jwtAuthService.jwtAuth("Bearer " + jwtAuthService.jwtCreateTestTokensApplicant()));
+        assertEquals(invalidData + 1, meterRegistry.counter("application.status.results", "result", "INVALID_DATA").count());
+        assertEquals(unauthorized + 1, meterRegistry.counter("application.status.results", "result", "UNAUTHORIZED").count());
+    }
+
+    /**
+     * JUnit test to check if the write-behind queue writes only the last of several updates of a person.
+     */
+    @Test
+    void writeBehindCoalesced() throws Exception {
+        personService.saveApplicant(new PersonDTO("Queued", "Applicant", "20000101-1111", "queued@kth.se", "123", "queued"));
+        Person person = personRepository.findByUsername("queued");
+        Long personId = person.getPersonId();
+
+        String pending = statusUpdateQueue.submit(new ApplicationStatusDTO(personId, "Pending"), "MaxwellBailey").getOperation_id();
+        String accept = statusUpdateQueue.submit(new ApplicationStatusDTO(personId, "Accept"), "MaxwellBailey").getOperation_id();
+        String reject = statusUpdateQueue.submit(new ApplicationStatusDTO(personId, "Reject"), "MaxwellBailey").getOperation_id();
+        assertEquals("PENDING", statusUpdateQueue.getOperation(reject).getState());
+        statusUpdateQueue.flush();
+
+        assertEquals("SUPERSEDED", statusUpdateQueue.getOperation(pending).getState());
+        assertEquals("SUPERSEDED", statusUpdateQueue.getOperation(accept).getState());
+        assertEquals("COMPLETED", statusUpdateQueue.getOperation(reject).getState());
+        assertEquals(Status.REJECT, applicationStatusRepository.findStatusByPersonId(personId).orElseThrow().status());
+    }
+
+    /**
+     * JUnit test to check if the cached current status follows the updates of the status.
+     */
+    @Test
+    void currentStatusCacheInvalidated() throws Exception {
+        personService.saveApplicant(new PersonDTO("Cached", "Applicant", "20000101-2222", "cached@kth.se", "123", "cached"));
+        Long personId = personRepository.findByUsername("cached").getPersonId();
+
+        assertNull(applicationStatusService.getCurrentStatus(personId));
+        applicationStatusService.updateApplicationStatus(new ApplicationStatusDTO(personId, "Accept"), "MaxwellBailey");
+        assertEquals("Accept", applicationStatusService.getCurrentStatus(personId).getStatus());
+        applicationStatusService.updateApplicationStatus(new ApplicationStatusDTO(personId, "Reject"), "MaxwellBailey");
+        assertEquals("Reject", applicationStatusService.getCurrentStatus(personId).getStatus());
+    }
+
+    /**
+     * JUnit test to check if single and batched status updates write their changes to the outbox in order.
+     */
+    @Test
+    void statusChangesWrittenToOutbox() throws Exception {
+        personService.saveApplicant(new PersonDTO("Outbox", "Applicant", "20000101-3333", "outbox@kth.se", "123", "outbox"));
+        Long personId = personRepository.findByUsername("outbox").getPersonId();
+        long lastEventId = applicationStatusRepository.findLastStatusChangeId();
+
+        applicationStatusService.updateApplicationStatus(new ApplicationStatusDTO(personId, "Pending"), "MaxwellBailey");
+        applicationStatusService.updateApplicationStatus(new ApplicationStatusDTO(personId, "Accept"), "MaxwellBailey");
+        applicationStatusRepository.batchUpsertStatuses(Map.of(personId, Status.REJECT), "MaxwellBailey");
+
+        List<StatusChangeDTO> changes = applicationStatusRepository.findStatusChanges(lastEventId, 10);
+        assertEquals(List.of("Pending", "Accept", "Reject"), changes.stream().map(StatusChangeDTO::getStatus).toList());
+        assertTrue(changes.stream().allMatch(change -> personId.equals(change.getPerson_id())));
+        assertEquals(changes.get(2).getEvent_id(), applicationStatusRepository.findLastStatusChangeId());
+    }
+
+    /**
+     * JUnit test to check if the status history lists each change of an application, newest first.
+     */
+    @Test
+    void statusHistoryRecorded() throws Exception {
+        personService.saveApplicant(new PersonDTO("History", "Applicant", "20000101-4444", "history@kth.se", "123", "history"));
+        Long personId = personRepository.findByUsername("history").getPersonId();
+
+        applicationStatusService.updateApplicationStatus(new ApplicationStatusDTO(personId, "Pending"), "MaxwellBailey");
+        applicationStatusService.updateApplicationStatuses(List.of(new ApplicationStatusDTO(personId, "Accept")), "AnnaKarlsson");
+
+        List<StatusHistoryDTO> history = statusHistoryService.getStatusHistory(personId);
+        assertEquals(2, history.size());
+        assertEquals("Pending", history.get(0).getOld_status());
+        assertEquals("Accept", history.get(0).getNew_status());
+        assertEquals("AnnaKarlsson", history.get(0).getActor());
+        assertNull(history.get(1).getOld_status());
+        assertEquals("Pending", history.get(1).getNew_status());
+        assertEquals("MaxwellBailey", history.get(1).getActor());
+    }
+
+    /**
+     * JUnit test to check if single and batched status updates report the change of the status counts
+     * that the status counters are updated with.
+     */
+    @Test
+    void statusCountChangesReported() throws Exception {
+        personService.saveApplicant(new PersonDTO("Counts", "Applicant", "20000101-5555", "counts@kth.se", "123", "counts"));
+        Long personId = personRepository.findByUsername("counts").getPersonId();
+        Map<Status, Long> countsBefore = applicationStatusRepository.countStatuses();
+
+        assertNull(applicationStatusRepository.upsertStatus(personId, Status.PENDING, "MaxwellBailey"));
+        assertEquals(Status.PENDING, applicationStatusRepository.upsertStatus(personId, Status.PENDING, "MaxwellBailey"));
+        Map<Status, Long> countChanges = applicationStatusRepository.batchUpsertStatuses(Map.of(personId, Status.ACCEPT), "MaxwellBailey");
+        assertEquals(Map.of(Status.PENDING, -1L, Status.ACCEPT, 1L), countChanges);
+
+        Map<Status, Long> countsAfter = applicationStatusRepository.countStatuses();
+        assertEquals(countsBefore.getOrDefault(Status.PENDING, 0L), countsAfter.getOrDefault(Status.PENDING, 0L));
+        assertEquals(countsBefore.getOrDefault(Status.ACCEPT, 0L) + 1, countsAfter.getOrDefault(Status.ACCEPT, 0L));
+    }
+
+    /**
+     * JUnit test to check if a bulk registration registers each valid applicant once and reports
+     * the duplicate and invalid ones without registering them.
+     */
+    @Test
+    void bulkRegistrationResults() throws Exception {
+        personService.saveApplicant(new PersonDTO("Bulk", "Applicant", "20000101-6666", "bulk@kth.se", "123", "bulk"));
+
+        List<PersonRegistrationResultDTO> results = personService.saveApplicants(List.of(
+                new PersonDTO("Bulk", "One", "20000101-7777", "bulk1@kth.se", "123", "bulk1"),
+                new PersonDTO("Bulk", "Two", "20000101-8888", "bulk2@kth.se", "123", "bulk"),
+                new PersonDTO("Bulk", "Three", "20000101-9999", "bulk@kth.se", "123", "bulk3"),
+                new PersonDTO("Bulk", "Four", "20000102-1111", "bulk4@kth.se", "123", "bulk1"),
+                new PersonDTO("Bulk", null, "20000102-2222", "bulk5@kth.se", "123", "bulk5")));
+
+        assertEquals(List.of("OK", "DUPLICATE_USERNAME", "DUPLICATE_EMAIL", "DUPLICATE_USERNAME", "INVALID_DATA"),
+                results.stream().map(PersonRegistrationResultDTO::getResult).toList());
+        assertEquals(personRepository.findByUsername("bulk1").getPersonId(), results.get(0).getPerson_id());
+        assertTrue(results.stream().skip(1).allMatch(result -> result.getPerson_id() == null));
+        assertEquals("VALID_DATA", applicationStatusService.isPersonIdValid(results.get(0).getPerson_id()));
+        assertNull(personRepository.findByUsername("bulk3"));
+    }
+
+    /**
+     * JUnit test to check if registering a single applicant saves it even without a username and
+     * an email, which are then not recorded in the lookup cache.
+     */
+    @Test
+    void singleRegistrationMissingValues() {
+        personService.saveApplicant(new PersonDTO("Single", "Applicant", "20000103-1111", null, "123", null));
+
+        List<Person> saved = personRepository.findAll().stream().filter(person -> "20000103-1111".equals(person.getPnr())).toList();
+        assertEquals(1, saved.size());
+        assertEquals("VALID_DATA", applicationStatusService.isPersonIdValid(saved.get(0).getPersonId()));
+        assertEquals("TAKEN", personService.checkAvailability(null, null, "20000103-1111").getPnr());
+    }
+
+    /**
+     * JUnit test to check if the availability of a username, email and pnr is checked with usernames
+     * and emails compared case-insensitively, and if a bulk registration reports duplicates differing only in case.
+     */
+    @Test
+    void availabilityCaseInsensitive() throws Exception {
+        personService.saveApplicant(new PersonDTO("Case", "Applicant", "19990101-1234", "Case.Applicant@kth.se", "123", "CaseApplicant"));
+
+        PersonAvailabilityDTO taken = personService.checkAvailability("caseapplicant", "CASE.APPLICANT@KTH.SE", "19990101-1234");
+        assertEquals("TAKEN", taken.getUsername());
+        assertEquals("TAKEN", taken.getEmail());
+        assertEquals("TAKEN", taken.getPnr());
+        PersonAvailabilityDTO available = personService.checkAvailability("caseapplicant2", null, "19990101-4321");
+        assertEquals("AVAILABLE", available.getUsername());
+        assertNull(available.getEmail());
+        assertEquals("AVAILABLE", available.getPnr());
+
+        List<PersonRegistrationResultDTO> results = personService.saveApplicants(List.of(
+                new PersonDTO("Case", "One", "19990101-1111", "case1@kth.se", "123", "CASEAPPLICANT"),
+                new PersonDTO("Case", "Two", "19990101-2222", "case.applicant@KTH.se", "123", "case2"),
+                new PersonDTO("Case", "Three", "19990101-1234", "case3@kth.se", "123", "case3"),
+                new PersonDTO("Case", "Four", "19990101-4444", "case4@kth.se", "123", "Case4"),
+                new PersonDTO("Case", "Five", "19990101-5555", "CASE4@kth.se", "123", "case5")));
+
+        assertEquals(List.of("DUPLICATE_USERNAME", "DUPLICATE_EMAIL", "DUPLICATE_PNR", "OK", "DUPLICATE_EMAIL"),
+                results.stream().map(PersonRegistrationResultDTO::getResult).toList());
+        assertEquals(results.get(3).getPerson_id(), personRepository.findByUsername("Case4").getPersonId());
+        assertNull(personRepository.findByUsername("case4"));
+    }
+
+    /**
+     * JUnit test to check if the passwords of applicants registered one at a time and in bulk are
+     * stored as bcrypt hashes of the submitted passwords.
+     */
+    @Test
+    void passwordsHashed() {
+        personService.saveApplicant(new PersonDTO("Hash", "One", "19980101-1111", "hash1@kth.se", "secret1", "hash1"));
+        personService.saveApplicants(List.of(new PersonDTO("Hash", "Two", "19980101-2222", "hash2@kth.se", "secret2", "hash2")));
+
+        BCryptPasswordEncoder passwordEncoder = new BCryptPasswordEncoder();
+        String firstHash = personRepository.findByUsername("hash1").getPassword();
+        String secondHash = personRepository.findByUsername("hash2").getPassword();
+        assertTrue(firstHash.startsWith("$2a$"));
+        assertTrue(passwordEncoder.matches("secret1", firstHash));
+        assertTrue(passwordEncoder.matches("secret2", secondHash));
+        assertFalse(passwordEncoder.matches("secret1", secondHash));
+    }
+
+    /**
+     * JUnit test to check if a person inserted below the highest scanned person_id after the scan,
+     * such as one registered by another instance from a block it allocated earlier, is valid and
+     * its status can be updated.
+     */
+    @Test
+    void personBelowHighestScannedValid() throws Exception {
+        personService.saveApplicant(new PersonDTO("Scanned", "Applicant", "20000101-9999", "scanned@kth.se", "123", "scanned"));
+        long highestPersonId = personRepository.findByUsername("scanned").getPersonId() + 10L * Person.ID_ALLOCATION_SIZE;
+        insertPerson(highestPersonId, "highest");
+        personExistenceIndex.refresh();
+
+        long personId = highestPersonId - Person.ID_ALLOCATION_SIZE;
+        insertPerson(personId, "earlier");
+        assertEquals("VALID_DATA", applicationStatusService.isPersonIdValid(personId));
+        applicationStatusService.updateApplicationStatus(new ApplicationStatusDTO(personId, "Accept"), "MaxwellBailey");
+        assertEquals(Status.ACCEPT, applicationStatusRepository.findStatusByPersonId(personId).orElseThrow().status());
+
+        personExistenceIndex.refresh();
+        assertEquals("VALID_DATA", applicationStatusService.isPersonIdValid(personId));
+    }
+
+    /**
+     * Inserts an applicant with a given person_id, without adding it to the person existence index.
+     *
+     * @param personId is the person_id of the applicant.
+     * @param username is the username of the applicant.
+     */
+    private void insertPerson(long personId, String username) {
+        jdbcTemplate.update("INSERT INTO person (person_id, name, surname, pnr, email, password, role_id, username) VALUES (?, ?, ?, ?, ?, ?, ?, ?)",
+                personId, "Other", "Instance", "pnr-" + username, username + "@kth.se", "123", 2, username);
+    }
+}
@@ -0,0 +1,12 @@
+package com.example.applicationstatusservice;
+
+import org.springframework.test.context.ActiveProfiles;
+
+/**
+ * JdbcApplicationStatusControllerIntegrationTest runs the tests of {@link ApplicationStatusControllerIntegrationTest}
+ * in the JDBC persistence mode, where the repositories are implemented with plain JDBC instead of JPA.
+ * {@code @ActiveProfiles} activates the jdbc profile selecting the JDBC repositories.
+ */
+@ActiveProfiles("jdbc")
+public class JdbcApplicationStatusControllerIntegrationTest extends ApplicationStatusControllerIntegrationTest {
+}
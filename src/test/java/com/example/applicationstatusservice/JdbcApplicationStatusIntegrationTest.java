@@ -0,0 +1,12 @@
+package com.example.applicationstatusservice;
+
+import org.springframework.test.context.ActiveProfiles;
+
+/**
+ * JdbcApplicationStatusIntegrationTest runs the tests of {@link ApplicationStatusIntegrationTest}
+ * in the JDBC persistence mode, where the repositories are implemented with plain JDBC instead of JPA.
+ * {@code @ActiveProfiles} activates the jdbc profile selecting the JDBC repositories.
+ */
+@ActiveProfiles("jdbc")
+public class JdbcApplicationStatusIntegrationTest extends ApplicationStatusIntegrationTest {
+}
@@ -0,0 +1,179 @@
+package com.example.applicationstatusservice;
+
+import com.example.applicationstatusservice.model.Person;
+import com.example.applicationstatusservice.model.dto.PersonDTO;
+import com.example.applicationstatusservice.repository.PersonRepository;
+import com.example.applicationstatusservice.service.JwtAuthService;
+import com.example.applicationstatusservice.service.PersonService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.transaction.annotation.Transactional;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * JwtAuthenticationFilterIntegrationTest uses TestContainers and sends requests through the real
+ * security filter chain with MockMvc. The rate limit is disabled, so only the JWT filter rejects requests.
+ * The tests included are:
+ * 1. Checking if a status update without a JWT token is rejected by the filter.
+ * 2. Checking if a status update with an invalid JWT token is rejected by the filter.
+ * 3. Checking if a status update with the JWT token of an applicant is rejected by the filter.
+ * 4. Checking if a status update with the JWT token of a recruiter passes the filter, and the
+ * controller does not verify the token a second time.
+ * 5. Checking if requests outside the protected requests, such as an applicant reading its own status,
+ * are not filtered.
+ * {@code @Transactional} ensures application is saved to the database only if
+ * the transaction is successful.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.MOCK, properties = "application-status.rate-limit.enabled=false")
+@AutoConfigureMockMvc
+@Testcontainers
+@Transactional
+public class JwtAuthenticationFilterIntegrationTest {
+
+    /**
+     * Mocking a PostgreSQL database for the integration tests.
+     * The database is configured with a specific, name, username and
+     * password as well as the latest postgreSQL version.
+     * {@code @Container} sets the field as a TestContainer container.
+     */
+    @Container
+    private static final PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:latest").withDatabaseName("postgresglobalapp").withUsername("postgres").withPassword("Qwerty123456!");
+
+    /**
+     * MockMvc sends the requests through the security filter chain to the controller.
+     */
+    @Autowired
+    private MockMvc mockMvc;
+
+    /**
+     * JwtAuthService is a spy on the service authorizing JWT tokens, used to count the verifications.
+     * {@code @SpyBean} wraps the bean so that its invocations can be verified.
+     */
+    @SpyBean
+    private JwtAuthService jwtAuthService;
+
+    /**
+     * PersonService is an autowired instance containing business-logic for person-related operations.
+     */
+    @Autowired
+    private PersonService personService;
+
+    /**
+     * PersonRepository is an autowired instance handling data retrieval/access for the Person table.
+     */
+    @Autowired
+    private PersonRepository personRepository;
+
+    /**
+     * The method sets the property JDBC URL spring.datasource.url
+     * dynamically for the postgreSQL container.
+     *
+     * @param dynamicPropertyRegistry adding dynamic properties.
+     *                                {@code @DynamicPropertySource} allows adding properties with dynamic values for test
+     */
+    @DynamicPropertySource
+    public static void testProps(DynamicPropertyRegistry dynamicPropertyRegistry) {
+        dynamicPropertyRegistry.add("spring.datasource.url", postgres::getJdbcUrl);
+    }
+
+    /**
+     * JUnit test to check if a status update without an Authorization header is rejected with UNAUTHORIZED.
+     */
+    @Test
+    void missingToken() throws Exception {
+        mockMvc.perform(statusUpdate(registerApplicant()))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("UNAUTHORIZED"));
+    }
+
+    /**
+     * JUnit test to check if a status update with a token that cannot be verified is rejected with UNAUTHORIZED.
+     */
+    @Test
+    void invalidToken() throws Exception {
+        mockMvc.perform(statusUpdate(registerApplicant()).header("Authorization", "Bearer invalid.token.value"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("UNAUTHORIZED"));
+    }
+
+    /**
+     * JUnit test to check if a status update with the token of an applicant is rejected with UNAUTHORIZED.
+     */
+    @Test
+    void applicantToken() throws Exception {
+        Long personId = registerApplicant();
+        mockMvc.perform(statusUpdate(personId).header("Authorization", "Bearer " + jwtAuthService.jwtCreateTestTokensApplicant(personId)))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("UNAUTHORIZED"));
+    }
+
+    /**
+     * JUnit test to check if a status update with the token of a recruiter is processed, with the
+     * token verified only once by the filter.
+     */
+    @Test
+    void recruiterToken() throws Exception {
+        String header = "Bearer " + jwtAuthService.jwtCreateTestTokensRecruiter();
+        mockMvc.perform(statusUpdate(registerApplicant()).header("Authorization", header))
+                .andExpect(status().isOk());
+        verify(jwtAuthService, times(1)).jwtAuth(header);
+    }
+
+    /**
+     * JUnit test to check if an applicant reading its own status is not filtered, since the filter
+     * would reject the token of an applicant.
+     */
+    @Test
+    void unprotectedRequestSkipped() throws Exception {
+        Long personId = registerApplicant();
+        mockMvc.perform(statusUpdate(personId).header("Authorization", "Bearer " + jwtAuthService.jwtCreateTestTokensRecruiter()))
+                .andExpect(status().isOk());
+        clearInvocations(jwtAuthService);
+
+        mockMvc.perform(get("/api/applicant/" + personId + "/status").header("Authorization", "Bearer " + jwtAuthService.jwtCreateTestTokensApplicant(personId)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("Accept"));
+        verify(jwtAuthService, never()).jwtAuth(any());
+    }
+
+    /**
+     * Registers an applicant whose status is updated.
+     *
+     * @return the person_id of the applicant.
+     */
+    private Long registerApplicant() {
+        personService.saveApplicant(new PersonDTO("Clara", "Eklund", "202203323434", "claraeklund@kth.com", "123", "claraek"));
+        Person person = personRepository.findByUsername("claraek");
+        return person.getPersonId();
+    }
+
+    /**
+     * Builds a status update accepting the application of a person.
+     *
+     * @param personId is the person_id of the application.
+     * @return the request without an Authorization header.
+     */
+    private MockHttpServletRequestBuilder statusUpdate(Long personId) {
+        return post("/api/applicant").contentType(MediaType.APPLICATION_JSON).content("{\"person_id\":" + personId + ",\"status\":\"Accept\"}");
+    }
+}
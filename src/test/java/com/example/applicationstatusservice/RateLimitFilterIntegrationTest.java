@@ -0,0 +1,151 @@
+package com.example.applicationstatusservice;
+
+import com.example.applicationstatusservice.service.JwtAuthService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.request.RequestPostProcessor;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import static org.hamcrest.Matchers.matchesPattern;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * RateLimitFilterIntegrationTest uses TestContainers and sends requests through the real
+ * security filter chain with MockMvc. Each IP address may make three API requests at once and
+ * gets a new one every 100 seconds, so the tests never see a refill, and a request answered
+ * with HTTP 400 counts as two extra requests. Each test uses IP addresses of its own.
+ * The tests included are:
+ * 1. Checking if an IP address is rejected with 429, a Retry-After header and the TOO_MANY_REQUESTS
+ * ErrorDTO once it has used its burst.
+ * 2. Checking if each IP address has a rate limit of its own, so a rejected IP address does not
+ * affect the others.
+ * 3. Checking if a request answered with HTTP 400 uses the penalty, so an IP address sending
+ * unauthorized requests is rejected after fewer requests.
+ * 4. Checking if requests outside the API, such as health checks, are not rate-limited.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.MOCK, properties = {
+        "application-status.rate-limit.requests-per-second=0.01",
+        "application-status.rate-limit.burst=3",
+        "application-status.rate-limit.penalty=2"})
+@AutoConfigureMockMvc
+@Testcontainers
+public class RateLimitFilterIntegrationTest {
+
+    /**
+     * Mocking a PostgreSQL database for the integration tests.
+     * The database is configured with a specific, name, username and
+     * password as well as the latest postgreSQL version.
+     * {@code @Container} sets the field as a TestContainer container.
+     */
+    @Container
+    private static final PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:latest").withDatabaseName("postgresglobalapp").withUsername("postgres").withPassword("Qwerty123456!");
+
+    /**
+     * MockMvc sends the requests through the security filter chain to the controller.
+     */
+    @Autowired
+    private MockMvc mockMvc;
+
+    /**
+     * JwtAuthService is an autowired instance creating the JWT tokens of the requests.
+     */
+    @Autowired
+    private JwtAuthService jwtAuthService;
+
+    /**
+     * The method sets the property JDBC URL spring.datasource.url
+     * dynamically for the postgreSQL container.
+     *
+     * @param dynamicPropertyRegistry adding dynamic properties.
+     *                                {@code @DynamicPropertySource} allows adding properties with dynamic values for test
+     */
+    @DynamicPropertySource
+    public static void testProps(DynamicPropertyRegistry dynamicPropertyRegistry) {
+        dynamicPropertyRegistry.add("spring.datasource.url", postgres::getJdbcUrl);
+    }
+
+    /**
+     * JUnit test to check if the request after the burst of an IP address is rejected with HTTP 429,
+     * the TOO_MANY_REQUESTS ErrorDTO and the number of seconds until the next request is allowed.
+     */
+    @Test
+    void tooManyRequests() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            readCounts("10.0.1.1").andExpect(status().isOk());
+        }
+        readCounts("10.0.1.1")
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string("Retry-After", matchesPattern("[1-9][0-9]*")))
+                .andExpect(jsonPath("$.error").value("TOO_MANY_REQUESTS"));
+    }
+
+    /**
+     * JUnit test to check if an IP address is still served while another one is rejected.
+     */
+    @Test
+    void perClientBuckets() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            readCounts("10.0.2.1").andExpect(status().isOk());
+        }
+        readCounts("10.0.2.1").andExpect(status().isTooManyRequests());
+
+        readCounts("10.0.2.2").andExpect(status().isOk());
+    }
+
+    /**
+     * JUnit test to check if an unauthorized request uses the penalty, so the next request of the
+     * IP address is rejected although it has only made one request.
+     */
+    @Test
+    void penaltyForBadRequest() throws Exception {
+        mockMvc.perform(get("/api/applicant/counts").header("Authorization", "Bearer invalid.token.value").with(remoteAddr("10.0.3.1")))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("UNAUTHORIZED"));
+
+        readCounts("10.0.3.1").andExpect(status().isTooManyRequests());
+    }
+
+    /**
+     * JUnit test to check if health checks are answered after the burst of an IP address.
+     */
+    @Test
+    void healthChecksNotLimited() throws Exception {
+        for (int i = 0; i < 5; i++) {
+            mockMvc.perform(get("/actuator/health").with(remoteAddr("10.0.4.1"))).andExpect(status().isOk());
+        }
+    }
+
+    /**
+     * Reads the status counts as a recruiter.
+     *
+     * @param address is the IP address of the request.
+     * @return the result of the request.
+     */
+    private ResultActions readCounts(String address) throws Exception {
+        return mockMvc.perform(get("/api/applicant/counts").header("Authorization", "Bearer " + jwtAuthService.jwtCreateTestTokensRecruiter()).with(remoteAddr(address)));
+    }
+
+    /**
+     * Sets the IP address of a request.
+     *
+     * @param address is the IP address.
+     * @return the post processor setting the address.
+     */
+    private static RequestPostProcessor remoteAddr(String address) {
+        return request -> {
+            request.setRemoteAddr(address);
+            return request;
+        };
+    }
+}
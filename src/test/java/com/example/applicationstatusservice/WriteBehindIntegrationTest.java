@@ -0,0 +1,153 @@
+package com.example.applicationstatusservice;
+
+import com.example.applicationstatusservice.controller.ApplicationStatusController;
+import com.example.applicationstatusservice.model.Status;
+import com.example.applicationstatusservice.model.dto.ApplicationStatusDTO;
+import com.example.applicationstatusservice.model.dto.OperationStatusDTO;
+import com.example.applicationstatusservice.model.dto.PersonDTO;
+import com.example.applicationstatusservice.repository.ApplicationStatusRepository;
+import com.example.applicationstatusservice.repository.PersonRepository;
+import com.example.applicationstatusservice.service.JwtAuthService;
+import com.example.applicationstatusservice.service.PersonService;
+import com.example.applicationstatusservice.service.StatusUpdateQueue;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.annotation.Transactional;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * WriteBehindIntegrationTest uses TestContainers and sends status updates to the controller in the
+ * write-behind mode. The queue is only flushed by the tests, so an enqueued update stays pending
+ * until a test flushes it.
+ * The tests included are:
+ * 1. Checking if a conditional update sent while an earlier update of the same person is still
+ * queued is checked against the queued status, and is not overwritten when the queue is flushed.
+ * 2. Checking if a conditional update expecting another status than the queued one returns
+ * HTTP status 409, and the queued status is written.
+ * {@code @Transactional} ensures application is saved to the database only if
+ * the transaction is successful.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties = {
+        "application-status.write-behind.enabled=true",
+        "application-status.write-behind.max-delay=PT1H"})
+@Testcontainers
+@Transactional
+public class WriteBehindIntegrationTest {
+
+    /**
+     * Mocking a PostgreSQL database for the integration tests.
+     * The database is configured with a specific, name, username and
+     * password as well as the latest postgreSQL version.
+     * {@code @Container} sets the field as a TestContainer container.
+     */
+    @Container
+    private static final PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:latest").withDatabaseName("postgresglobalapp").withUsername("postgres").withPassword("Qwerty123456!");
+
+    /**
+     * ApplicationStatusController is an autowired instance of the controller handling HTTP requests.
+     */
+    @Autowired
+    private ApplicationStatusController applicationStatusController;
+
+    /**
+     * JwtAuthService is an autowired instance creating the JWT tokens of the requests.
+     */
+    @Autowired
+    private JwtAuthService jwtAuthService;
+
+    /**
+     * StatusUpdateQueue is an autowired instance writing status updates in the write-behind mode.
+     */
+    @Autowired
+    private StatusUpdateQueue statusUpdateQueue;
+
+    /**
+     * PersonService is an autowired instance containing business-logic for person-related operations.
+     */
+    @Autowired
+    private PersonService personService;
+
+    /**
+     * PersonRepository is an autowired instance handling data retrieval/access for the Person table.
+     */
+    @Autowired
+    private PersonRepository personRepository;
+
+    /**
+     * ApplicationStatusRepository is an autowired instance handling data retrieval/access for the Application_status table.
+     */
+    @Autowired
+    private ApplicationStatusRepository applicationStatusRepository;
+
+    /**
+     * The method sets the property JDBC URL spring.datasource.url
+     * dynamically for the postgreSQL container.
+     *
+     * @param dynamicPropertyRegistry adding dynamic properties.
+     *                                {@code @DynamicPropertySource} allows adding properties with dynamic values for test
+     */
+    @DynamicPropertySource
+    public static void testProps(DynamicPropertyRegistry dynamicPropertyRegistry) {
+        dynamicPropertyRegistry.add("spring.datasource.url", postgres::getJdbcUrl);
+    }
+
+    /**
+     * JUnit test to check if a conditional update expecting the queued status is applied, and the
+     * queued update is written before it instead of overwriting it with the next flush.
+     */
+    @Test
+    void conditionalUpdateAfterQueuedUpdate() throws Exception {
+        Long personId = registerApplicant();
+        MockHttpServletRequest req = new MockHttpServletRequest();
+        String testHeader = "Bearer " + jwtAuthService.jwtCreateTestTokensRecruiter();
+
+        ResponseEntity<Object> queued = applicationStatusController.handleApplicationStatus(testHeader, new ApplicationStatusDTO(personId, "Pending"), req);
+        assertEquals(HttpStatus.ACCEPTED, queued.getStatusCode());
+        String operationId = ((OperationStatusDTO) queued.getBody()).getOperation_id();
+
+        ResponseEntity<Object> resp = applicationStatusController.handleApplicationStatus(testHeader, new ApplicationStatusDTO(personId, "Accept", "Pending", null), req);
+        assertEquals(HttpStatus.OK, resp.getStatusCode());
+        assertEquals("COMPLETED", statusUpdateQueue.getOperation(operationId).getState());
+
+        statusUpdateQueue.flush();
+        assertEquals(Status.ACCEPT, applicationStatusRepository.findStatusByPersonId(personId).orElseThrow().status());
+    }
+
+    /**
+     * JUnit test to check if a conditional update expecting another status than the queued one is
+     * rejected, and the queued status is the one written.
+     */
+    @Test
+    void conditionalUpdateConflictsWithQueuedUpdate() throws Exception {
+        Long personId = registerApplicant();
+        MockHttpServletRequest req = new MockHttpServletRequest();
+        String testHeader = "Bearer " + jwtAuthService.jwtCreateTestTokensRecruiter();
+
+        applicationStatusController.handleApplicationStatus(testHeader, new ApplicationStatusDTO(personId, "Pending"), req);
+        ResponseEntity<Object> resp = applicationStatusController.handleApplicationStatus(testHeader, new ApplicationStatusDTO(personId, "Accept", "Reject", null), req);
+        assertEquals(HttpStatus.CONFLICT, resp.getStatusCode());
+
+        statusUpdateQueue.flush();
+        assertEquals(Status.PENDING, applicationStatusRepository.findStatusByPersonId(personId).orElseThrow().status());
+    }
+
+    /**
+     * Registers an applicant whose status is updated.
+     *
+     * @return the person_id of the applicant.
+     */
+    private Long registerApplicant() {
+        personService.saveApplicant(new PersonDTO("Clara", "Eklund", "202203323434", "claraeklund@kth.com", "123", "claraek"));
+        return personRepository.findByUsername("claraek").getPersonId();
+    }
+}
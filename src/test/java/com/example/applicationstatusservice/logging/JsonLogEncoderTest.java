@@ -0,0 +1,77 @@
+package com.example.applicationstatusservice.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.LoggingEvent;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * JsonLogEncoderTest is a unit test of the encoder writing the log events as JSON lines.
+ * The tests included are:
+ * 1. Checking if an event is written as one line of JSON with its level, logger, formatted message and MDC values.
+ * 2. Checking if the stack trace of an exception is written, and quotes and line breaks in the message are escaped.
+ */
+public class JsonLogEncoderTest {
+
+    /**
+     * The logger of the events.
+     */
+    private final Logger logger = new LoggerContext().getLogger("com.example.applicationstatusservice.controller");
+
+    /**
+     * The encoder under test.
+     */
+    private final JsonLogEncoder encoder = new JsonLogEncoder();
+
+    /**
+     * Parses the encoded lines.
+     */
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    /**
+     * JUnit test to check if the fields of an event are written on one line.
+     */
+    @Test
+    void encodeEvent() throws Exception {
+        LoggingEvent event = new LoggingEvent(Logger.FQCN, logger, Level.WARN, "Status of person_id: {} was not updated ", null, new Object[]{42});
+        event.setMDCPropertyMap(Map.of("requestId", "abc"));
+
+        String line = new String(encoder.encode(event), StandardCharsets.UTF_8);
+        assertTrue(line.endsWith("\n"));
+        assertEquals(1, line.lines().count());
+
+        JsonNode json = objectMapper.readTree(line);
+        assertEquals("WARN", json.get("level").asText());
+        assertEquals(logger.getName(), json.get("logger").asText());
+        assertEquals("Status of person_id: 42 was not updated ", json.get("message").asText());
+        assertEquals("abc", json.get("mdc").get("requestId").asText());
+        assertFalse(json.has("exception"));
+    }
+
+    /**
+     * JUnit test to check if an exception and a message with quotes and line breaks stay on one line.
+     */
+    @Test
+    void encodeException() throws Exception {
+        LoggingEvent event = new LoggingEvent(Logger.FQCN, logger, Level.ERROR, "Failed \"export\"\nretrying", new IllegalStateException("closed"), null);
+        event.setMDCPropertyMap(Map.of());
+
+        String line = new String(encoder.encode(event), StandardCharsets.UTF_8);
+        assertEquals(1, line.lines().count());
+
+        JsonNode json = objectMapper.readTree(line);
+        assertEquals("Failed \"export\"\nretrying", json.get("message").asText());
+        assertTrue(json.get("exception").asText().startsWith("java.lang.IllegalStateException: closed"));
+        assertFalse(json.has("mdc"));
+    }
+}
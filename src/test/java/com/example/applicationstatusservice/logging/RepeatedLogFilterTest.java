@@ -0,0 +1,153 @@
+package com.example.applicationstatusservice.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import ch.qos.logback.core.util.Duration;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * RepeatedLogFilterTest is a unit test of the filter rate-limiting repeated log events, with the
+ * events of a logger context collected in a list and at most two events of a group logged in each interval.
+ * The tests included are:
+ * 1. Checking if the repeated events of a group over the limit are dropped within an interval, while
+ * the events of other groups and the events below WARN are logged.
+ * 2. Checking if the number of dropped events is logged once when the interval ends, and the events
+ * of the group are logged again in the next interval.
+ */
+public class RepeatedLogFilterTest {
+
+    /**
+     * The message of the repeated events.
+     */
+    private static final String MESSAGE = "Unauthorized request from IP address: {} ";
+
+    /**
+     * The logger context the filter is added to.
+     */
+    private final LoggerContext loggerContext = new LoggerContext();
+
+    /**
+     * The events logged by the logger context.
+     */
+    private final ListAppender<ILoggingEvent> appender = new ListAppender<>();
+
+    /**
+     * The filter under test.
+     */
+    private final RepeatedLogFilter filter = new RepeatedLogFilter();
+
+    /**
+     * The logger of the events.
+     */
+    private Logger logger;
+
+    /**
+     * Collects the events of the logger context in the list.
+     */
+    @BeforeEach
+    void setUp() {
+        appender.setContext(loggerContext);
+        appender.start();
+        logger = loggerContext.getLogger("com.example.applicationstatusservice.security");
+        logger.setLevel(Level.DEBUG);
+        loggerContext.getLogger(Logger.ROOT_LOGGER_NAME).addAppender(appender);
+        filter.setContext(loggerContext);
+        filter.setMaxRepeats(2);
+    }
+
+    /**
+     * Stops the logger context.
+     */
+    @AfterEach
+    void tearDown() {
+        loggerContext.stop();
+    }
+
+    /**
+     * JUnit test to check if only the first events of a group are logged within an interval.
+     */
+    @Test
+    void repeatedEventsDropped() {
+        startFilter(Duration.buildByMinutes(10));
+
+        for (int i = 0; i < 5; i++) {
+            logger.warn(MESSAGE, "10.0.0.1");
+        }
+        logger.warn(MESSAGE, "10.0.0.2");
+        for (int i = 0; i < 3; i++) {
+            logger.debug(MESSAGE, "10.0.0.1");
+        }
+
+        assertEquals(2, count("10.0.0.1", Level.WARN));
+        assertEquals(1, count("10.0.0.2", Level.WARN));
+        assertEquals(3, count("10.0.0.1", Level.DEBUG));
+    }
+
+    /**
+     * JUnit test to check if the dropped events are summarized when the interval ends, and the
+     * group is logged again in the next interval.
+     */
+    @Test
+    void summaryAfterInterval() throws InterruptedException {
+        startFilter(Duration.buildByMilliseconds(200));
+
+        for (int i = 0; i < 5; i++) {
+            logger.warn(MESSAGE, "10.0.0.1");
+        }
+        long deadline = System.currentTimeMillis() + 5000;
+        while (summaries().isEmpty() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+        }
+
+        List<ILoggingEvent> summaries = summaries();
+        assertEquals(1, summaries.size());
+        assertTrue(summaries.get(0).getFormattedMessage().startsWith("Suppressed 3 repeated log events"));
+        assertTrue(summaries.get(0).getFormattedMessage().endsWith("[10.0.0.1]"));
+        assertEquals(logger.getName(), summaries.get(0).getLoggerName());
+
+        logger.warn(MESSAGE, "10.0.0.1");
+        assertEquals(3, count("10.0.0.1", Level.WARN));
+    }
+
+    /**
+     * Adds the filter to the logger context and starts it.
+     *
+     * @param interval is the length of the intervals.
+     */
+    private void startFilter(Duration interval) {
+        filter.setInterval(interval);
+        filter.start();
+        loggerContext.addTurboFilter(filter);
+    }
+
+    /**
+     * Counts the logged events of a group.
+     *
+     * @param argument is the argument of the events.
+     * @param level    is the level of the events.
+     * @return the number of logged events.
+     */
+    private long count(String argument, Level level) {
+        return appender.list.stream().filter(event -> MESSAGE.equals(event.getMessage()) && event.getLevel() == level
+                && argument.equals(event.getArgumentArray()[0])).count();
+    }
+
+    /**
+     * Returns the logged summaries of dropped events.
+     *
+     * @return the summaries.
+     */
+    private List<ILoggingEvent> summaries() {
+        return appender.list.stream().filter(event -> event.getMessage().startsWith("Suppressed")).toList();
+    }
+}
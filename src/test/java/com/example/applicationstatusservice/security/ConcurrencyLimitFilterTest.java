@@ -0,0 +1,158 @@
+package com.example.applicationstatusservice.security;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * ConcurrencyLimitFilterTest is a unit test of the concurrency limit, with one permit for the
+ * API requests, one for the exports, no room for waiting requests and requests that hold their
+ * permit until the test lets them finish.
+ * The tests included are:
+ * 1. Checking if a request arriving while the permit is held is rejected with 503 and the SERVICE_UNAVAILABLE ErrorDTO.
+ * 2. Checking if the permit is released once the request holding it is done.
+ * 3. Checking if a streamed export does not take the permit of the other API requests, and a
+ * second export arriving while it streams is rejected with 503.
+ * 4. Checking if reads answered from the caches and counters are not limited.
+ */
+public class ConcurrencyLimitFilterTest {
+
+    /**
+     * The filter under test.
+     */
+    private final ConcurrencyLimitFilter filter = new ConcurrencyLimitFilter(1, 1, 0, Duration.ZERO, new ObjectMapper());
+
+    /**
+     * The threads of the requests holding a permit.
+     */
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+
+    /**
+     * Counted down when the requests holding a permit may finish.
+     */
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    /**
+     * Lets the requests holding a permit finish and stops their threads.
+     */
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        release.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+    }
+
+    /**
+     * JUnit test to check if a status update arriving while another one holds the permit is rejected
+     * with HTTP 503 and the SERVICE_UNAVAILABLE ErrorDTO, without reaching the rest of the filter chain.
+     */
+    @Test
+    void rejectedWhenPermitHeld() throws Exception {
+        holdPermit(request("POST", "/api/applicant"));
+
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+        filter.doFilter(request("POST", "/api/applicant"), response, chain);
+
+        assertEquals(503, response.getStatus());
+        assertEquals("{\"error\":\"SERVICE_UNAVAILABLE\"}", response.getContentAsString());
+        assertNull(chain.getRequest());
+    }
+
+    /**
+     * JUnit test to check if the permit can be acquired again once the request holding it is done.
+     */
+    @Test
+    void permitReleased() throws Exception {
+        filter.doFilter(request("POST", "/api/applicant"), new MockHttpServletResponse(), new MockFilterChain());
+
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request("POST", "/api/applicant"), response, new MockFilterChain());
+        assertEquals(200, response.getStatus());
+    }
+
+    /**
+     * JUnit test to check if a streamed export only holds the permit of the exports, so status updates
+     * are still processed, while a second export is rejected with HTTP 503.
+     */
+    @Test
+    void exportsLimitedSeparately() throws Exception {
+        holdPermit(request("GET", "/api/applicant/export"));
+
+        MockHttpServletResponse update = new MockHttpServletResponse();
+        filter.doFilter(request("POST", "/api/applicant"), update, new MockFilterChain());
+        assertEquals(200, update.getStatus());
+
+        MockHttpServletResponse export = new MockHttpServletResponse();
+        filter.doFilter(request("GET", "/api/applicant/export"), export, new MockFilterChain());
+        assertEquals(503, export.getStatus());
+    }
+
+    /**
+     * JUnit test to check if the reads of the current status, the counts and the availability are
+     * processed while the permit is held, and status updates are not.
+     */
+    @Test
+    void cachedReadsNotLimited() throws Exception {
+        holdPermit(request("POST", "/api/applicant"));
+
+        assertTrue(filter.shouldNotFilter(request("GET", "/api/applicant/42/status")));
+        assertTrue(filter.shouldNotFilter(request("GET", "/api/applicant/counts")));
+        assertTrue(filter.shouldNotFilter(request("GET", "/api/applicant/availability")));
+        assertFalse(filter.shouldNotFilter(request("GET", "/api/applicant/42/history")));
+
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request("GET", "/api/applicant/42/status"), response, new MockFilterChain());
+        assertEquals(200, response.getStatus());
+    }
+
+    /**
+     * Starts a request that holds its permit until the test is torn down, and waits until it holds it.
+     *
+     * @param request is the request holding the permit.
+     */
+    private void holdPermit(MockHttpServletRequest request) throws InterruptedException {
+        CountDownLatch acquired = new CountDownLatch(1);
+        FilterChain blocking = (servletRequest, servletResponse) -> {
+            acquired.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        };
+        executor.submit(() -> {
+            filter.doFilter(request, new MockHttpServletResponse(), blocking);
+            return null;
+        });
+        assertTrue(acquired.await(5, TimeUnit.SECONDS));
+    }
+
+    /**
+     * Builds an API request, with the servlet path set to the path as the dispatcher servlet would.
+     *
+     * @param method is the HTTP method of the request.
+     * @param path   is the path of the request.
+     * @return the request.
+     */
+    private static MockHttpServletRequest request(String method, String path) {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, path);
+        request.setServletPath(path);
+        return request;
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.applicationstatusservice.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * LongBloomFilterTest is a unit test of the Bloom filter of the person existence index.
+ * The tests included are:
+ * 1. Checking if every added value is reported as possibly added, so the filter has no false negatives.
+ * 2. Checking if the share of values reported as possibly added without having been added stays
+ * close to the false-positive probability the filter was sized for.
+ * 3. Checking if an empty filter reports every value as definitely not added.
+ */
+public class LongBloomFilterTest {
+
+    /**
+     * The number of values the filters of the tests are sized for.
+     */
+    private static final int EXPECTED_INSERTIONS = 100_000;
+
+    /**
+     * The false-positive probability the filters of the tests are sized for.
+     */
+    private static final double FPP = 0.01;
+
+    /**
+     * JUnit test to check if all added values, sequential person_ids and random values, are reported as possibly added.
+     */
+    @Test
+    void noFalseNegatives() {
+        LongBloomFilter filter = new LongBloomFilter(EXPECTED_INSERTIONS, FPP);
+        long[] random = new SplittableRandom(1).longs(EXPECTED_INSERTIONS / 2).toArray();
+        for (long personId = 1; personId <= EXPECTED_INSERTIONS / 2; personId++) {
+            filter.put(personId);
+        }
+        for (long value : random) {
+            filter.put(value);
+        }
+
+        for (long personId = 1; personId <= EXPECTED_INSERTIONS / 2; personId++) {
+            assertTrue(filter.mightContain(personId));
+        }
+        for (long value : random) {
+            assertTrue(filter.mightContain(value));
+        }
+    }
+
+    /**
+     * JUnit test to check if the observed and estimated false-positive rates of a full filter stay
+     * within twice the probability it was sized for.
+     */
+    @Test
+    void falsePositiveRateBounded() {
+        LongBloomFilter filter = new LongBloomFilter(EXPECTED_INSERTIONS, FPP);
+        for (long personId = 1; personId <= EXPECTED_INSERTIONS; personId++) {
+            filter.put(personId);
+        }
+
+        int falsePositives = 0;
+        for (long personId = EXPECTED_INSERTIONS + 1; personId <= 2L * EXPECTED_INSERTIONS; personId++) {
+            if (filter.mightContain(personId)) {
+                falsePositives++;
+            }
+        }
+        assertTrue((double) falsePositives / EXPECTED_INSERTIONS < 2 * FPP);
+        assertTrue(filter.expectedFalsePositiveRate() < 2 * FPP);
+    }
+
+    /**
+     * JUnit test to check if an empty filter reports no value as possibly added.
+     */
+    @Test
+    void emptyFilter() {
+        LongBloomFilter filter = new LongBloomFilter(EXPECTED_INSERTIONS, FPP);
+        for (long personId = 0; personId < 1000; personId++) {
+            assertFalse(filter.mightContain(personId));
+        }
+        assertEquals(0, filter.expectedFalsePositiveRate());
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.applicationstatusservice.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * PasswordHashingServiceTest is a unit test of the hashing of passwords on the hashing threads,
+ * with a low bcrypt work factor, room for two pending passwords and no time to wait for room.
+ * The tests included are:
+ * 1. Checking if a call hashing more passwords than there is room for is not rejected because
+ * of the room held by its own earlier passwords, and returns the hashes in order.
+ */
+public class PasswordHashingServiceTest {
+
+    /**
+     * The service under test.
+     */
+    private final PasswordHashingService passwordHashingService = new PasswordHashingService(new SimpleMeterRegistry(), 4, 2, 2, Duration.ZERO);
+
+    /**
+     * Stops the hashing threads.
+     */
+    @AfterEach
+    void tearDown() {
+        passwordHashingService.shutdown();
+    }
+
+    /**
+     * JUnit test to check if seven passwords are hashed in chunks of two, in the order they were passed.
+     */
+    @Test
+    void moreThanMaxPending() {
+        List<String> passwords = IntStream.range(0, 7).mapToObj(i -> "secret" + i).toList();
+
+        List<String> hashes = passwordHashingService.hashAll(passwords);
+
+        assertEquals(passwords.size(), hashes.size());
+        BCryptPasswordEncoder passwordEncoder = new BCryptPasswordEncoder();
+        for (int i = 0; i < passwords.size(); i++) {
+            assertTrue(passwordEncoder.matches(passwords.get(i), hashes.get(i)));
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package com.example.applicationstatusservice.service;
+
+import com.example.applicationstatusservice.repository.PersonRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.Set;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * PersonExistenceIndexTest is a unit test of the person existence index, with the Person table
+ * replaced by a set of person_ids that the tests add persons to. The index scans one block of
+ * person_ids, Person.ID_ALLOCATION_SIZE person_ids, again on each refresh.
+ * The tests included are:
+ * 1. Checking if person_ids below the rescanned block that were never registered are definitely
+ * absent, and registered ones are not.
+ * 2. Checking if person_ids in the rescanned block or above the highest scanned person_id are never
+ * definitely absent, since they may have been registered since the last scan.
+ * 3. Checking if a refresh indexes a person committed out of id order within the rescanned block, so it
+ * is still found once the block is settled, and misses one committed further below the highest scanned person_id.
+ * 4. Checking if a lookup of a definitely absent person_id does not query the database.
+ */
+public class PersonExistenceIndexTest {
+
+    /**
+     * The person_ids in the Person table.
+     */
+    private final Set<Long> personIds = new TreeSet<>();
+
+    /**
+     * The mocked repository streaming the person_ids of the table.
+     */
+    private PersonRepository personRepository;
+
+    /**
+     * Mocks the repository, streaming the person_ids of the table after the requested one.
+     */
+    @BeforeEach
+    void setUp() {
+        personRepository = Mockito.mock(PersonRepository.class);
+        when(personRepository.streamPersonIdsAfter(anyLong())).thenAnswer(invocation -> {
+            long after = invocation.getArgument(0);
+            return personIds.stream().filter(personId -> personId > after).toList().stream();
+        });
+        when(personRepository.existsById(anyLong())).thenAnswer(invocation -> personIds.contains(invocation.<Long>getArgument(0)));
+    }
+
+    /**
+     * JUnit test to check if the index rules out the unregistered person_ids below the rescanned block.
+     */
+    @Test
+    void absentBelowHighestScanned() {
+        register(1, 2, 3, 4, 6, 7, 8, 9, 10, 200);
+        PersonExistenceIndex index = warmedUpIndex();
+
+        assertTrue(index.isDefinitelyAbsent(5));
+        assertTrue(index.isDefinitelyAbsent(150));
+        assertFalse(index.isDefinitelyAbsent(4));
+        assertFalse(index.isDefinitelyAbsent(10));
+    }
+
+    /**
+     * JUnit test to check if the index never rules out person_ids in the rescanned block or above the highest scanned one.
+     */
+    @Test
+    void notAbsentAboveHighestScanned() {
+        register(1, 2, 3, 200);
+        PersonExistenceIndex index = warmedUpIndex();
+
+        assertFalse(index.isDefinitelyAbsent(151));
+        assertFalse(index.isDefinitelyAbsent(199));
+        assertFalse(index.isDefinitelyAbsent(201));
+        assertFalse(index.isDefinitelyAbsent(1000));
+        register(180, 201);
+        assertTrue(index.exists(180));
+        assertTrue(index.exists(201));
+    }
+
+    /**
+     * JUnit test to check if a refresh picks up a person committed below the highest scanned
+     * person_id within the rescanned block, but not one below it.
+     */
+    @Test
+    void refreshOverlap() {
+        register(1, 2, 3, 200);
+        PersonExistenceIndex index = warmedUpIndex();
+        assertFalse(index.isDefinitelyAbsent(170));
+        assertTrue(index.isDefinitelyAbsent(120));
+
+        register(170, 120);
+        index.refresh();
+        register(260);
+        index.refresh();
+
+        assertFalse(index.isDefinitelyAbsent(170));
+        assertTrue(index.isDefinitelyAbsent(120));
+    }
+
+    /**
+     * JUnit test to check if a definitely absent person_id is answered without a database query.
+     */
+    @Test
+    void absentLookupSkipsDatabase() {
+        register(1, 2, 4, 100);
+        PersonExistenceIndex index = warmedUpIndex();
+
+        assertFalse(index.exists(3));
+        verify(personRepository, never()).existsById(3L);
+        assertTrue(index.exists(4));
+    }
+
+    /**
+     * Adds persons to the Person table.
+     *
+     * @param ids are the person_ids of the persons.
+     */
+    private void register(long... ids) {
+        for (long id : ids) {
+            personIds.add(id);
+        }
+    }
+
+    /**
+     * Creates an index for a thousand persons, scanning one block again on each refresh, and warms
+     * it up with the person_ids of the table.
+     *
+     * @return the warmed up index.
+     */
+    private PersonExistenceIndex warmedUpIndex() {
+        PersonExistenceIndex index = new PersonExistenceIndex(personRepository, Mockito.mock(PlatformTransactionManager.class), new SimpleMeterRegistry(), 1000, 0.01, 1);
+        index.warmUp();
+        return index;
+    }
+}
@@ -0,0 +1,130 @@
+package com.example.applicationstatusservice.service;
+
+import com.example.applicationstatusservice.model.dto.StatusChangeDTO;
+import com.example.applicationstatusservice.repository.ApplicationStatusRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.when;
+
+/**
+ * StatusChangeFeedTest is a unit test of the status change feed, with the status_outbox table
+ * replaced by a list of status changes and a replay that waits until the test lets it continue.
+ * The tests included are:
+ * 1. Checking if the dispatcher publishes new status changes while a subscriber is still being
+ * sent the changes it missed, instead of waiting for the replay.
+ */
+public class StatusChangeFeedTest {
+
+    /**
+     * The status changes in the status_outbox table.
+     */
+    private final List<StatusChangeDTO> outbox = new CopyOnWriteArrayList<>();
+
+    /**
+     * Counted down when the replay reads the outbox.
+     */
+    private final CountDownLatch replayStarted = new CountDownLatch(1);
+
+    /**
+     * Counted down when the replay may continue.
+     */
+    private final CountDownLatch replayReleased = new CountDownLatch(1);
+
+    /**
+     * The thread of the subscriber.
+     */
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+
+    /**
+     * The meter registry of the feed.
+     */
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    /**
+     * The feed under test.
+     */
+    private StatusChangeFeed feed;
+
+    /**
+     * Mocks the repository, reading the outbox after the requested id and holding up the reads of
+     * the replay, which start from the first status change.
+     */
+    @BeforeEach
+    void setUp() {
+        ApplicationStatusRepository repository = Mockito.mock(ApplicationStatusRepository.class);
+        when(repository.findLastStatusChangeId()).thenAnswer(invocation -> (long) outbox.size());
+        when(repository.findStatusChanges(anyLong(), anyInt())).thenAnswer(invocation -> {
+            long after = invocation.getArgument(0);
+            if (after == 0) {
+                replayStarted.countDown();
+                replayReleased.await();
+            }
+            return outbox.stream().filter(change -> change.getEvent_id() > after).toList();
+        });
+        feed = new StatusChangeFeed(repository, new ObjectMapper().registerModule(new JavaTimeModule()), meterRegistry,
+                500, Duration.ofSeconds(5), Duration.ofHours(24), Duration.ofMinutes(30));
+        outbox.add(change(1));
+        outbox.add(change(2));
+    }
+
+    /**
+     * Lets the replay continue and stops the thread of the subscriber.
+     */
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        replayReleased.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+    }
+
+    /**
+     * JUnit test to check if a dispatch completes while a subscriber resuming the feed is being
+     * sent the changes it missed, and the subscription is opened once the replay is done.
+     */
+    @Test
+    void dispatchNotBlockedByReplay() throws Exception {
+        Future<SseEmitter> subscription = executor.submit(() -> feed.subscribe(0L));
+        assertTrue(replayStarted.await(5, TimeUnit.SECONDS));
+
+        outbox.add(change(3));
+        assertTimeoutPreemptively(Duration.ofSeconds(5), () -> feed.dispatch());
+        assertEquals(1, meterRegistry.get("application.status.feed.events").counter().count());
+
+        replayReleased.countDown();
+        assertNotNull(subscription.get(5, TimeUnit.SECONDS));
+        assertEquals(1, meterRegistry.get("application.status.feed.subscribers").gauge().value());
+    }
+
+    /**
+     * Builds a status change that is old enough not to be waited for by the dispatcher.
+     *
+     * @param eventId is the outbox id of the status change.
+     * @return the status change.
+     */
+    private static StatusChangeDTO change(long eventId) {
+        return new StatusChangeDTO(eventId, eventId, "Accept", Instant.now().minus(Duration.ofMinutes(1)));
+    }
+}